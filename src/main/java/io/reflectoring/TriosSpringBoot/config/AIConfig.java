@@ -0,0 +1,232 @@
+package io.reflectoring.TriosSpringBoot.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.reflectoring.TriosSpringBoot.service.AIMoveScheduler;
+import io.reflectoring.TriosSpringBoot.strategy.DecisionCache;
+import io.reflectoring.TriosSpringBoot.strategy.MaxFlipsStrategy;
+import io.reflectoring.TriosSpringBoot.strategy.OpeningBook;
+import io.reflectoring.TriosSpringBoot.strategy.SearchStatistics;
+import io.reflectoring.TriosSpringBoot.strategy.StrategyFactory;
+import io.reflectoring.TriosSpringBoot.strategy.TranspositionTable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the AI players shared by every game on this node.
+ */
+@Configuration
+public class AIConfig {
+    private static final Logger logger = LoggerFactory.getLogger(AIConfig.class);
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+    @Bean
+    public TranspositionTable transpositionTable(
+            @Value("${trios.ai.transposition-table-mb:64}") long transpositionTableMegabytes) {
+        return new TranspositionTable(transpositionTableMegabytes * BYTES_PER_MEGABYTE);
+    }
+
+    @Bean
+    public DecisionCache decisionCache(
+            @Value("${trios.ai.decision-cache-size:10000}") int decisionCacheSize,
+            @Value("${trios.ai.decision-cache-idle-ms:600000}") long decisionCacheIdleMillis) {
+        return new DecisionCache(decisionCacheSize, decisionCacheIdleMillis);
+    }
+
+    @Bean
+    public StrategyFactory strategyFactory(
+            TranspositionTable transpositionTable,
+            DecisionCache decisionCache,
+            @Value("${trios.ai.search-time-budget-ms:1000}") long searchTimeBudgetMillis,
+            @Value("${trios.ai.mcts-playout-budget:" + Long.MAX_VALUE + "}") long playoutBudget,
+            @Value("${trios.ai.endgame-threshold:0}") int endgameThreshold,
+            @Value("${trios.ai.opening-book:}") String openingBookPath,
+            ForkJoinPool aiEvaluationPool,
+            ForkJoinPool aiSearchPool) throws IOException {
+        return StrategyFactory.builder()
+                .transpositionTable(transpositionTable)
+                .searchTimeBudgetMillis(searchTimeBudgetMillis)
+                .playoutBudget(playoutBudget)
+                .endgameThreshold(endgameThreshold)
+                .openingBook(openOpeningBook(openingBookPath))
+                .decisionCache(decisionCache)
+                .evaluationPool(aiEvaluationPool)
+                .searchPool(aiSearchPool)
+                .build();
+    }
+
+    /**
+     * Pool that strategies scoring every candidate move, such as the corner strategy, split
+     * the candidates over. With one thread, the default, candidates are scored on the
+     * thread choosing the move and the pool never starts a thread; 0 uses one per core.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool aiEvaluationPool(@Value("${trios.ai.evaluation-threads:1}") int evaluationThreads) {
+        if (evaluationThreads < 0) {
+            throw new IllegalArgumentException("Evaluation threads cannot be negative");
+        }
+        var threads = evaluationThreads > 0 ? evaluationThreads : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+
+    /**
+     * Pool that Monte Carlo searches run their workers on, one worker per thread, so that
+     * searches never take the common pool from the rest of the server. 0, the default,
+     * uses one thread per core.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool aiSearchPool(@Value("${trios.ai.mcts-threads:0}") int mctsThreads) {
+        if (mctsThreads < 0) {
+            throw new IllegalArgumentException("MCTS threads cannot be negative");
+        }
+        var threads = mctsThreads > 0 ? mctsThreads : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+
+    /**
+     * Runs AI moves in the background, so a request returns as soon as its own move is
+     * applied. Moves human players wait for go before moves of AI-versus-AI games, and
+     * moves that miss their deadline are played by the max flips strategy.
+     */
+    @Bean
+    public AIMoveScheduler aiMoveScheduler(
+            @Value("${trios.ai.move-threads:0}") int moveThreads,
+            @Value("${trios.ai.move-queue-capacity:1000}") int queueCapacity,
+            @Value("${trios.ai.interactive-deadline-ms:3000}") long interactiveDeadlineMillis,
+            @Value("${trios.ai.bulk-deadline-ms:30000}") long bulkDeadlineMillis) {
+        var threads = moveThreads > 0 ? moveThreads : Runtime.getRuntime().availableProcessors();
+        return new AIMoveScheduler(threads, queueCapacity, interactiveDeadlineMillis,
+                bulkDeadlineMillis, new MaxFlipsStrategy());
+    }
+
+    /**
+     * Memory-maps the opening book, if one is configured and has been built.
+     */
+    private static OpeningBook openOpeningBook(String path) throws IOException {
+        if (path.isBlank()) {
+            return null;
+        }
+        var file = Path.of(path);
+        if (!Files.isRegularFile(file)) {
+            logger.warn("Opening book {} not found; AI players will search from the first move", file);
+            return null;
+        }
+        var book = OpeningBook.open(file);
+        logger.info("Opening book {} loaded: {} positions", file, book.size());
+        return book;
+    }
+
+    /**
+     * Publishes the transposition table counters, e.g. at /actuator/metrics/trios.ai.tt.probes.
+     */
+    @Bean
+    public MeterBinder transpositionTableMetrics(TranspositionTable transpositionTable) {
+        return registry -> {
+            FunctionCounter.builder("trios.ai.tt.probes", transpositionTable, TranspositionTable::getHits)
+                    .tag("result", "hit")
+                    .description("Transposition table probes that found their position")
+                    .register(registry);
+            FunctionCounter.builder("trios.ai.tt.probes", transpositionTable, TranspositionTable::getMisses)
+                    .tag("result", "miss")
+                    .description("Transposition table probes that did not find their position")
+                    .register(registry);
+            FunctionCounter.builder("trios.ai.tt.stores", transpositionTable, TranspositionTable::getStores)
+                    .description("Search results stored in the transposition table")
+                    .register(registry);
+            Gauge.builder("trios.ai.tt.capacity", transpositionTable, TranspositionTable::getCapacity)
+                    .description("Number of entries the transposition table can hold")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Publishes the totals of AI searches, e.g. at /actuator/metrics/trios.ai.search, tagged
+     * with the kind of search. Per-move details are logged at DEBUG.
+     */
+    @Bean
+    public MeterBinder searchMetrics(StrategyFactory strategyFactory) {
+        var statistics = strategyFactory.getSearchStatistics();
+        return registry -> {
+            for (var kind : SearchStatistics.Kind.values()) {
+                var tag = kind.name().toLowerCase();
+                FunctionTimer.builder("trios.ai.search", statistics, s -> s.getSearches(kind),
+                                s -> s.getNanos(kind), TimeUnit.NANOSECONDS)
+                        .tag("kind", tag)
+                        .description("AI searches and the time they took")
+                        .register(registry);
+                FunctionCounter.builder("trios.ai.search.nodes", statistics, s -> s.getNodes(kind))
+                        .tag("kind", tag)
+                        .description("Positions visited by AI searches; playouts for Monte Carlo searches")
+                        .register(registry);
+                FunctionCounter.builder("trios.ai.search.plies", statistics, s -> s.getPlies(kind))
+                        .tag("kind", tag)
+                        .description("Depth completed by AI searches, summed; divide by the search count for the mean")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Publishes the AI move queue, e.g. at /actuator/metrics/trios.ai.moves.queued, tagged
+     * with the priority class.
+     */
+    @Bean
+    public MeterBinder aiMoveSchedulerMetrics(AIMoveScheduler scheduler) {
+        return registry -> {
+            for (var priority : AIMoveScheduler.Priority.values()) {
+                var tag = priority.name().toLowerCase();
+                Gauge.builder("trios.ai.moves.queued", scheduler, s -> s.getQueueDepth(priority))
+                        .tag("priority", tag)
+                        .description("AI moves waiting for a scheduler thread")
+                        .register(registry);
+                FunctionTimer.builder("trios.ai.moves.wait", scheduler, s -> s.getStarted(priority),
+                                s -> s.getWaitNanos(priority), TimeUnit.NANOSECONDS)
+                        .tag("priority", tag)
+                        .description("Time AI moves spent queued before their search started")
+                        .register(registry);
+                FunctionCounter.builder("trios.ai.moves.deadline.misses", scheduler,
+                                s -> s.getDeadlineMisses(priority))
+                        .tag("priority", tag)
+                        .description("AI moves still queued at their deadline, played by the fallback strategy")
+                        .register(registry);
+                FunctionCounter.builder("trios.ai.moves.rejections", scheduler, s -> s.getRejections(priority))
+                        .tag("priority", tag)
+                        .description("AI moves played by the fallback strategy because the queue was full")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Publishes the decision cache counters, e.g. at /actuator/metrics/trios.ai.decisions.
+     */
+    @Bean
+    public MeterBinder decisionCacheMetrics(DecisionCache decisionCache) {
+        return registry -> {
+            FunctionCounter.builder("trios.ai.decisions", decisionCache, DecisionCache::getHits)
+                    .tag("result", "hit")
+                    .description("AI moves replayed from the decision cache")
+                    .register(registry);
+            FunctionCounter.builder("trios.ai.decisions", decisionCache, DecisionCache::getMisses)
+                    .tag("result", "miss")
+                    .description("AI moves not found in the decision cache")
+                    .register(registry);
+            FunctionCounter.builder("trios.ai.decisions.evictions", decisionCache, DecisionCache::getEvictions)
+                    .description("Decisions dropped from the cache for space or idleness")
+                    .register(registry);
+            Gauge.builder("trios.ai.decisions.size", decisionCache, DecisionCache::size)
+                    .description("Number of decisions in the cache")
+                    .register(registry);
+        };
+    }
+}
@@ -1,11 +1,21 @@
 package io.reflectoring.TriosSpringBoot.config;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import io.reflectoring.TriosSpringBoot.service.AIMoveScheduler;
 import io.reflectoring.TriosSpringBoot.service.GameService;
 import io.reflectoring.TriosSpringBoot.registry.GameControllerRegistry;
 import io.reflectoring.TriosSpringBoot.repository.GameRepository;
 import io.reflectoring.TriosSpringBoot.repository.PlayerRepository;
+import io.reflectoring.TriosSpringBoot.strategy.StrategyFactory;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Configuration class for Three Trios game
@@ -18,11 +28,33 @@ public class ThreeTriosConfig {
         return new GameControllerRegistry();
     }
 
+    /**
+     * Runs the mailboxes of all games. A mailbox holds a thread only while it has moves
+     * to apply, and saving a move waits on the database, so there are more threads than cores.
+     * With virtual threads enabled, each mailbox drains on a virtual thread of its own and
+     * the pool size does not apply.
+     */
+    @Bean
+    public Executor gameMailboxExecutor(
+            @Value("${trios.game.mailbox-threads:16}") int threads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor("game-mailbox-");
+        }
+        return Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("game-mailbox-"));
+    }
+
     @Bean
     public GameService gameService(
             GameRepository gameRepository,
-            PlayerRepository playerRepository) {
-        return new GameService(gameRepository, playerRepository);
+            PlayerRepository playerRepository,
+            StrategyFactory strategyFactory,
+            @Qualifier("gameMailboxExecutor") Executor gameMailboxExecutor,
+            AIMoveScheduler aiMoveScheduler,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher) {
+        return new GameService(gameRepository, playerRepository, strategyFactory, gameMailboxExecutor,
+                aiMoveScheduler, transactionTemplate, eventPublisher);
     }
 
     // ResourceLoader is already provided by Spring Boot
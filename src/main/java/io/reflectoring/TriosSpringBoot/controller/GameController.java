@@ -1,6 +1,7 @@
 package io.reflectoring.TriosSpringBoot.controller;
 
 import io.reflectoring.TriosSpringBoot.entity.Game;
+import io.reflectoring.TriosSpringBoot.model.BoardType;
 import io.reflectoring.TriosSpringBoot.model.PlayerColor;
 import io.reflectoring.TriosSpringBoot.service.GameService;
 import io.reflectoring.TriosSpringBoot.view.dto.*;
@@ -8,10 +9,14 @@ import io.reflectoring.TriosSpringBoot.exception.GameNotFoundException;
 import io.reflectoring.TriosSpringBoot.exception.InvalidMoveException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import lombok.Data;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/games")
@@ -25,7 +30,8 @@ public class GameController {
             request.getGridConfig(),
             request.getCardConfig(),
             request.getRedPlayerType(),
-            request.getBluePlayerType()
+            request.getBluePlayerType(),
+            BoardType.fromName(request.getBoardType())
     );
     return ResponseEntity.ok(new GameResponseDTO(game));
   }
@@ -41,29 +47,51 @@ public class GameController {
   }
 
   @PostMapping("/{gameId}/move")
-  public ResponseEntity<GameStateDTO> makeMove(
+  public CompletableFuture<ResponseEntity<GameStateDTO>> makeMove(
           @PathVariable Long gameId,
           @RequestBody MoveRequestDTO request) {
     try {
-      GameStateDTO state = gameService.playCard(
+      return gameService.playCard(
               gameId,
               request.getPlayerColor().toString(),
               request.getCardId(),
               request.getPosition()
-      );
-      return ResponseEntity.ok(state);
-    } catch (InvalidMoveException e) {
-      return ResponseEntity.badRequest().body(null);
+      ).thenApply(ResponseEntity::ok).exceptionally(GameController::moveFailed);
     } catch (GameNotFoundException e) {
+      return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+    }
+  }
+
+  /**
+   * Maps a move that failed once its turn came to the response a synchronous move gets.
+   */
+  private static ResponseEntity<GameStateDTO> moveFailed(Throwable failure) {
+    Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+    if (cause instanceof InvalidMoveException) {
+      return ResponseEntity.badRequest().body(null);
+    }
+    if (cause instanceof GameNotFoundException) {
       return ResponseEntity.notFound().build();
     }
+    throw failure instanceof CompletionException ? (CompletionException) failure
+            : new CompletionException(failure);
   }
 
+  /**
+   * Gets the latest state snapshot, tagged with its version as ETag. Polling clients
+   * that send the tag back in If-None-Match get 304 until a move has been applied.
+   */
   @GetMapping("/{gameId}")
-  public ResponseEntity<GameStateDTO> getGameState(@PathVariable Long gameId) {
+  public ResponseEntity<GameStateDTO> getGameState(
+          @PathVariable Long gameId,
+          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
     try {
       GameStateDTO state = gameService.getGameState(gameId);
-      return ResponseEntity.ok(state);
+      String eTag = "\"" + state.version() + "\"";
+      if (eTag.equals(ifNoneMatch)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+      }
+      return ResponseEntity.ok().eTag(eTag).body(state);
     } catch (GameNotFoundException e) {
       return ResponseEntity.notFound().build();
     }
@@ -81,4 +109,5 @@ class CreateGameRequest {
   private String cardConfig;
   private String redPlayerType;
   private String bluePlayerType;
+  private String boardType;
 }
\ No newline at end of file
@@ -1,26 +1,54 @@
 package io.reflectoring.TriosSpringBoot.model;
 
-import io.reflectoring.TriosSpringBoot.strategy.CornerStrategy;
-import io.reflectoring.TriosSpringBoot.strategy.MaxFlipsStrategy;
+import io.reflectoring.TriosSpringBoot.strategy.StrategyFactory;
 
 /**
  * Implementation of Three Trios that supports AI players.
+ * AI players do not move on their own: whoever drives the game checks
+ * {@link #isAITurn()} after each move and calls {@link #playAITurn()}, typically on
+ * a background thread, so that a move never waits for the AI moves that follow it.
  */
 public class AIThreeTriosGame extends AbstractThreeTriosGame {
+  private final StrategyFactory strategyFactory;
 
   /**
-   * Constructs a new AI Three Trios game.
+   * Constructs a new AI Three Trios game whose AI players do not share search results.
    */
   public AIThreeTriosGame() {
+    this(new StrategyFactory());
+  }
+
+  /**
+   * Constructs a new AI Three Trios game.
+   *
+   * @param strategyFactory factory for the strategies of AI players
+   * @throws IllegalArgumentException if strategyFactory is null
+   */
+  public AIThreeTriosGame(StrategyFactory strategyFactory) {
     super();
+    if (strategyFactory == null) {
+      throw new IllegalArgumentException("Strategy factory cannot be null");
+    }
+    this.strategyFactory = strategyFactory;
+    players.put(PlayerColor.RED, new GamePlayer(PlayerColor.RED));
+    players.put(PlayerColor.BLUE, new GamePlayer(PlayerColor.BLUE));
   }
 
   /**
    * Initializes the game with specific player types.
+   * Each type is 'human' or one of the AI player types of the strategy factory.
+   * Players start out human, and the new players take over the hands already dealt.
    */
   public void initializePlayersWithTypes(String redPlayerType, String bluePlayerType) {
-    players.put(PlayerColor.RED, createPlayer(PlayerColor.RED, redPlayerType));
-    players.put(PlayerColor.BLUE, createPlayer(PlayerColor.BLUE, bluePlayerType));
+    replacePlayer(createPlayer(PlayerColor.RED, redPlayerType));
+    replacePlayer(createPlayer(PlayerColor.BLUE, bluePlayerType));
+  }
+
+  private void replacePlayer(Player player) {
+    Player previous = players.put(player.getColor(), player);
+    for (Card card : previous.getHand()) {
+      player.addCardToHand(card);
+    }
   }
 
   private Player createPlayer(PlayerColor color, String playerType) {
@@ -28,17 +56,10 @@ public class AIThreeTriosGame extends AbstractThreeTriosGame {
       throw new IllegalArgumentException("Player type cannot be null");
     }
 
-    switch (playerType.toLowerCase()) {
-      case "human":
-        return new GamePlayer(color);
-      case "maxflips":
-        return new AIPlayer(color, new MaxFlipsStrategy(), this);
-      case "corner":
-        return new AIPlayer(color, new CornerStrategy(), this);
-      default:
-        throw new IllegalArgumentException(
-                "Invalid player type: " + playerType + ". Use 'human', 'maxflips', or 'corner'");
+    if (playerType.equalsIgnoreCase("human")) {
+      return new GamePlayer(color);
     }
+    return new AIPlayer(color, strategyFactory.createStrategy(playerType), this);
   }
 
   @Override
@@ -48,9 +69,6 @@ public class AIThreeTriosGame extends AbstractThreeTriosGame {
     }
     currentPlayer = PlayerColor.RED;
     gameState = GameState.WAITING_FOR_MOVE;
-
-    // If first player is AI, make their move
-    checkAndExecuteAIMove();
   }
 
   @Override
@@ -72,7 +90,7 @@ public class AIThreeTriosGame extends AbstractThreeTriosGame {
     }
 
     // Execute the move
-    board.placeCard(card, position);
+    board.placeCard(card, position, currentPlayer);
     getCurrentPlayer().removeCardFromHand(card);
     handleBattles(position);
 
@@ -89,24 +107,43 @@ public class AIThreeTriosGame extends AbstractThreeTriosGame {
     // Switch turns
     currentPlayer = currentPlayer.getOpponentColor();
     gameState = GameState.WAITING_FOR_MOVE;
+  }
 
-    // If next player is AI, make their move
-    checkAndExecuteAIMove();
+  /**
+   * Checks whether the game is waiting for an AI player's move.
+   *
+   * @return true if the current player is an AI player and the game is not over
+   */
+  public boolean isAITurn() {
+    return gameState == GameState.WAITING_FOR_MOVE && players.get(currentPlayer) instanceof AICapable;
   }
 
-  private void checkAndExecuteAIMove() {
-    Player currentPlayerObj = players.get(currentPlayer);
-    if (currentPlayerObj instanceof AIPlayer && gameState == GameState.WAITING_FOR_MOVE) {
-      // Add small delay to make AI moves visible
-      try {
-        Thread.sleep(500);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
+  /**
+   * Checks whether a human plays in this game, so that moves of its AI player are
+   * answers a person is waiting for.
+   *
+   * @return true if at least one player is not an AI player
+   */
+  public boolean hasHumanPlayer() {
+    for (Player player : players.values()) {
+      if (!(player instanceof AICapable)) {
+        return true;
       }
+    }
+    return false;
+  }
 
-      if (!((AIPlayer) currentPlayerObj).makeMove()) {
-        System.err.println("AI failed to make a move");
-      }
+  /**
+   * Plays the current AI player's move. Only the one move is played, even if the
+   * next player is an AI player too.
+   *
+   * @return true if a move was played, false if the AI player failed to choose a legal move
+   * @throws IllegalStateException if it is not an AI player's turn
+   */
+  public boolean playAITurn() {
+    if (!isAITurn()) {
+      throw new IllegalStateException("Not an AI player's turn");
     }
+    return ((AICapable) players.get(currentPlayer)).makeMove();
   }
 }
\ No newline at end of file
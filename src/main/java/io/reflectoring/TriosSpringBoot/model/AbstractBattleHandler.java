@@ -0,0 +1,97 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Base class for battle handlers.
+ * Implements speculative moves on top of the board's undo log, keeping a stack
+ * of undo marks so that nested moves can be reverted without copying the board.
+ */
+public abstract class AbstractBattleHandler implements BattleHandler {
+  private final Board board;
+  private int[] undoMarks;
+  private int depth;
+
+  /**
+   * Constructor for the AbstractBattleHandler class.
+   *
+   * @param board the game board to handle battles for
+   * @throws IllegalArgumentException if board is null
+   */
+  protected AbstractBattleHandler(Board board) {
+    if (board == null) {
+      throw new IllegalArgumentException("Board cannot be null");
+    }
+    this.board = board;
+    this.undoMarks = new int[16];
+    this.depth = 0;
+  }
+
+  @Override
+  public int applyMove(Card card, Coordinate position, PlayerColor owner) {
+    int mark = board.getUndoMark();
+    board.placeCard(card, position, owner);
+
+    if (depth == undoMarks.length) {
+      undoMarks = Arrays.copyOf(undoMarks, depth * 2);
+    }
+    undoMarks[depth++] = mark;
+
+    return resolveBattles(board.getGrid().getIndex(position), null);
+  }
+
+  @Override
+  public void undoMove() {
+    if (depth == 0) {
+      throw new IllegalStateException("No move to undo");
+    }
+    board.undoTo(undoMarks[--depth]);
+  }
+
+  /**
+   * Runs the battle for a newly placed card followed by every combo step,
+   * using runBattle and runComboStep. Subclasses override this with resolvers
+   * that do not build coordinate lists.
+   */
+  @Override
+  public int resolveBattles(int playedIndex, int[] flipped) {
+    Grid grid = board.getGrid();
+    checkFlipBuffer(playedIndex, flipped);
+
+    List<Coordinate> flippedCards = runBattle(grid.getCoordinate(playedIndex));
+    int totalFlips = 0;
+    while (!flippedCards.isEmpty()) {
+      for (Coordinate position : flippedCards) {
+        if (flipped != null) {
+          flipped[totalFlips] = grid.getIndex(position);
+        }
+        totalFlips++;
+      }
+      flippedCards = runComboStep(flippedCards);
+    }
+    return totalFlips;
+  }
+
+  /**
+   * Validates the arguments of resolveBattles before the board is changed.
+   * A move can flip at most every opponent card on the board, so a buffer of
+   * that size can never overflow.
+   *
+   * @param playedIndex cell index of the newly placed card
+   * @param flipped the caller's flip buffer, or null
+   * @return owner of the played card
+   * @throws IllegalArgumentException if playedIndex is out of bounds or flipped is too small
+   * @throws IllegalStateException if there is no card at playedIndex
+   */
+  protected PlayerColor checkFlipBuffer(int playedIndex, int[] flipped) {
+    if (board.getCardAt(playedIndex) == null) {
+      throw new IllegalStateException("No card at played position");
+    }
+    PlayerColor owner = board.getOwnerAt(playedIndex);
+    if (flipped != null && flipped.length < board.getCardCount(owner.getOpponentColor())) {
+      throw new IllegalArgumentException("Flip buffer is too small");
+    }
+    return owner;
+  }
+}
@@ -6,8 +6,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 /**
  * Abstract base class for Three Trios game implementations.
@@ -19,6 +22,7 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
   protected Board board;
   protected GameState gameState;
   protected BattleHandler battleHandler;
+  protected BoardType boardType;
 
   /**
    * Constructor for the AbstractThreeTriosGame class.
@@ -27,10 +31,28 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
     this.players = new HashMap<>();
     this.currentPlayer = PlayerColor.RED;
     this.gameState = GameState.INITIALIZATION;
+    this.boardType = BoardType.STANDARD;
     this.board = new GameBoard(new GameGrid(3, 3));
     this.battleHandler = new GameBattleHandler(this.board);
   }
 
+  /**
+   * Selects the board implementation used by the next call to initializeGame.
+   *
+   * @param boardType the board implementation to use
+   * @throws IllegalArgumentException if boardType is null
+   * @throws IllegalStateException if the game has already started
+   */
+  public void setBoardType(BoardType boardType) {
+    if (boardType == null) {
+      throw new IllegalArgumentException("Board type cannot be null");
+    }
+    if (gameState != GameState.INITIALIZATION) {
+      throw new IllegalStateException("Board type cannot change after the game has started");
+    }
+    this.boardType = boardType;
+  }
+
   @Override
   public void initializeGameFromFiles(String gridConfig, String cardsConfig) {
     if (gridConfig == null || cardsConfig == null) {
@@ -72,7 +94,7 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
 
         for (int j = 0; j < cols; j++) {
           char cell = row.charAt(j);
-          Coordinate pos = new GameCoordinate(i, j);
+          Coordinate pos = grid.getCoordinate(i, j);
 
           if (cell == 'X') {
             grid.setCellState(pos, CellState.HOLE);
@@ -111,7 +133,7 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
         int southValue = parseCardValue(cardData[3]);
         int westValue = parseCardValue(cardData[4]);
 
-        Card card = new GameCard(identifier, null,
+        Card card = new GameCard(identifier,
               northValue, eastValue, southValue, westValue);
         cards.add(card);
       }
@@ -143,19 +165,46 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
 
   @Override
   public void initializeGame(Grid grid, List<Card> cards) {
+    resetGame(grid, cards);
+    distributeCards(cards);
+  }
+
+  /**
+   * Initializes the game with a reproducible deal. The same seed and cards always
+   * give each player the same hand.
+   *
+   * @param grid the grid to play on
+   * @param cards the cards to deal
+   * @param seed seed for shuffling the cards
+   * @throws IllegalArgumentException if grid or cards is null, the number of cards is odd
+   *         or two cards share an identifier
+   */
+  public void initializeGame(Grid grid, List<Card> cards, long seed) {
+    resetGame(grid, cards);
+    List<Card> shuffledCards = new ArrayList<>(cards);
+    Collections.shuffle(shuffledCards, new Random(seed));
+    dealCards(shuffledCards);
+  }
+
+  private void resetGame(Grid grid, List<Card> cards) {
     if (grid == null || cards == null) {
       throw new IllegalArgumentException("Grid and cards cannot be null");
     }
     if (cards.size() % 2 != 0) {
       throw new IllegalArgumentException("Number of cards must be even");
     }
+    // Cards are told apart by identifier, in position hashes among other places
+    Set<String> identifiers = new HashSet<>();
+    for (Card card : cards) {
+      if (card == null || !identifiers.add(card.getIdentifier())) {
+        throw new IllegalArgumentException("Cards must be non-null with unique identifiers");
+      }
+    }
 
-    this.board = new GameBoard(grid);
-    this.battleHandler = new GameBattleHandler(this.board);
+    this.board = boardType.createBoard(grid);
+    this.battleHandler = BoardType.createBattleHandler(this.board);
     this.gameState = GameState.INITIALIZATION;
     this.currentPlayer = PlayerColor.RED;
-
-    distributeCards(cards);
   }
 
   /**
@@ -164,13 +213,22 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
    * @param cards list of cards to distribute
    */
   protected void distributeCards(List<Card> cards) {
+    List<Card> shuffledCards = new ArrayList<>(cards);
+    Collections.shuffle(shuffledCards);
+    dealCards(shuffledCards);
+  }
+
+  /**
+   * Deals the first half of the cards to Red and the second half to Blue, in order.
+   *
+   * @param cards list of cards to deal
+   */
+  protected void dealCards(List<Card> cards) {
     // Clear existing hands
     for (Player player : players.values()) {
       player.getHand().clear();
     }
 
-    List<Card> shuffledCards = new ArrayList<>(cards);
-    Collections.shuffle(shuffledCards);
     int cardsPerPlayer = cards.size() / 2;
 
     Player redPlayer = players.get(PlayerColor.RED);
@@ -178,16 +236,12 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
 
     // Distribute first half to Red player
     for (int i = 0; i < cardsPerPlayer; i++) {
-      Card card = shuffledCards.get(i);
-      card.setOwner(redPlayer);
-      redPlayer.addCardToHand(card);
+      redPlayer.addCardToHand(cards.get(i));
     }
 
     // Distribute second half to Blue player
-    for (int i = cardsPerPlayer; i < shuffledCards.size(); i++) {
-      Card card = shuffledCards.get(i);
-      card.setOwner(bluePlayer);
-      bluePlayer.addCardToHand(card);
+    for (int i = cardsPerPlayer; i < cards.size(); i++) {
+      bluePlayer.addCardToHand(cards.get(i));
     }
   }
 
@@ -198,13 +252,10 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
    */
   protected void handleBattles(Coordinate position) {
     gameState = GameState.BATTLE_PHASE;
-    List<Coordinate> flippedCards = battleHandler.runBattle(position);
+    int flips = battleHandler.resolveBattles(board.getGrid().getIndex(position), null);
 
-    if (!flippedCards.isEmpty()) {
+    if (flips > 0) {
       gameState = GameState.COMBO_PHASE;
-      while (!flippedCards.isEmpty()) {
-        flippedCards = battleHandler.runComboStep(flippedCards);
-      }
     }
   }
 
@@ -226,6 +277,11 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
     return currentPlayer;
   }
 
+  /**
+   * The move is tried on a copy of the board, so the game is never changed, not even
+   * for the duration of the call. Strategies that evaluate many moves should evaluate
+   * them on a {@link #simulate() simulation}, which makes and takes back moves in place.
+   */
   @Override
   public int getPotentialFlips(Card card, Coordinate position) {
     if (card == null || position == null) {
@@ -235,19 +291,30 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
       return 0;
     }
 
-    Board tempBoard = board.copy();
-    BattleHandler tempBattleHandler = new GameBattleHandler(tempBoard);
-
-    tempBoard.placeCard(card, position);
-    List<Coordinate> flippedCards = tempBattleHandler.runBattle(position);
-    int totalFlips = flippedCards.size();
+    Board scratch = board.copy();
+    return BoardType.createBattleHandler(scratch).applyMove(card, position, currentPlayer);
+  }
 
-    while (!flippedCards.isEmpty()) {
-      flippedCards = tempBattleHandler.runComboStep(flippedCards);
-      totalFlips += flippedCards.size();
+  /**
+   * The moves are tried on one copy of the board, so the game is never changed, not
+   * even for the duration of the call.
+   */
+  @Override
+  public FlipMatrix getFlipMatrix(List<Card> cards) {
+    if (cards == null) {
+      throw new IllegalArgumentException("Cards cannot be null");
     }
+    Board scratch = board.copy();
+    return FlipMatrix.evaluate(scratch, BoardType.createBattleHandler(scratch),
+            cards, currentPlayer);
+  }
 
-    return totalFlips;
+  @Override
+  public ThreeTriosSimulation simulate() {
+    return new GameSimulation(board.copy(),
+            players.get(PlayerColor.RED).getHand(),
+            players.get(PlayerColor.BLUE).getHand(),
+            currentPlayer, gameState);
   }
 
   @Override
@@ -269,15 +336,27 @@ public abstract class AbstractThreeTriosGame implements ThreeTriosModel {
       return null;
     }
 
-    int redScore = getScore(PlayerColor.RED);
-    int blueScore = getScore(PlayerColor.BLUE);
-    if (redScore > blueScore) {
-      return PlayerColor.RED;
-    } else if (blueScore > redScore) {
-      return PlayerColor.BLUE;
-    } else {
-      return null;
-    }
+    return getScoreSnapshot().getLeader();
+  }
+
+  @Override
+  public ScoreSnapshot getScoreSnapshot() {
+    return new ScoreSnapshot(
+            board.getCardCount(PlayerColor.RED), board.getCardCount(PlayerColor.BLUE),
+            players.get(PlayerColor.RED).getHand().size(),
+            players.get(PlayerColor.BLUE).getHand().size());
+  }
+
+  /**
+   * The hand part of the hash is rebuilt from the players' hands, which is cheap
+   * at one call per turn; simulations keep it up to date move by move instead.
+   */
+  @Override
+  public long getPositionHash() {
+    return board.getHash()
+            ^ Zobrist.handHash(players.get(PlayerColor.RED).getHand(), PlayerColor.RED)
+            ^ Zobrist.handHash(players.get(PlayerColor.BLUE).getHand(), PlayerColor.BLUE)
+            ^ Zobrist.sideKey(currentPlayer);
   }
 
   public Player getCurrentPlayer() {
@@ -0,0 +1,175 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Precomputed neighbour and direction tables for a grid of a given size.
+ * Neighbours of every cell are stored in flat arrays in compressed row form:
+ * the slots of cell {@code i} run from {@link #start(int)} to {@link #end(int)},
+ * and each slot holds the neighbour's cell index and the direction from the
+ * cell to that neighbour. Tables describe the grid's shape only, so holes are
+ * included and must be filtered by cell state. Instances are immutable and
+ * are shared between copies of a grid.
+ */
+public final class AdjacencyTable {
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final int[] starts;
+  private final int[] neighbours;
+  private final Direction[] directions;
+  private final int[] neighbourByDirection;
+  private final List<List<Coordinate>> adjacentPositions;
+
+  /**
+   * Builds the tables for a grid.
+   * Neighbours are listed in the order north, south, west, east.
+   *
+   * @param rows the number of rows in the grid
+   * @param cols the number of columns in the grid
+   * @param coordinates the grid's coordinate table, indexed by cell
+   * @throws IllegalArgumentException if the coordinate table does not match the size
+   */
+  AdjacencyTable(int rows, int cols, Coordinate[] coordinates) {
+    if (coordinates == null || coordinates.length != rows * cols) {
+      throw new IllegalArgumentException("Coordinate table does not match grid size");
+    }
+
+    int cells = rows * cols;
+    this.starts = new int[cells + 1];
+    this.neighbourByDirection = new int[cells * DIRECTIONS.length];
+    Arrays.fill(neighbourByDirection, -1);
+
+    int[] slotCells = new int[cells * DIRECTIONS.length];
+    Direction[] slotDirections = new Direction[cells * DIRECTIONS.length];
+    List<List<Coordinate>> positions = new ArrayList<>(cells);
+    int slot = 0;
+
+    for (int index = 0; index < cells; index++) {
+      starts[index] = slot;
+      int row = index / cols;
+      int col = index % cols;
+      List<Coordinate> adjacent = new ArrayList<>(DIRECTIONS.length);
+
+      if (row > 0) {
+        slot = addSlot(slotCells, slotDirections, slot, index, index - cols, Direction.NORTH);
+        adjacent.add(coordinates[index - cols]);
+      }
+      if (row < rows - 1) {
+        slot = addSlot(slotCells, slotDirections, slot, index, index + cols, Direction.SOUTH);
+        adjacent.add(coordinates[index + cols]);
+      }
+      if (col > 0) {
+        slot = addSlot(slotCells, slotDirections, slot, index, index - 1, Direction.WEST);
+        adjacent.add(coordinates[index - 1]);
+      }
+      if (col < cols - 1) {
+        slot = addSlot(slotCells, slotDirections, slot, index, index + 1, Direction.EAST);
+        adjacent.add(coordinates[index + 1]);
+      }
+      positions.add(Collections.unmodifiableList(adjacent));
+    }
+    starts[cells] = slot;
+
+    this.neighbours = Arrays.copyOf(slotCells, slot);
+    this.directions = Arrays.copyOf(slotDirections, slot);
+    this.adjacentPositions = Collections.unmodifiableList(positions);
+  }
+
+  private int addSlot(int[] slotCells, Direction[] slotDirections, int slot,
+                      int index, int neighbour, Direction direction) {
+    slotCells[slot] = neighbour;
+    slotDirections[slot] = direction;
+    neighbourByDirection[index * DIRECTIONS.length + direction.ordinal()] = neighbour;
+    return slot + 1;
+  }
+
+  /**
+   * Gets the number of cells the table covers.
+   *
+   * @return the number of cells
+   */
+  public int getCellCount() {
+    return starts.length - 1;
+  }
+
+  /**
+   * Gets the first neighbour slot of a cell.
+   *
+   * @param index the cell index
+   * @return the first slot of the cell
+   */
+  public int start(int index) {
+    return starts[index];
+  }
+
+  /**
+   * Gets the slot after the last neighbour slot of a cell.
+   *
+   * @param index the cell index
+   * @return the end slot of the cell, exclusive
+   */
+  public int end(int index) {
+    return starts[index + 1];
+  }
+
+  /**
+   * Gets the cell index held in a neighbour slot.
+   *
+   * @param slot the neighbour slot
+   * @return the neighbour's cell index
+   */
+  public int neighbour(int slot) {
+    return neighbours[slot];
+  }
+
+  /**
+   * Gets the direction from a cell to the neighbour held in one of its slots.
+   *
+   * @param slot the neighbour slot
+   * @return the direction of the neighbour
+   */
+  public Direction direction(int slot) {
+    return directions[slot];
+  }
+
+  /**
+   * Gets the neighbour of a cell in the given direction.
+   *
+   * @param index the cell index
+   * @param direction the direction to look in
+   * @return the neighbour's cell index, or -1 if it would be off the grid
+   */
+  public int neighbour(int index, Direction direction) {
+    return neighbourByDirection[index * DIRECTIONS.length + direction.ordinal()];
+  }
+
+  /**
+   * Gets the direction from one cell to an adjacent one.
+   *
+   * @param from the source cell index
+   * @param to the target cell index
+   * @return the direction from source to target
+   * @throws IllegalArgumentException if the cells are not adjacent
+   */
+  public Direction directionBetween(int from, int to) {
+    for (int slot = starts[from]; slot < starts[from + 1]; slot++) {
+      if (neighbours[slot] == to) {
+        return directions[slot];
+      }
+    }
+    throw new IllegalArgumentException("Coordinates must be adjacent");
+  }
+
+  /**
+   * Gets the coordinates adjacent to a cell.
+   *
+   * @param index the cell index
+   * @return unmodifiable list of adjacent coordinates, in the order north, south, west, east
+   */
+  public List<Coordinate> adjacentPositions(int index) {
+    return adjacentPositions.get(index);
+  }
+}
@@ -41,7 +41,7 @@ public class BasicThreeTriosGame extends AbstractThreeTriosGame {
       throw new IllegalStateException("Cannot place card at position");
     }
 
-    board.placeCard(card, position);
+    board.placeCard(card, position, currentPlayer);
     getCurrentPlayer().removeCardFromHand(card);
 
     handleBattles(position);
@@ -35,4 +35,40 @@ public interface BattleHandler {
    */
   boolean shouldFlip(Card attackingCard, Card defendingCard, Coordinate attackPos,
                      Coordinate defendPos);
+
+  /**
+   * Runs the battle for a newly placed card and every combo step it triggers.
+   * Flipped cards join a work queue and attack in turn, in the same order as
+   * running runBattle followed by runComboStep until no more cards flip.
+   *
+   * @param playedIndex cell index of the newly placed card
+   * @param flipped caller-owned buffer that receives the cell indices of flipped cards
+   *                in the order they flipped, or null if only the count is needed;
+   *                it must have room for every opponent card on the board
+   * @return total number of cards flipped
+   * @throws IllegalArgumentException if playedIndex is out of bounds or flipped is too small
+   * @throws IllegalStateException if there is no card at playedIndex
+   */
+  int resolveBattles(int playedIndex, int[] flipped);
+
+  /**
+   * Places a card and resolves its battle and every combo step it triggers.
+   * All changes are recorded on the board's undo log so the move can be reverted
+   * with undoMove; moves can be nested and are undone most recent first.
+   *
+   * @param card card to place
+   * @param position position to place the card at
+   * @param owner color of the player making the move
+   * @return total number of cards flipped by the move
+   * @throws IllegalArgumentException if card, position or owner is null or position is invalid
+   * @throws IllegalStateException if the position cannot hold a card
+   */
+  int applyMove(Card card, Coordinate position, PlayerColor owner);
+
+  /**
+   * Reverts the most recent move made with applyMove that has not been undone yet.
+   *
+   * @throws IllegalStateException if there is no move to undo
+   */
+  void undoMove();
 }
\ No newline at end of file
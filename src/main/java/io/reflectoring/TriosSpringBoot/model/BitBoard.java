@@ -0,0 +1,616 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Board implementation for grids with at most 64 cells.
+ * Holes, occupancy and ownership are kept in long masks indexed by
+ * {@code row * columns + col}, so placement checks and neighbour lookups
+ * are a handful of bit operations instead of map lookups.
+ */
+public class BitBoard implements Board {
+  /**
+   * Largest number of cells a bitboard can represent.
+   */
+  public static final int MAX_CELLS = Long.SIZE;
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final int rows;
+  private final int cols;
+  private final long allMask;
+  private final long[] neighbourMasks;
+  private final Coordinate[] coordinates;
+  private final AdjacencyTable adjacency;
+  private final Card[] cards;
+  private final Grid grid;
+  private final UndoLog undoLog;
+  private long holes;
+  private long occupied;
+  private long red;
+  private long blue;
+  private long hash;
+
+  /**
+   * Constructor for the BitBoard class.
+   * Holes and occupied cells of the given grid are copied into the board's masks.
+   *
+   * @param grid the grid structure to use
+   * @throws IllegalArgumentException if grid is null or has more than 64 cells
+   */
+  public BitBoard(Grid grid) {
+    if (grid == null) {
+      throw new IllegalArgumentException("Grid cannot be null");
+    }
+    if (!supports(grid)) {
+      throw new IllegalArgumentException("Grid is too large for a bitboard");
+    }
+
+    this.rows = grid.getTotalRows();
+    this.cols = grid.getTotalColumns();
+    int size = rows * cols;
+    this.allMask = size == MAX_CELLS ? -1L : (1L << size) - 1;
+    this.neighbourMasks = buildNeighbourMasks(rows, cols, allMask);
+    this.coordinates = new Coordinate[size];
+    this.adjacency = grid.getAdjacency();
+    this.cards = new Card[size];
+    this.grid = new MaskGrid();
+    this.undoLog = new UndoLog();
+
+    for (int index = 0; index < size; index++) {
+      coordinates[index] = grid.getCoordinate(index);
+      CellState state = grid.getCellState(index);
+      if (state == CellState.HOLE) {
+        holes |= bit(index);
+      } else if (state == CellState.OCCUPIED) {
+        occupied |= bit(index);
+      }
+    }
+    this.hash = layoutKey();
+  }
+
+  /**
+   * Gets the Zobrist key of the board's dimensions and holes, which an empty board
+   * hashes to.
+   */
+  private long layoutKey() {
+    long key = Zobrist.shapeKey(rows, cols);
+    for (long rest = holes; rest != 0; rest &= rest - 1) {
+      key ^= Zobrist.holeKey(Long.numberOfTrailingZeros(rest));
+    }
+    return key;
+  }
+
+  private BitBoard(BitBoard other) {
+    this.rows = other.rows;
+    this.cols = other.cols;
+    this.allMask = other.allMask;
+    this.neighbourMasks = other.neighbourMasks;
+    this.coordinates = other.coordinates;
+    this.adjacency = other.adjacency;
+    this.cards = other.cards.clone();
+    this.grid = new MaskGrid();
+    this.undoLog = new UndoLog();
+    this.holes = other.holes;
+    this.occupied = other.occupied;
+    this.red = other.red;
+    this.blue = other.blue;
+    this.hash = other.hash;
+  }
+
+  /**
+   * Checks whether the given grid is small enough to be held in a bitboard.
+   *
+   * @param grid the grid to check
+   * @return true if the grid has at most 64 cells
+   */
+  public static boolean supports(Grid grid) {
+    return grid.getTotalRows() * grid.getTotalColumns() <= MAX_CELLS;
+  }
+
+  /**
+   * Precomputes, for every cell, the mask of its in-bounds orthogonal neighbours.
+   * North and south are shifts by a whole row; east and west are shifts by one
+   * that are masked so they cannot wrap onto the neighbouring row.
+   */
+  private static long[] buildNeighbourMasks(int rows, int cols, long allMask) {
+    long firstCol = 0L;
+    for (int row = 0; row < rows; row++) {
+      firstCol |= 1L << (row * cols);
+    }
+    long notFirstCol = allMask & ~firstCol;
+    long notLastCol = allMask & ~(firstCol << (cols - 1));
+
+    long[] masks = new long[rows * cols];
+    for (int index = 0; index < masks.length; index++) {
+      long cell = 1L << index;
+      masks[index] = (cell >>> cols)
+          | ((cell << cols) & allMask)
+          | ((cell << 1) & notFirstCol)
+          | ((cell >>> 1) & notLastCol);
+    }
+    return masks;
+  }
+
+  private static long bit(int index) {
+    return 1L << index;
+  }
+
+  @Override
+  public Grid getGrid() {
+    return this.grid;
+  }
+
+  @Override
+  public boolean canPlaceCard(Coordinate position) {
+    return canPlaceCard(checkedIndex(position));
+  }
+
+  @Override
+  public boolean canPlaceCard(int index) {
+    checkIndex(index);
+    return ((holes | occupied) & bit(index)) == 0;
+  }
+
+  @Override
+  public void placeCard(Card card, Coordinate position, PlayerColor owner) {
+    if (card == null || position == null || owner == null) {
+      throw new IllegalArgumentException("Card, position and owner cannot be null");
+    }
+    placeCard(card, checkedIndex(position), owner);
+  }
+
+  @Override
+  public void placeCard(Card card, int index, PlayerColor owner) {
+    if (card == null || owner == null) {
+      throw new IllegalArgumentException("Card and owner cannot be null");
+    }
+    checkIndex(index);
+    long cell = bit(index);
+    if ((holes & cell) != 0) {
+      throw new IllegalStateException("Cannot place card in hole");
+    }
+    if ((occupied & cell) != 0) {
+      throw new IllegalStateException("Position already occupied");
+    }
+
+    cards[index] = card;
+    occupied |= cell;
+    setOwnerBits(cell, owner);
+    hash ^= Zobrist.cardKey(index, card, owner);
+    undoLog.placed(index);
+  }
+
+  @Override
+  public Card getCardAt(Coordinate position) {
+    return getCardAt(checkedIndex(position));
+  }
+
+  @Override
+  public Card getCardAt(int index) {
+    checkIndex(index);
+    if ((holes & bit(index)) != 0) {
+      throw new IllegalStateException("Cannot get card from hole");
+    }
+    return cards[index];
+  }
+
+  @Override
+  public PlayerColor getOwnerAt(Coordinate position) {
+    return getOwnerAt(checkedIndex(position));
+  }
+
+  @Override
+  public PlayerColor getOwnerAt(int index) {
+    checkIndex(index);
+    if ((holes & bit(index)) != 0) {
+      throw new IllegalStateException("Cannot get owner from hole");
+    }
+    return ownerAt(index);
+  }
+
+  @Override
+  public List<Card> getAdjacentCards(Coordinate position) {
+    int index = checkedIndex(position);
+    return adjacentCardsIn(index, neighbourMasks[index] & occupied);
+  }
+
+  @Override
+  public List<Card> getAdjacentOpponentCards(Coordinate position, PlayerColor currentPlayerColor) {
+    int index = checkedIndex(position);
+    return adjacentCardsIn(index, neighbourMasks[index] & occupied
+        & ownerMask(currentPlayerColor.getOpponentColor()));
+  }
+
+  /**
+   * Collects the neighbours of a cell that are set in the given mask.
+   *
+   * @return list of cards in order of N, S, E, W, with null where the mask is not set
+   */
+  private List<Card> adjacentCardsIn(int index, long mask) {
+    List<Card> adjacentCards = new ArrayList<>(4);
+    for (Direction direction : DIRECTIONS) {
+      int neighbour = adjacency.neighbour(index, direction);
+      adjacentCards.add(neighbour >= 0 && (mask & bit(neighbour)) != 0 ? cards[neighbour] : null);
+    }
+    return adjacentCards;
+  }
+
+  @Override
+  public void flipCard(Coordinate position, PlayerColor newOwner) {
+    if (newOwner == null) {
+      throw new IllegalArgumentException("New owner cannot be null");
+    }
+    flipCard(checkedIndex(position), newOwner);
+  }
+
+  @Override
+  public void flipCard(int index, PlayerColor newOwner) {
+    if (newOwner == null) {
+      throw new IllegalArgumentException("New owner cannot be null");
+    }
+    checkIndex(index);
+    long cell = bit(index);
+    if ((occupied & cell) == 0) {
+      throw new IllegalStateException("Position has no card");
+    }
+    Card card = cards[index];
+    if (card == null) {
+      throw new IllegalStateException("Card cannot be found at position");
+    }
+    if (newOwner == ownerAt(index)) {
+      throw new IllegalStateException("Cannot flip card to same owner");
+    }
+    flip(index, newOwner);
+  }
+
+  @Override
+  public boolean isFull() {
+    return occupied == (allMask & ~holes);
+  }
+
+  @Override
+  public int getCardCount(PlayerColor player) {
+    return Long.bitCount(ownerMask(player));
+  }
+
+  @Override
+  public long getHash() {
+    return hash;
+  }
+
+  @Override
+  public List<Coordinate> getEmptyCardCells() {
+    List<Coordinate> emptyCells = new ArrayList<>();
+    long free = allMask & ~(holes | occupied);
+    while (free != 0) {
+      int index = Long.numberOfTrailingZeros(free);
+      emptyCells.add(coordinates[index]);
+      free &= free - 1;
+    }
+    return emptyCells;
+  }
+
+  @Override
+  public int getEmptyCellCount() {
+    return Long.bitCount(allMask & ~(holes | occupied));
+  }
+
+  @Override
+  public int nextEmptyCell(int from) {
+    if (from >= cards.length) {
+      return -1;
+    }
+    long free = allMask & ~(holes | occupied) & (-1L << Math.max(from, 0));
+    return free == 0 ? -1 : Long.numberOfTrailingZeros(free);
+  }
+
+  @Override
+  public Map<Coordinate, Card> getAllCards() {
+    Map<Coordinate, Card> allCards = new HashMap<>();
+    long remaining = occupied;
+    while (remaining != 0) {
+      int index = Long.numberOfTrailingZeros(remaining);
+      if (cards[index] != null) {
+        allCards.put(coordinates[index], cards[index]);
+      }
+      remaining &= remaining - 1;
+    }
+    return allCards;
+  }
+
+  @Override
+  public boolean isCardWinningBattle(Card attacker, Card defender, Direction direction) {
+    if (attacker == null || defender == null || direction == null) {
+      throw new IllegalArgumentException("Arguments cannot be null");
+    }
+    return attacker.getValue(direction) > defender.getValue(direction.getOpposite());
+  }
+
+  @Override
+  public void clear() {
+    occupied = 0L;
+    red = 0L;
+    blue = 0L;
+    hash = layoutKey();
+    Arrays.fill(cards, null);
+    undoLog.clear();
+  }
+
+  @Override
+  public Board copy() {
+    return new BitBoard(this);
+  }
+
+  @Override
+  public int getUndoMark() {
+    return undoLog.size();
+  }
+
+  @Override
+  public void undoTo(int mark) {
+    undoLog.checkMark(mark);
+    while (undoLog.size() > mark) {
+      int index = undoLog.lastCell();
+      long cell = bit(index);
+      if (undoLog.lastIsPlacement()) {
+        hash ^= Zobrist.cardKey(index, cards[index], ownerAt(index));
+        cards[index] = null;
+        occupied &= ~cell;
+        red &= ~cell;
+        blue &= ~cell;
+      } else {
+        setOwner(index, undoLog.lastPreviousOwner());
+      }
+      undoLog.pop();
+    }
+  }
+
+  /**
+   * Gets the cell index of a position, validating it first.
+   *
+   * @param position the position to convert
+   * @return the cell index of the position
+   * @throws IllegalArgumentException if position is null or out of bounds
+   */
+  int checkedIndex(Coordinate position) {
+    if (position == null) {
+      throw new IllegalArgumentException("Position cannot be null");
+    }
+    if (!grid.isValidPosition(position)) {
+      throw new IllegalArgumentException("Invalid position");
+    }
+    return position.getRow() * cols + position.getCol();
+  }
+
+  /**
+   * Gets the coordinate of a cell index.
+   *
+   * @param index the cell index
+   * @return the coordinate of the cell
+   */
+  Coordinate coordinateOf(int index) {
+    return coordinates[index];
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= cards.length) {
+      throw new IllegalArgumentException("Invalid cell index: " + index);
+    }
+  }
+
+  /**
+   * Gets the card at a cell index without validation.
+   *
+   * @param index the cell index
+   * @return the card at the index, or null if none
+   */
+  Card cardAt(int index) {
+    return cards[index];
+  }
+
+  /**
+   * Gets the owner of the card at a cell index without validation.
+   *
+   * @param index the cell index
+   * @return the owner, or null if the cell has no card
+   */
+  PlayerColor ownerAt(int index) {
+    long cell = bit(index);
+    if ((red & cell) != 0) {
+      return PlayerColor.RED;
+    } else if ((blue & cell) != 0) {
+      return PlayerColor.BLUE;
+    }
+    return null;
+  }
+
+  /**
+   * Gets the mask of in-bounds neighbours of a cell.
+   *
+   * @param index the cell index
+   * @return the neighbour mask
+   */
+  long neighbourMask(int index) {
+    return neighbourMasks[index];
+  }
+
+  /**
+   * Gets the mask of occupied cells.
+   *
+   * @return the occupancy mask
+   */
+  long occupiedMask() {
+    return occupied;
+  }
+
+  /**
+   * Gets the mask of cells whose card is owned by the given color.
+   *
+   * @param color the owner color
+   * @return the ownership mask
+   */
+  long ownerMask(PlayerColor color) {
+    return color == PlayerColor.RED ? red : blue;
+  }
+
+  /**
+   * Gets the direction an attack travels from one cell to an adjacent one.
+   *
+   * @param from the attacking cell index
+   * @param to the defending cell index
+   * @return the direction of the attack
+   */
+  Direction directionBetween(int from, int to) {
+    return adjacency.directionBetween(from, to);
+  }
+
+  /**
+   * Flips the card at a cell index to a new owner without validation.
+   *
+   * @param index the cell index
+   * @param newOwner the new owner
+   */
+  void flip(int index, PlayerColor newOwner) {
+    undoLog.flipped(index, ownerAt(index));
+    setOwner(index, newOwner);
+  }
+
+  private void setOwner(int index, PlayerColor owner) {
+    hash ^= Zobrist.ownerKey(index, ownerAt(index)) ^ Zobrist.ownerKey(index, owner);
+    long cell = bit(index);
+    red &= ~cell;
+    blue &= ~cell;
+    setOwnerBits(cell, owner);
+  }
+
+  private void setOwnerBits(long cell, PlayerColor owner) {
+    if (owner == PlayerColor.RED) {
+      red |= cell;
+    } else {
+      blue |= cell;
+    }
+  }
+
+  /**
+   * Grid view backed by the board's masks, so copying the board never copies cells.
+   */
+  private final class MaskGrid implements Grid {
+
+    @Override
+    public int getTotalRows() {
+      return rows;
+    }
+
+    @Override
+    public int getTotalColumns() {
+      return cols;
+    }
+
+    @Override
+    public int getCellCount() {
+      return cards.length;
+    }
+
+    @Override
+    public int getIndex(Coordinate position) {
+      return checkedIndex(position);
+    }
+
+    @Override
+    public Coordinate getCoordinate(int index) {
+      checkIndex(index);
+      return coordinates[index];
+    }
+
+    @Override
+    public Coordinate getCoordinate(int row, int col) {
+      if (row < 0 || row >= rows || col < 0 || col >= cols) {
+        throw new IllegalArgumentException("Invalid position");
+      }
+      return coordinates[row * cols + col];
+    }
+
+    @Override
+    public CellState getCellState(Coordinate position) {
+      return getCellState(checkedIndex(position));
+    }
+
+    @Override
+    public CellState getCellState(int index) {
+      checkIndex(index);
+      long cell = bit(index);
+      if ((holes & cell) != 0) {
+        return CellState.HOLE;
+      } else if ((occupied & cell) != 0) {
+        return CellState.OCCUPIED;
+      }
+      return CellState.AVAILABLE;
+    }
+
+    @Override
+    public void setCellState(Coordinate position, CellState state) {
+      if (state == null) {
+        throw new IllegalArgumentException("State cannot be null");
+      }
+      CellState currentState = getCellState(position);
+      if (currentState == state) {
+        return;
+      }
+      if (currentState == CellState.OCCUPIED) {
+        throw new IllegalStateException("Cannot change state of occupied cell");
+      }
+      if (currentState == CellState.HOLE) {
+        throw new IllegalStateException("Cannot change state of hole cell");
+      }
+
+      int index = checkedIndex(position);
+      long cell = bit(index);
+      if (state == CellState.HOLE) {
+        holes |= cell;
+        hash ^= Zobrist.holeKey(index);
+      } else {
+        occupied |= cell;
+      }
+    }
+
+    @Override
+    public boolean isValidPosition(Coordinate position) {
+      return position.getRow() >= 0 && position.getRow() < rows
+          && position.getCol() >= 0 && position.getCol() < cols;
+    }
+
+    @Override
+    public List<Coordinate> getAdjacentPositions(Coordinate position) {
+      return adjacency.adjacentPositions(checkedIndex(position));
+    }
+
+    @Override
+    public AdjacencyTable getAdjacency() {
+      return adjacency;
+    }
+
+    @Override
+    public int getCardCellCount() {
+      return Long.bitCount(allMask & ~holes);
+    }
+
+    @Override
+    public Grid copy() {
+      GameGrid copy = new GameGrid(rows, cols);
+      for (int index = 0; index < cards.length; index++) {
+        long cell = bit(index);
+        if ((holes & cell) != 0) {
+          copy.setCellState(coordinateOf(index), CellState.HOLE);
+        } else if ((occupied & cell) != 0) {
+          copy.setCellState(coordinateOf(index), CellState.OCCUPIED);
+        }
+      }
+      return copy;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Battle handler for {@link BitBoard}.
+ * Candidate defenders are found by intersecting the attacker's precomputed
+ * neighbour mask with the occupancy and opponent ownership masks; attack
+ * directions are read from the grid's adjacency table.
+ */
+public class BitBoardBattleHandler extends AbstractBattleHandler {
+  private final BitBoard board;
+  private final AdjacencyTable adjacency;
+
+  /**
+   * Constructor for the BitBoardBattleHandler.
+   *
+   * @param board the bitboard to handle battles for
+   * @throws IllegalArgumentException if board is null
+   */
+  public BitBoardBattleHandler(BitBoard board) {
+    super(board);
+    this.board = board;
+    this.adjacency = board.getGrid().getAdjacency();
+  }
+
+  @Override
+  public List<Coordinate> runBattle(Coordinate playedPosition) {
+    if (playedPosition == null || !board.getGrid().isValidPosition(playedPosition)) {
+      throw new IllegalArgumentException("Invalid played position");
+    }
+    int playedIndex = board.checkedIndex(playedPosition);
+    if (board.cardAt(playedIndex) == null) {
+      throw new IllegalStateException("No card at played position");
+    }
+
+    return toCoordinates(attack(playedIndex));
+  }
+
+  @Override
+  public List<Coordinate> runComboStep(List<Coordinate> newlyFlippedPositions) {
+    if (newlyFlippedPositions == null) {
+      throw new IllegalArgumentException("Newly flipped positions cannot be null");
+    }
+
+    long additionalFlips = 0L;
+    for (Coordinate flippedPos : newlyFlippedPositions) {
+      int flippedIndex = board.checkedIndex(flippedPos);
+      if (board.cardAt(flippedIndex) != null) {
+        additionalFlips |= attack(flippedIndex);
+      }
+    }
+    return toCoordinates(additionalFlips);
+  }
+
+  @Override
+  public boolean shouldFlip(Card attackingCard, Card defendingCard,
+                            Coordinate attackPos, Coordinate defendPos) {
+    if (attackingCard == null || defendingCard == null
+            || attackPos == null || defendPos == null) {
+      throw new IllegalArgumentException("Arguments cannot be null");
+    }
+
+    Direction direction = board.directionBetween(
+        board.checkedIndex(attackPos), board.checkedIndex(defendPos));
+    return board.isCardWinningBattle(attackingCard, defendingCard, direction);
+  }
+
+  /**
+   * Resolves the battle and combo steps as waves of masks, without building
+   * coordinate lists. Cells of each wave are written to the flip buffer in
+   * ascending index order.
+   */
+  @Override
+  public int resolveBattles(int playedIndex, int[] flipped) {
+    checkFlipBuffer(playedIndex, flipped);
+    long frontier = attack(playedIndex);
+    int totalFlips = 0;
+
+    while (frontier != 0) {
+      long nextWave = 0L;
+      while (frontier != 0) {
+        int index = Long.numberOfTrailingZeros(frontier);
+        if (flipped != null) {
+          flipped[totalFlips] = index;
+        }
+        totalFlips++;
+        nextWave |= attack(index);
+        frontier &= frontier - 1;
+      }
+      frontier = nextWave;
+    }
+    return totalFlips;
+  }
+
+  /**
+   * Lets the card at the given cell attack every adjacent opponent card,
+   * flipping the ones it beats.
+   *
+   * @param attackerIndex cell index of the attacking card
+   * @return mask of the cells that were flipped
+   */
+  private long attack(int attackerIndex) {
+    Card attacker = board.cardAt(attackerIndex);
+    PlayerColor owner = board.ownerAt(attackerIndex);
+
+    long defenders = board.neighbourMask(attackerIndex) & board.occupiedMask()
+        & board.ownerMask(owner.getOpponentColor());
+    long flipped = 0L;
+    if (defenders == 0) {
+      return flipped;
+    }
+
+    for (int slot = adjacency.start(attackerIndex); slot < adjacency.end(attackerIndex); slot++) {
+      int defenderIndex = adjacency.neighbour(slot);
+      if ((defenders & (1L << defenderIndex)) != 0
+          && board.isCardWinningBattle(attacker, board.cardAt(defenderIndex),
+              adjacency.direction(slot))) {
+        board.flip(defenderIndex, owner);
+        flipped |= 1L << defenderIndex;
+      }
+    }
+    return flipped;
+  }
+
+  private List<Coordinate> toCoordinates(long cells) {
+    List<Coordinate> coordinates = new ArrayList<>(Long.bitCount(cells));
+    while (cells != 0) {
+      coordinates.add(board.coordinateOf(Long.numberOfTrailingZeros(cells)));
+      cells &= cells - 1;
+    }
+    return coordinates;
+  }
+}
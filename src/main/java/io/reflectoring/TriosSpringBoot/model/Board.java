@@ -24,15 +24,36 @@ public interface Board {
    */
   boolean canPlaceCard(Coordinate position);
 
+  /**
+   * Checks if a card can be placed at the given cell index.
+   *
+   * @param index cell index to check
+   * @return true if cell state is AVAILABLE, false otherwise
+   * @throws IllegalArgumentException if index is out of bounds
+   */
+  boolean canPlaceCard(int index);
+
   /**
    * Places a card at the specified position.
    *
    * @param card card to place
    * @param position position to place card
-   * @throws IllegalArgumentException if card or position is null or if position is invalid
+   * @param owner color of the player the placed card belongs to
+   * @throws IllegalArgumentException if card, position or owner is null or if position is invalid
    * @throws IllegalStateException if position is OCCUPIED or a HOLE
    */
-  void placeCard(Card card, Coordinate position);
+  void placeCard(Card card, Coordinate position, PlayerColor owner);
+
+  /**
+   * Places a card at the specified cell index.
+   *
+   * @param card card to place
+   * @param index cell index to place card
+   * @param owner color of the player the placed card belongs to
+   * @throws IllegalArgumentException if card or owner is null or if index is out of bounds
+   * @throws IllegalStateException if the cell is OCCUPIED or a HOLE
+   */
+  void placeCard(Card card, int index, PlayerColor owner);
 
   /**
    * Gets the card at the specified position.
@@ -44,6 +65,36 @@ public interface Board {
    */
   Card getCardAt(Coordinate position);
 
+  /**
+   * Gets the card at the specified cell index.
+   *
+   * @param index cell index to check
+   * @return card at the index, or null if AVAILABLE
+   * @throws IllegalArgumentException if index is out of bounds
+   * @throws IllegalStateException if the cell is a HOLE
+   */
+  Card getCardAt(int index);
+
+  /**
+   * Gets the owner of the card at the specified position.
+   *
+   * @param position position to check
+   * @return owner of the card at position, or null if AVAILABLE
+   * @throws IllegalArgumentException if position is null or invalid
+   * @throws IllegalStateException if position is HOLE
+   */
+  PlayerColor getOwnerAt(Coordinate position);
+
+  /**
+   * Gets the owner of the card at the specified cell index.
+   *
+   * @param index cell index to check
+   * @return owner of the card at the index, or null if AVAILABLE
+   * @throws IllegalArgumentException if index is out of bounds
+   * @throws IllegalStateException if the cell is a HOLE
+   */
+  PlayerColor getOwnerAt(int index);
+
   /**
    * Gets all cards adjacent to the specified position.
    *
@@ -68,10 +119,20 @@ public interface Board {
    *
    * @param position position of card to flip
    * @param newOwner new owner's color
-   * @throws IllegalArgumentException if position is null or invalid
-   * @throws IllegalStateException if position has no card
+   * @throws IllegalArgumentException if position or newOwner is null or position is invalid
+   * @throws IllegalStateException if position has no card or the card already belongs to newOwner
    */
-  void flipCard(Coordinate position, Player newOwner);
+  void flipCard(Coordinate position, PlayerColor newOwner);
+
+  /**
+   * Changes ownership of card at specified cell index.
+   *
+   * @param index cell index of card to flip
+   * @param newOwner new owner's color
+   * @throws IllegalArgumentException if newOwner is null or index is out of bounds
+   * @throws IllegalStateException if the cell has no card or the card already belongs to newOwner
+   */
+  void flipCard(int index, PlayerColor newOwner);
 
   /**
    * Checks if board has no empty card cells.
@@ -82,12 +143,26 @@ public interface Board {
 
   /**
    * Gets total number of cards owned by specified player.
+   * Implementations keep this count up to date as cards are placed and flipped,
+   * so it is answered in constant time.
    *
    * @param player player color to count cards for
    * @return number of cards owned by player
    */
   int getCardCount(PlayerColor player);
 
+  /**
+   * Gets the Zobrist hash of the grid layout, the cards on the board and their owners.
+   * The hash is updated as cards are placed, flipped and undone, so it is
+   * answered in constant time. Boards with the same dimensions and holes, the same
+   * cards on the same cells and the same owners have the same hash; an empty board
+   * hashes to {@link Zobrist#layoutKey} of its grid.
+   *
+   * @return the board hash
+   * @see Zobrist
+   */
+  long getHash();
+
   /**
    * Gets all empty card cell positions.
    *
@@ -95,6 +170,23 @@ public interface Board {
    */
   List<Coordinate> getEmptyCardCells();
 
+  /**
+   * Gets the number of empty card cells, without building the list.
+   *
+   * @return number of cells a card can be placed in
+   */
+  int getEmptyCellCount();
+
+  /**
+   * Gets the first empty card cell at or after the given index.
+   * Empty cells are visited in row-major order by iterating
+   * {@code for (int i = board.nextEmptyCell(0); i >= 0; i = board.nextEmptyCell(i + 1))}.
+   *
+   * @param from the cell index to start from
+   * @return the index of the next empty card cell, or -1 if there is none
+   */
+  int nextEmptyCell(int from);
+
   /**
    * Gets all cards and their positions on the board.
    *
@@ -123,4 +215,20 @@ public interface Board {
    * @return copy of the board
    */
   Board copy();
+
+  /**
+   * Gets a mark for the current end of the board's undo log.
+   * Every placement and flip made after the mark can be rolled back with undoTo.
+   *
+   * @return the current undo mark
+   */
+  int getUndoMark();
+
+  /**
+   * Rolls back every placement and flip made since the given mark, most recent first.
+   *
+   * @param mark a mark returned by getUndoMark
+   * @throws IllegalArgumentException if mark is not a valid mark for this board
+   */
+  void undoTo(int mark);
 }
\ No newline at end of file
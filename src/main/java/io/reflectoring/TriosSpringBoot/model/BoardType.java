@@ -0,0 +1,68 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+/**
+ * Board implementations a game can be played on.
+ */
+public enum BoardType {
+
+  /**
+   * Map-backed board that supports grids of any size.
+   */
+  STANDARD,
+
+  /**
+   * Mask-backed board for grids of at most 64 cells.
+   * Larger grids fall back to the standard board.
+   */
+  BITBOARD;
+
+  /**
+   * Creates a board of this type over the given grid.
+   *
+   * @param grid the grid structure to use
+   * @return a new board
+   * @throws IllegalArgumentException if grid is null
+   */
+  public Board createBoard(Grid grid) {
+    if (grid == null) {
+      throw new IllegalArgumentException("Grid cannot be null");
+    }
+    if (this == BITBOARD && BitBoard.supports(grid)) {
+      return new BitBoard(grid);
+    }
+    return new GameBoard(grid);
+  }
+
+  /**
+   * Creates a battle handler suited to the given board.
+   *
+   * @param board the board to handle battles for
+   * @return a battle handler for the board
+   * @throws IllegalArgumentException if board is null
+   */
+  public static BattleHandler createBattleHandler(Board board) {
+    if (board instanceof BitBoard) {
+      return new BitBoardBattleHandler((BitBoard) board);
+    }
+    return new GameBattleHandler(board);
+  }
+
+  /**
+   * Parses a board type name, case-insensitively.
+   *
+   * @param name the board type name, or null for the standard board
+   * @return the matching board type
+   * @throws IllegalArgumentException if the name does not match a board type
+   */
+  public static BoardType fromName(String name) {
+    if (name == null || name.isBlank()) {
+      return STANDARD;
+    }
+    try {
+      return valueOf(name.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+              "Invalid board type: " + name + ". Use 'standard' or 'bitboard'");
+    }
+  }
+}
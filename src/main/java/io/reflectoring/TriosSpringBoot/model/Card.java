@@ -1,10 +1,10 @@
 package io.reflectoring.TriosSpringBoot.model;
 
 import io.reflectoring.TriosSpringBoot.model.Direction;
-import io.reflectoring.TriosSpringBoot.model.Player;
 
 /**
- * Represents a single card in the game with four directional values and ownership.
+ * Represents a single card in the game with four directional values.
+ * Cards are immutable; who owns a card is tracked by the hand or board holding it.
  */
 public interface Card {
   /**
@@ -22,19 +22,4 @@ public interface Card {
    * @throws IllegalArgumentException if the direction is invalid
    */
   int getValue(Direction direction);
-
-  /**
-   * Gets the current owner of this card.
-   *
-   * @return current owner's color
-   */
-  Player getOwner();
-
-  /**
-   * Changes the ownership of this card.
-   *
-   * @param newOwner the new owner's color
-   * @throws IllegalArgumentException if newOwner is null
-   */
-  void setOwner(Player newOwner);
 }
\ No newline at end of file
@@ -14,10 +14,11 @@ interface Cell {
 
   /**
    * Sets the state of this cell.
+   * An occupied cell can only be made available again, which also removes its card.
    *
    * @param state the new state to set
    * @throws IllegalArgumentException if state is null
-   * @throws IllegalStateException if cell is occupied or a hole
+   * @throws IllegalStateException if cell is a hole, or occupied and state is not AVAILABLE
    */
   void setState(CellState state);
 
@@ -0,0 +1,117 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size set of cell indices backed by a bitset.
+ * Membership changes and size are constant time, and members are visited in
+ * ascending index order, which is row-major order on the grid.
+ */
+final class CellIndexSet {
+  private final long[] words;
+  private final int capacity;
+  private int size;
+
+  /**
+   * Constructor for the CellIndexSet class.
+   *
+   * @param capacity the number of cells the set can hold
+   */
+  CellIndexSet(int capacity) {
+    this.words = new long[(capacity + Long.SIZE - 1) / Long.SIZE];
+    this.capacity = capacity;
+    this.size = 0;
+  }
+
+  private CellIndexSet(CellIndexSet other) {
+    this.words = other.words.clone();
+    this.capacity = other.capacity;
+    this.size = other.size;
+  }
+
+  /**
+   * Adds a cell to the set.
+   *
+   * @param index the cell index
+   */
+  void add(int index) {
+    long bit = 1L << index;
+    if ((words[index >>> 6] & bit) == 0) {
+      words[index >>> 6] |= bit;
+      size++;
+    }
+  }
+
+  /**
+   * Removes a cell from the set.
+   *
+   * @param index the cell index
+   */
+  void remove(int index) {
+    long bit = 1L << index;
+    if ((words[index >>> 6] & bit) != 0) {
+      words[index >>> 6] &= ~bit;
+      size--;
+    }
+  }
+
+  /**
+   * Checks whether a cell is in the set.
+   *
+   * @param index the cell index
+   * @return true if the cell is in the set
+   */
+  boolean contains(int index) {
+    return (words[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Gets the number of cells in the set.
+   *
+   * @return the set size
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Gets the smallest cell in the set at or after the given index.
+   *
+   * @param from the index to start from
+   * @return the next cell index, or -1 if there is none
+   */
+  int next(int from) {
+    if (from < 0) {
+      from = 0;
+    }
+    if (from >= capacity) {
+      return -1;
+    }
+    int word = from >>> 6;
+    long remaining = words[word] & (-1L << from);
+    while (remaining == 0) {
+      if (++word == words.length) {
+        return -1;
+      }
+      remaining = words[word];
+    }
+    return word * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+  }
+
+  /**
+   * Removes every cell from the set.
+   */
+  void clear() {
+    Arrays.fill(words, 0L);
+    size = 0;
+  }
+
+  /**
+   * Creates an independent copy of this set.
+   *
+   * @return the copy
+   */
+  CellIndexSet copy() {
+    return new CellIndexSet(this);
+  }
+}
@@ -0,0 +1,188 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Number of cards each card of a hand would flip at each free cell of the board.
+ * Rows follow the order of the evaluated cards and columns follow the free
+ * cells in row-major order, so iterating cards then cells visits moves in the
+ * same order as looping over the hand and the board's empty cells.
+ */
+public final class FlipMatrix {
+  private static final int MAX_NEIGHBOURS = Direction.values().length;
+
+  private final List<Card> cards;
+  private final Grid grid;
+  private final int[] cells;
+  private final int[] flips;
+
+  /**
+   * Constructor for the FlipMatrix class.
+   *
+   * @param cards the evaluated cards, one row each
+   * @param grid the grid the cell indices refer to
+   * @param cells the free cell indices, one column each
+   * @param flips flip counts in row-major order, {@code cards.size() * cells.length} entries
+   * @throws IllegalArgumentException if any argument is null or the sizes do not match
+   */
+  FlipMatrix(List<Card> cards, Grid grid, int[] cells, int[] flips) {
+    if (cards == null || grid == null || cells == null || flips == null) {
+      throw new IllegalArgumentException("Arguments cannot be null");
+    }
+    if (flips.length != cards.size() * cells.length) {
+      throw new IllegalArgumentException("Flip counts do not match matrix size");
+    }
+    this.cards = Collections.unmodifiableList(cards);
+    this.grid = grid;
+    this.cells = cells;
+    this.flips = flips;
+  }
+
+  /**
+   * Evaluates every card against every free cell of a board.
+   * Adjacent opponent cards are looked up once per cell. The cascade that follows a
+   * move depends only on which of those neighbours the played card beats, so cards
+   * that win the same set of initial battles at a cell share one simulated move, and
+   * cards that win none are known to flip nothing without simulating at all.
+   *
+   * @param board the board to evaluate on
+   * @param battleHandler the battle handler of the board, used to make and undo moves
+   * @param cards the cards to evaluate
+   * @param player the player the cards would be played by
+   * @return the flip matrix
+   * @throws IllegalArgumentException if any argument is null or cards contains null
+   */
+  static FlipMatrix evaluate(Board board, BattleHandler battleHandler,
+                             List<Card> cards, PlayerColor player) {
+    if (board == null || battleHandler == null || cards == null || player == null) {
+      throw new IllegalArgumentException("Arguments cannot be null");
+    }
+    List<Card> rows = new ArrayList<>(cards);
+    if (rows.contains(null)) {
+      throw new IllegalArgumentException("Cards cannot be null");
+    }
+
+    Grid grid = board.getGrid();
+    AdjacencyTable adjacency = grid.getAdjacency();
+    PlayerColor opponent = player.getOpponentColor();
+
+    int[] cells = new int[board.getEmptyCellCount()];
+    int column = 0;
+    for (int index = board.nextEmptyCell(0); index >= 0; index = board.nextEmptyCell(index + 1)) {
+      cells[column++] = index;
+    }
+
+    int[] flips = new int[rows.size() * cells.length];
+    Card[] defenders = new Card[MAX_NEIGHBOURS];
+    Direction[] directions = new Direction[MAX_NEIGHBOURS];
+    int[] flipsByWins = new int[1 << MAX_NEIGHBOURS];
+
+    for (int cell = 0; cell < cells.length; cell++) {
+      int index = cells[cell];
+      int defenderCount = 0;
+      for (int slot = adjacency.start(index); slot < adjacency.end(index); slot++) {
+        int neighbour = adjacency.neighbour(slot);
+        if (grid.getCellState(neighbour) == CellState.OCCUPIED
+                && board.getOwnerAt(neighbour) == opponent) {
+          defenders[defenderCount] = board.getCardAt(neighbour);
+          directions[defenderCount] = adjacency.direction(slot);
+          defenderCount++;
+        }
+      }
+      if (defenderCount == 0) {
+        continue;
+      }
+
+      Arrays.fill(flipsByWins, -1);
+      for (int card = 0; card < rows.size(); card++) {
+        Card played = rows.get(card);
+        int wins = 0;
+        for (int d = 0; d < defenderCount; d++) {
+          if (board.isCardWinningBattle(played, defenders[d], directions[d])) {
+            wins |= 1 << d;
+          }
+        }
+        if (wins == 0) {
+          continue;
+        }
+        if (flipsByWins[wins] < 0) {
+          flipsByWins[wins] = battleHandler.applyMove(played, grid.getCoordinate(index), player);
+          battleHandler.undoMove();
+        }
+        flips[card * cells.length + cell] = flipsByWins[wins];
+      }
+    }
+    return new FlipMatrix(rows, grid, cells, flips);
+  }
+
+  /**
+   * Gets the number of evaluated cards.
+   *
+   * @return number of rows
+   */
+  public int getCardCount() {
+    return cards.size();
+  }
+
+  /**
+   * Gets the number of free cells evaluated.
+   *
+   * @return number of columns
+   */
+  public int getCellCount() {
+    return cells.length;
+  }
+
+  /**
+   * Gets the evaluated cards.
+   *
+   * @return unmodifiable list of cards, in row order
+   */
+  public List<Card> getCards() {
+    return cards;
+  }
+
+  /**
+   * Gets the card of a row.
+   *
+   * @param card the row
+   * @return the card evaluated in that row
+   */
+  public Card getCard(int card) {
+    return cards.get(card);
+  }
+
+  /**
+   * Gets the grid cell index of a column.
+   *
+   * @param cell the column
+   * @return the cell index on the grid
+   */
+  public int getCellIndex(int cell) {
+    return cells[cell];
+  }
+
+  /**
+   * Gets the position of a column.
+   *
+   * @param cell the column
+   * @return the position on the grid
+   */
+  public Coordinate getPosition(int cell) {
+    return grid.getCoordinate(cells[cell]);
+  }
+
+  /**
+   * Gets the number of cards that playing a card at a cell would flip.
+   *
+   * @param card the row of the card
+   * @param cell the column of the free cell
+   * @return number of cards flipped
+   */
+  public int getFlips(int card, int cell) {
+    return flips[card * cells.length + cell];
+  }
+}
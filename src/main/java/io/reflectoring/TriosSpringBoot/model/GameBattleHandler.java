@@ -7,8 +7,10 @@ import java.util.List;
  * Implements battle phase logic for the Three Trios game.
  * Handles both initial battles and combo chains.
  */
-public class GameBattleHandler implements BattleHandler {
+public class GameBattleHandler extends AbstractBattleHandler {
   private final Board board;
+  private final int[] queue;
+  private final CellIndexSet visited;
 
   /**
    * Constructor for the GameBattleHandler.
@@ -17,10 +19,10 @@ public class GameBattleHandler implements BattleHandler {
    * @throws IllegalArgumentException if board is null
    */
   public GameBattleHandler(Board board) {
-    if (board == null) {
-      throw new IllegalArgumentException("Board cannot be null");
-    }
+    super(board);
     this.board = board;
+    this.queue = new int[board.getGrid().getCellCount()];
+    this.visited = new CellIndexSet(board.getGrid().getCellCount());
   }
 
   @Override
@@ -29,39 +31,13 @@ public class GameBattleHandler implements BattleHandler {
       throw new IllegalArgumentException("Invalid played position");
     }
 
-    List<Coordinate> flippedPositions = new ArrayList<>();
-    Card playedCard = board.getCardAt(playedPosition);
-
-    if (playedCard == null) {
+    int playedIndex = board.getGrid().getIndex(playedPosition);
+    if (board.getCardAt(playedIndex) == null) {
       throw new IllegalStateException("No card at played position");
     }
 
-    List<Coordinate> adjacentPositions = board.getGrid().getAdjacentPositions(playedPosition);
-
-    // For each adjacent position, check if there's an opponent's card to battle
-    for (Coordinate adjPos : adjacentPositions) {
-      // Skip if position is invalid or has no card
-      if (!board.getGrid().isValidPosition(adjPos)
-              || board.getGrid().getCellState(adjPos) != CellState.OCCUPIED) {
-        continue;
-      }
-
-      Card adjacentCard = board.getCardAt(adjPos);
-      // Only battle opponent's cards
-      if (adjacentCard != null
-              && adjacentCard.getOwner().getColor() != playedCard.getOwner().getColor()) {
-        // Get direction from played card to adjacent card
-        Direction battleDir = ((GameBoard) board).getDirection(playedPosition, adjPos);
-
-        // The played card attacks in battleDir, the adjacent card defends with opposite direction
-        if (board.isCardWinningBattle(playedCard, adjacentCard, battleDir)) {
-          board.flipCard(adjPos, playedCard.getOwner());
-          flippedPositions.add(adjPos);
-        }
-      }
-    }
-
-    return flippedPositions;
+    int flips = attack(playedIndex, board.getOwnerAt(playedIndex), queue, 0);
+    return toCoordinates(flips);
   }
 
   @Override
@@ -70,39 +46,89 @@ public class GameBattleHandler implements BattleHandler {
       throw new IllegalArgumentException("Newly flipped positions cannot be null");
     }
 
-    List<Coordinate> additionalFlips = new ArrayList<>();
-
+    int flips = 0;
     // Process each newly flipped card for potential combos
     for (Coordinate flippedPos : newlyFlippedPositions) {
-      Card flippedCard = board.getCardAt(flippedPos);
-      if (flippedCard == null) {
+      int flippedIndex = board.getGrid().getIndex(flippedPos);
+      if (board.getCardAt(flippedIndex) != null) {
+        flips = attack(flippedIndex, board.getOwnerAt(flippedIndex), queue, flips);
+      }
+    }
+    return toCoordinates(flips);
+  }
+
+  /**
+   * Resolves the battle and combo steps breadth first over a reusable work queue.
+   * Every flipped card is appended to the queue and attacks when it reaches the
+   * front, which visits cards in the same order as successive combo steps. The
+   * visited set marks the played card and every flipped card so none is attacked
+   * twice; only those marks are cleared afterwards, so a resolution costs time
+   * in proportion to the cascade rather than to the board.
+   */
+  @Override
+  public int resolveBattles(int playedIndex, int[] flipped) {
+    PlayerColor owner = checkFlipBuffer(playedIndex, flipped);
+    int[] work = flipped != null ? flipped : queue;
+
+    visited.add(playedIndex);
+    int tail = attack(playedIndex, owner, work, 0);
+    for (int head = 0; head < tail; head++) {
+      tail = attack(work[head], owner, work, tail);
+    }
+
+    visited.remove(playedIndex);
+    for (int i = 0; i < tail; i++) {
+      visited.remove(work[i]);
+    }
+    return tail;
+  }
+
+  /**
+   * Lets the card at the given cell battle every adjacent opponent card,
+   * flipping the ones it beats. Neighbours and attack directions come from
+   * the grid's adjacency table.
+   *
+   * @param attackerIndex cell index of the attacking card
+   * @param owner owner of the attacking card
+   * @param work buffer the cell indices of flipped cards are appended to
+   * @param tail number of entries already in the buffer
+   * @return number of entries in the buffer after the attack
+   */
+  private int attack(int attackerIndex, PlayerColor owner, int[] work, int tail) {
+    Grid grid = board.getGrid();
+    AdjacencyTable adjacency = grid.getAdjacency();
+    Card attacker = board.getCardAt(attackerIndex);
+
+    for (int slot = adjacency.start(attackerIndex); slot < adjacency.end(attackerIndex); slot++) {
+      int adjIndex = adjacency.neighbour(slot);
+      // Skip cards already in this cascade, holes and empty cells
+      if (visited.contains(adjIndex) || grid.getCellState(adjIndex) != CellState.OCCUPIED) {
         continue;
       }
 
-      List<Card> adjacentCards = board.getAdjacentCards(flippedPos);
-      List<Coordinate> adjacentPositions = board.getGrid().getAdjacentPositions(flippedPos);
-
-      // Check each adjacent position for potential flips
-      for (int i = 0; i < adjacentPositions.size(); i++) {
-        Coordinate adjPos = adjacentPositions.get(i);
-        if (!board.getGrid().isValidPosition(adjPos)
-                || board.getGrid().getCellState(adjPos) != CellState.OCCUPIED) {
-          continue;
-        }
-
-        Card adjacentCard = board.getCardAt(adjPos);
-        if (adjacentCard != null
-                && adjacentCard.getOwner().getColor() != flippedCard.getOwner().getColor()) {
-          Direction direction = ((GameBoard) board).getDirection(flippedPos, adjPos);
-          if (board.isCardWinningBattle(flippedCard, adjacentCard, direction)) {
-            board.flipCard(adjPos, flippedCard.getOwner());
-            additionalFlips.add(adjPos);
-          }
-        }
+      Card adjacentCard = board.getCardAt(adjIndex);
+      // Only battle opponent's cards
+      if (adjacentCard != null && board.getOwnerAt(adjIndex) != owner
+              && board.isCardWinningBattle(attacker, adjacentCard, adjacency.direction(slot))) {
+        board.flipCard(adjIndex, owner);
+        visited.add(adjIndex);
+        work[tail++] = adjIndex;
       }
     }
+    return tail;
+  }
 
-    return additionalFlips;
+  /**
+   * Converts the first entries of the work queue to positions, clearing their
+   * visited marks for the next battle.
+   */
+  private List<Coordinate> toCoordinates(int count) {
+    List<Coordinate> positions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      visited.remove(queue[i]);
+      positions.add(board.getGrid().getCoordinate(queue[i]));
+    }
+    return positions;
   }
 
   @Override
@@ -113,7 +139,9 @@ public class GameBattleHandler implements BattleHandler {
       throw new IllegalArgumentException("Arguments cannot be null");
     }
 
-    Direction direction = ((GameBoard) board).getDirection(attackPos, defendPos);
+    Grid grid = board.getGrid();
+    Direction direction = grid.getAdjacency().directionBetween(
+            grid.getIndex(attackPos), grid.getIndex(defendPos));
     return board.isCardWinningBattle(attackingCard, defendingCard, direction);
   }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package io.reflectoring.TriosSpringBoot.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,8 +14,17 @@ import java.util.Map;
  *
  */
 public class GameBoard implements Board {
+  private static final PlayerColor[] COLORS = PlayerColor.values();
+
   private final Grid grid;
-  private final Map<Coordinate, Card> cardPositions;
+  private final Card[] cards;
+  private final byte[] owners;
+  private final int[] ownerCounts;
+  private final CellIndexSet emptyCells;
+  private final UndoLog undoLog;
+  private int cardCount;
+  private final long layoutKey;
+  private long hash;
 
   /**
    * Constructor for the GameBoard class.
@@ -27,7 +37,46 @@ public class GameBoard implements Board {
     }
 
     this.grid = grid;
-    this.cardPositions = new HashMap<>();
+    this.cards = new Card[grid.getCellCount()];
+    this.owners = new byte[cards.length];
+    this.ownerCounts = new int[COLORS.length];
+    this.emptyCells = new CellIndexSet(cards.length);
+    this.undoLog = new UndoLog();
+    this.cardCount = 0;
+    this.layoutKey = Zobrist.layoutKey(grid);
+    this.hash = layoutKey;
+    indexEmptyCells();
+  }
+
+  /**
+   * Rebuilds the empty-cell index from the grid. Holes are taken from the grid
+   * when the board is created; after that the index is kept up to date by
+   * placements, undo and clear.
+   */
+  private void indexEmptyCells() {
+    emptyCells.clear();
+    for (int index = 0; index < cards.length; index++) {
+      if (cards[index] == null && grid.getCellState(index) == CellState.AVAILABLE) {
+        emptyCells.add(index);
+      }
+    }
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= cards.length) {
+      throw new IllegalArgumentException("Invalid cell index: " + index);
+    }
+  }
+
+  /**
+   * Owners are stored per cell as 0 for no card, or the owner's ordinal plus one.
+   */
+  private static byte encodeOwner(PlayerColor owner) {
+    return (byte) (owner.ordinal() + 1);
+  }
+
+  private static PlayerColor decodeOwner(byte owner) {
+    return owner == 0 ? null : COLORS[owner - 1];
   }
 
   @Override
@@ -37,85 +86,94 @@ public class GameBoard implements Board {
 
   @Override
   public boolean canPlaceCard(Coordinate position) {
-    if (position == null) {
-      throw new IllegalArgumentException("Position cannot be null");
-    }
-    if (!grid.isValidPosition(position)) {
-      throw new IllegalArgumentException("Invalid position");
-    }
-    return grid.getCellState(position) == CellState.AVAILABLE
-            && !cardPositions.containsKey(position);
+    return canPlaceCard(grid.getIndex(position));
+  }
+
+  @Override
+  public boolean canPlaceCard(int index) {
+    checkIndex(index);
+    return emptyCells.contains(index);
   }
 
   @Override
-  public void placeCard(Card card, Coordinate position) {
-    if (card == null || position == null) {
-      throw new IllegalArgumentException("Card and position cannot be null");
+  public void placeCard(Card card, Coordinate position, PlayerColor owner) {
+    if (card == null || position == null || owner == null) {
+      throw new IllegalArgumentException("Card, position and owner cannot be null");
     }
-    if (!grid.isValidPosition(position)) {
-      throw new IllegalArgumentException("Invalid position");
+    placeCard(card, grid.getIndex(position), owner);
+  }
+
+  @Override
+  public void placeCard(Card card, int index, PlayerColor owner) {
+    if (card == null || owner == null) {
+      throw new IllegalArgumentException("Card and owner cannot be null");
     }
-    if (grid.getCellState(position) == CellState.HOLE) {
+    checkIndex(index);
+    CellState state = grid.getCellState(index);
+    if (state == CellState.HOLE) {
       throw new IllegalStateException("Cannot place card in hole");
     }
-    if (grid.getCellState(position) == CellState.OCCUPIED
-            || cardPositions.containsKey(position)) {
+    if (state == CellState.OCCUPIED || cards[index] != null) {
       throw new IllegalStateException("Position already occupied");
     }
 
-    cardPositions.put(position, card);
-    grid.setCellState(position, CellState.OCCUPIED);
+    cards[index] = card;
+    cardCount++;
+    emptyCells.remove(index);
+    grid.setCellState(grid.getCoordinate(index), CellState.OCCUPIED);
+    owners[index] = encodeOwner(owner);
+    ownerCounts[owner.ordinal()]++;
+    hash ^= Zobrist.cardKey(index, card, owner);
+    undoLog.placed(index);
   }
 
   @Override
   public Card getCardAt(Coordinate position) {
-    if (position == null) {
-      throw new IllegalArgumentException("Position cannot be null");
-    }
-    if (!grid.isValidPosition(position)) {
-      throw new IllegalArgumentException("Invalid position");
-    }
-    if (grid.getCellState(position) == CellState.HOLE) {
+    return getCardAt(grid.getIndex(position));
+  }
+
+  @Override
+  public Card getCardAt(int index) {
+    checkIndex(index);
+    if (grid.getCellState(index) == CellState.HOLE) {
       throw new IllegalStateException("Cannot get card from hole");
     }
+    return cards[index];
+  }
 
-    return cardPositions.get(position);
+  @Override
+  public PlayerColor getOwnerAt(Coordinate position) {
+    return getOwnerAt(grid.getIndex(position));
   }
 
   @Override
-  public List<Card> getAdjacentCards(Coordinate position) {
-    if (position == null) {
-      throw new IllegalArgumentException("Position cannot be null");
-    }
-    if (!grid.isValidPosition(position)) {
-      throw new IllegalArgumentException("Invalid position");
+  public PlayerColor getOwnerAt(int index) {
+    checkIndex(index);
+    if (grid.getCellState(index) == CellState.HOLE) {
+      throw new IllegalStateException("Cannot get owner from hole");
     }
+    return decodeOwner(owners[index]);
+  }
 
-    List<Card> adjacentCards = new ArrayList<>();
-    List<Coordinate> adjacentPositions = grid.getAdjacentPositions(position);
+  @Override
+  public List<Card> getAdjacentCards(Coordinate position) {
+    int index = grid.getIndex(position);
+    AdjacencyTable adjacency = grid.getAdjacency();
 
     // Return cards in order: North, South, East, West
     // Add null for positions without cards
-    Map<Direction, Card> directionMap = new HashMap<>();
-
-    for (Coordinate adjPos : adjacentPositions) {
-      Direction direction = getDirection(position, adjPos);
-      if (grid.getCellState(adjPos) == CellState.OCCUPIED) {
-        directionMap.put(direction, getCardAt(adjPos));
-      } else {
-        directionMap.put(direction, null);
-      }
-    }
-
-    // Ensure consistent ordering
-    adjacentCards.add(directionMap.get(Direction.NORTH));
-    adjacentCards.add(directionMap.get(Direction.SOUTH));
-    adjacentCards.add(directionMap.get(Direction.EAST));
-    adjacentCards.add(directionMap.get(Direction.WEST));
-
+    List<Card> adjacentCards = new ArrayList<>(4);
+    adjacentCards.add(cardAt(adjacency.neighbour(index, Direction.NORTH)));
+    adjacentCards.add(cardAt(adjacency.neighbour(index, Direction.SOUTH)));
+    adjacentCards.add(cardAt(adjacency.neighbour(index, Direction.EAST)));
+    adjacentCards.add(cardAt(adjacency.neighbour(index, Direction.WEST)));
     return adjacentCards;
   }
 
+  private Card cardAt(int index) {
+    return index < 0 ? null : cards[index];
+  }
+
   /**
    * Method is only public so it can be used in tests.
    * Helper method to determine direction from source to target coordinate.
@@ -144,79 +202,96 @@ public class GameBoard implements Board {
 
   @Override
   public List<Card> getAdjacentOpponentCards(Coordinate position, PlayerColor currentPlayerColor) {
-    if (position == null) {
-      throw new IllegalArgumentException("Position cannot be null");
-    }
-    if (!grid.isValidPosition(position)) {
-      throw new IllegalArgumentException("Invalid position");
-    }
+    int index = grid.getIndex(position);
+    AdjacencyTable adjacency = grid.getAdjacency();
+    byte opponent = encodeOwner(currentPlayerColor.getOpponentColor());
+
+    // Same N, S, E, W order as getAdjacentCards
+    List<Card> opponentCards = new ArrayList<>(4);
+    opponentCards.add(opponentCardAt(adjacency.neighbour(index, Direction.NORTH), opponent));
+    opponentCards.add(opponentCardAt(adjacency.neighbour(index, Direction.SOUTH), opponent));
+    opponentCards.add(opponentCardAt(adjacency.neighbour(index, Direction.EAST), opponent));
+    opponentCards.add(opponentCardAt(adjacency.neighbour(index, Direction.WEST), opponent));
+    return opponentCards;
+  }
 
-    List<Card> adjacentCards = getAdjacentCards(position);
-    List<Card> opponentCards = new ArrayList<>();
+  private Card opponentCardAt(int index, byte opponent) {
+    return index >= 0 && owners[index] == opponent ? cards[index] : null;
+  }
 
-    for (Card card : adjacentCards) {
-      if (card != null && card.getOwner().getColor() == currentPlayerColor.getOpponentColor()) {
-        opponentCards.add(card);
-      } else {
-        opponentCards.add(null);
-      }
+  @Override
+  public void flipCard(Coordinate position, PlayerColor newOwner) {
+    if (position == null || newOwner == null) {
+      throw new IllegalArgumentException("Position and new owner cannot be null");
     }
-    return opponentCards;
+    flipCard(grid.getIndex(position), newOwner);
   }
 
   @Override
-  public void flipCard(Coordinate position, Player newOwner) {
-    if (position == null) {
-      throw new IllegalArgumentException("Position cannot be null");
-    }
-    if (!grid.isValidPosition(position)) {
-      throw new IllegalArgumentException("Invalid position");
+  public void flipCard(int index, PlayerColor newOwner) {
+    if (newOwner == null) {
+      throw new IllegalArgumentException("New owner cannot be null");
     }
-    if (grid.getCellState(position) != CellState.OCCUPIED) {
+    checkIndex(index);
+    if (grid.getCellState(index) != CellState.OCCUPIED) {
       throw new IllegalStateException("Position has no card");
     }
-
-    Card card = getCardAt(position);
-    if (card == null) {
+    if (cards[index] == null) {
       throw new IllegalStateException("Card cannot be found at position");
     }
 
-    if (newOwner == card.getOwner()) {
+    PlayerColor currentOwner = decodeOwner(owners[index]);
+    if (newOwner == currentOwner) {
       throw new IllegalStateException("Cannot flip card to same owner");
     } else {
-      card.setOwner(newOwner);
+      undoLog.flipped(index, currentOwner);
+      setOwner(index, newOwner);
     }
   }
 
   @Override
   public boolean isFull() {
-    return cardPositions.size() == grid.getCardCellCount();
+    return cardCount == grid.getCardCellCount();
   }
 
   @Override
   public int getCardCount(PlayerColor player) {
-    return (int) cardPositions.values().stream()
-        .filter(card -> card.getOwner().getColor() == player)
-        .count();
+    return ownerCounts[player.ordinal()];
+  }
+
+  @Override
+  public long getHash() {
+    return hash;
   }
 
   @Override
   public List<Coordinate> getEmptyCardCells() {
-    List<Coordinate> emptyCells = new ArrayList<>();
-    for (int row = 0; row < grid.getTotalRows(); row++) {
-      for (int col = 0; col < grid.getTotalColumns(); col++) {
-        Coordinate pos = new GameCoordinate(row, col);
-        if (canPlaceCard(pos)) {
-          emptyCells.add(pos);
-        }
-      }
+    List<Coordinate> positions = new ArrayList<>(emptyCells.size());
+    for (int index = emptyCells.next(0); index >= 0; index = emptyCells.next(index + 1)) {
+      positions.add(grid.getCoordinate(index));
     }
-    return emptyCells;
+    return positions;
+  }
+
+  @Override
+  public int getEmptyCellCount() {
+    return emptyCells.size();
+  }
+
+  @Override
+  public int nextEmptyCell(int from) {
+    return emptyCells.next(from);
   }
 
   @Override
   public Map<Coordinate, Card> getAllCards() {
-    return new HashMap<>(cardPositions);
+    Map<Coordinate, Card> allCards = new HashMap<>();
+    for (int index = 0; index < cards.length; index++) {
+      if (cards[index] != null) {
+        allCards.put(grid.getCoordinate(index), cards[index]);
+      }
+    }
+    return allCards;
   }
 
   @Override
@@ -233,29 +308,68 @@ public class GameBoard implements Board {
 
   @Override
   public void clear() {
-    cardPositions.clear();
+    Arrays.fill(cards, null);
+    Arrays.fill(owners, (byte) 0);
+    Arrays.fill(ownerCounts, 0);
+    cardCount = 0;
+    hash = layoutKey;
+    undoLog.clear();
     // Reset all occupied cells to available
-    for (int row = 0; row < grid.getTotalRows(); row++) {
-      for (int col = 0; col < grid.getTotalColumns(); col++) {
-        Coordinate pos = new GameCoordinate(row, col);
-        if (grid.getCellState(pos) == CellState.OCCUPIED) {
-          grid.setCellState(pos, CellState.AVAILABLE);
-        }
+    for (int index = 0; index < cards.length; index++) {
+      if (grid.getCellState(index) == CellState.OCCUPIED) {
+        grid.setCellState(grid.getCoordinate(index), CellState.AVAILABLE);
       }
     }
+    indexEmptyCells();
   }
 
   @Override
   public Board copy() {
+    // The copied grid already has the occupied cells; cards are immutable and shared
     GameBoard copy = new GameBoard(grid.copy());
-    // Deep copy the card positions
-    for (Map.Entry<Coordinate, Card> entry : cardPositions.entrySet()) {
-      GameCoordinate newCoord = new GameCoordinate(
-              entry.getKey().getRow(),
-              entry.getKey().getCol());
-      copy.cardPositions.put(newCoord, entry.getValue());
-      copy.grid.setCellState(newCoord, CellState.OCCUPIED);
-    }
+    System.arraycopy(cards, 0, copy.cards, 0, cards.length);
+    System.arraycopy(owners, 0, copy.owners, 0, owners.length);
+    System.arraycopy(ownerCounts, 0, copy.ownerCounts, 0, ownerCounts.length);
+    copy.cardCount = cardCount;
+    copy.hash = hash;
     return copy;
   }
+
+  /**
+   * Moves the card at a cell to a new owner, keeping the per-owner counts and
+   * the hash in step.
+   */
+  private void setOwner(int index, PlayerColor newOwner) {
+    PlayerColor oldOwner = decodeOwner(owners[index]);
+    ownerCounts[oldOwner.ordinal()]--;
+    ownerCounts[newOwner.ordinal()]++;
+    hash ^= Zobrist.ownerKey(index, oldOwner) ^ Zobrist.ownerKey(index, newOwner);
+    owners[index] = encodeOwner(newOwner);
+  }
+
+  @Override
+  public int getUndoMark() {
+    return undoLog.size();
+  }
+
+  @Override
+  public void undoTo(int mark) {
+    undoLog.checkMark(mark);
+    while (undoLog.size() > mark) {
+      int index = undoLog.lastCell();
+      if (undoLog.lastIsPlacement()) {
+        PlayerColor owner = decodeOwner(owners[index]);
+        hash ^= Zobrist.cardKey(index, cards[index], owner);
+        cards[index] = null;
+        cardCount--;
+        emptyCells.add(index);
+        grid.setCellState(grid.getCoordinate(index), CellState.AVAILABLE);
+        ownerCounts[owner.ordinal()]--;
+        owners[index] = 0;
+      } else {
+        setOwner(index, undoLog.lastPreviousOwner());
+      }
+      undoLog.pop();
+    }
+  }
 }
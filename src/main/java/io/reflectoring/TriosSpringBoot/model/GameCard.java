@@ -1,7 +1,8 @@
 package io.reflectoring.TriosSpringBoot.model;
 
 /**
- * Implementation for a card in the game with four directional values and ownership.
+ * Implementation for a card in the game with four directional values.
+ * Instances are immutable, so they can be shared between games and simulations.
  */
 public class GameCard implements Card {
 
@@ -10,19 +11,17 @@ public class GameCard implements Card {
   private final int southValue;
   private final int westValue;
   private final String identifier;
-  private Player owner;
 
   /**
    * Constructor for the GameCard class.
    *
    * @param identifier the unique identifier of the card
-   * @param owner the owner of the card
    * @param northValue the value of the card in the north direction
    * @param eastValue the value of the card in the east direction
    * @param southValue the value of the card in the south direction
    * @param westValue the value of the card in the west direction
    */
-  public GameCard(String identifier, Player owner, int northValue, int eastValue, int southValue,
+  public GameCard(String identifier, int northValue, int eastValue, int southValue,
                   int westValue) {
     if (identifier == null) {
       throw new IllegalArgumentException("Identifier cannot be null");
@@ -36,7 +35,6 @@ public class GameCard implements Card {
     this.southValue = southValue;
     this.westValue = westValue;
     this.identifier = identifier;
-    this.owner = owner;
   }
 
   @Override
@@ -57,15 +55,4 @@ public class GameCard implements Card {
     }
     throw new IllegalArgumentException("Invalid direction");
   }
-
-
-  @Override
-  public Player getOwner() {
-    return this.owner;
-  }
-
-  @Override
-  public void setOwner(Player newOwner) {
-    this.owner = newOwner;
-  }
 }
@@ -33,7 +33,10 @@ public class GameCell implements Cell {
       throw new IllegalArgumentException("State cannot be null");
     }
     if (this.state == CellState.OCCUPIED) {
-      throw new IllegalStateException("Cannot change state of occupied cell");
+      if (state != CellState.AVAILABLE) {
+        throw new IllegalStateException("Cannot change state of occupied cell");
+      }
+      this.card = null;
     }
 
     if (this.state == CellState.HOLE && state != CellState.HOLE) {
@@ -1,6 +1,5 @@
 package io.reflectoring.TriosSpringBoot.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -9,11 +8,12 @@ import java.util.List;
  */
 public class GameGrid implements Grid {
   private final Cell[][] grid;
+  private final Coordinate[] coordinates;
+  private final AdjacencyTable adjacency;
   private final int rows;
   private final int cols;
   private int cardCellCount;
 
-
   /**
    * Constructor for the GameGrid class.
    *
@@ -31,12 +31,34 @@ public class GameGrid implements Grid {
     this.rows = rows;
     this.cols = cols;
     this.grid = new Cell[rows][cols];
+    this.coordinates = new Coordinate[rows * cols];
     this.cardCellCount = (rows * cols);
 
     // Initialize the grid with available cells
     for (int i = 0; i < rows; i++) {
       for (int j = 0; j < cols; j++) {
-        this.grid[i][j] = new GameCell(CellState.AVAILABLE, new GameCoordinate(i, j));
+        this.coordinates[i * cols + j] = new GameCoordinate(i, j);
+        this.grid[i][j] = new GameCell(CellState.AVAILABLE, coordinates[i * cols + j]);
+      }
+    }
+    this.adjacency = new AdjacencyTable(rows, cols, coordinates);
+  }
+
+  /**
+   * Copy constructor. Coordinates and adjacency are immutable, so the copy
+   * shares the original's tables.
+   */
+  private GameGrid(GameGrid other) {
+    this.rows = other.rows;
+    this.cols = other.cols;
+    this.grid = new Cell[rows][cols];
+    this.coordinates = other.coordinates;
+    this.adjacency = other.adjacency;
+    this.cardCellCount = other.cardCellCount;
+
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        this.grid[i][j] = other.grid[i][j].copy();
       }
     }
   }
@@ -51,11 +73,51 @@ public class GameGrid implements Grid {
     return this.cols;
   }
 
+  @Override
+  public int getCellCount() {
+    return coordinates.length;
+  }
+
+  @Override
+  public int getIndex(Coordinate position) {
+    if (position == null) {
+      throw new IllegalArgumentException("Position cannot be null");
+    }
+    if (!isValidPosition(position)) {
+      throw new IllegalArgumentException("Invalid position");
+    }
+    return position.getRow() * cols + position.getCol();
+  }
+
+  @Override
+  public Coordinate getCoordinate(int index) {
+    if (index < 0 || index >= coordinates.length) {
+      throw new IllegalArgumentException("Invalid cell index: " + index);
+    }
+    return coordinates[index];
+  }
+
+  @Override
+  public Coordinate getCoordinate(int row, int col) {
+    if (row < 0 || row >= rows || col < 0 || col >= cols) {
+      throw new IllegalArgumentException("Invalid position");
+    }
+    return coordinates[row * cols + col];
+  }
+
   @Override
   public CellState getCellState(Coordinate coordinate) {
     return grid[coordinate.getRow()][coordinate.getCol()].getState();
   }
 
+  @Override
+  public CellState getCellState(int index) {
+    if (index < 0 || index >= coordinates.length) {
+      throw new IllegalArgumentException("Invalid cell index: " + index);
+    }
+    return grid[index / cols][index % cols].getState();
+  }
+
   @Override
   public void setCellState(Coordinate coordinate, CellState state) {
     if (!isValidPosition(coordinate)) {
@@ -84,23 +146,12 @@ public class GameGrid implements Grid {
   @Override
   public List<Coordinate> getAdjacentPositions(Coordinate position) {
 
-    List<Coordinate> adjacents = new ArrayList<>();
-    int row = position.getRow();
-    int col = position.getCol();
-
-    Coordinate[] directions = {
-        new GameCoordinate(row - 1, col),
-        new GameCoordinate(row + 1, col),
-        new GameCoordinate(row, col - 1),
-        new GameCoordinate(row, col + 1)
-    };
+    return adjacency.adjacentPositions(getIndex(position));
+  }
 
-    for (Coordinate direction : directions) {
-      if (isValidPosition(direction)) {
-        adjacents.add(direction);
-      }
-    }
-    return adjacents;
+  @Override
+  public AdjacencyTable getAdjacency() {
+    return adjacency;
   }
 
   @Override
@@ -110,14 +161,6 @@ public class GameGrid implements Grid {
 
   @Override
   public Grid copy() {
-    GameGrid copy = new GameGrid(this.rows, this.cols);
-    copy.cardCellCount = this.cardCellCount;
-
-    for (int i = 0; i < rows; i++) {
-      for (int j = 0; j < cols; j++) {
-        copy.grid[i][j] = this.grid[i][j].copy();
-      }
-    }
-    return copy;
+    return new GameGrid(this);
   }
 }
@@ -0,0 +1,215 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simulation of a Three Trios game on a private copy of the board and hands.
+ * Moves are made and taken back in place through the battle handler's undo support,
+ * so looking ahead does not copy the board once the simulation has been created.
+ */
+public class GameSimulation implements ThreeTriosSimulation {
+  private final Board board;
+  private final BattleHandler battleHandler;
+  private final Map<PlayerColor, List<Card>> hands;
+  private PlayerColor currentPlayer;
+  private GameState gameState;
+  private long handHash;
+  private Card[] playedCards;
+  private int[] handIndices;
+  private GameState[] previousStates;
+  private int depth;
+
+  /**
+   * Constructor for the GameSimulation class.
+   * The board is used as given, so callers must pass a board the simulation can own.
+   *
+   * @param board the board to simulate on
+   * @param redHand the cards in the red player's hand
+   * @param blueHand the cards in the blue player's hand
+   * @param currentPlayer the player to move
+   * @param gameState the state of the game being simulated
+   * @throws IllegalArgumentException if any argument is null
+   */
+  GameSimulation(Board board, List<Card> redHand, List<Card> blueHand,
+                 PlayerColor currentPlayer, GameState gameState) {
+    if (board == null || redHand == null || blueHand == null
+            || currentPlayer == null || gameState == null) {
+      throw new IllegalArgumentException("Arguments cannot be null");
+    }
+    this.board = board;
+    this.battleHandler = BoardType.createBattleHandler(board);
+    this.hands = new EnumMap<>(PlayerColor.class);
+    this.hands.put(PlayerColor.RED, new ArrayList<>(redHand));
+    this.hands.put(PlayerColor.BLUE, new ArrayList<>(blueHand));
+    this.currentPlayer = currentPlayer;
+    this.gameState = gameState;
+    this.handHash = Zobrist.handHash(redHand, PlayerColor.RED)
+            ^ Zobrist.handHash(blueHand, PlayerColor.BLUE);
+    this.playedCards = new Card[16];
+    this.handIndices = new int[16];
+    this.previousStates = new GameState[16];
+    this.depth = 0;
+  }
+
+  @Override
+  public int playCard(Card card, Coordinate position) {
+    if (card == null || position == null) {
+      throw new IllegalArgumentException("Card and position cannot be null");
+    }
+    if (gameState == GameState.GAME_OVER) {
+      throw new IllegalStateException("Game is over");
+    }
+    if (gameState == GameState.INITIALIZATION) {
+      throw new IllegalStateException("Game has not started yet");
+    }
+    List<Card> hand = hands.get(currentPlayer);
+    int handIndex = indexOfCard(hand, card);
+    if (handIndex < 0) {
+      throw new IllegalStateException("Next player's turn.");
+    }
+    if (!board.canPlaceCard(position)) {
+      throw new IllegalStateException("Cannot place card at position");
+    }
+
+    int flips = battleHandler.applyMove(card, position, currentPlayer);
+    hand.remove(handIndex);
+    handHash ^= Zobrist.handKey(card, currentPlayer);
+    push(card, handIndex);
+
+    if (board.isFull()) {
+      gameState = GameState.GAME_OVER;
+    } else {
+      currentPlayer = currentPlayer.getOpponentColor();
+      gameState = GameState.WAITING_FOR_MOVE;
+    }
+    return flips;
+  }
+
+  private static int indexOfCard(List<Card> hand, Card card) {
+    for (int i = 0; i < hand.size(); i++) {
+      if (hand.get(i) == card) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void push(Card card, int handIndex) {
+    if (depth == playedCards.length) {
+      int capacity = depth * 2;
+      playedCards = Arrays.copyOf(playedCards, capacity);
+      handIndices = Arrays.copyOf(handIndices, capacity);
+      previousStates = Arrays.copyOf(previousStates, capacity);
+    }
+    playedCards[depth] = card;
+    handIndices[depth] = handIndex;
+    previousStates[depth] = gameState;
+    depth++;
+  }
+
+  @Override
+  public void undo() {
+    if (depth == 0) {
+      throw new IllegalStateException("No move to undo");
+    }
+    depth--;
+    GameState stateBeforeMove = previousStates[depth];
+    if (gameState != GameState.GAME_OVER) {
+      currentPlayer = currentPlayer.getOpponentColor();
+    }
+
+    battleHandler.undoMove();
+    hands.get(currentPlayer).add(handIndices[depth], playedCards[depth]);
+    handHash ^= Zobrist.handKey(playedCards[depth], currentPlayer);
+    gameState = stateBeforeMove;
+    playedCards[depth] = null;
+    previousStates[depth] = null;
+  }
+
+  @Override
+  public int getMoveDepth() {
+    return depth;
+  }
+
+  @Override
+  public Board getBoard() {
+    return board;
+  }
+
+  @Override
+  public List<Card> getPlayerHand(PlayerColor player) {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null");
+    }
+    return Collections.unmodifiableList(hands.get(player));
+  }
+
+  @Override
+  public PlayerColor getCurrentPlayerColor() {
+    return currentPlayer;
+  }
+
+  @Override
+  public int getPotentialFlips(Card card, Coordinate position) {
+    if (card == null || position == null) {
+      throw new IllegalArgumentException("Card and position cannot be null");
+    }
+    if (!board.canPlaceCard(position)) {
+      return 0;
+    }
+
+    int flips = battleHandler.applyMove(card, position, currentPlayer);
+    battleHandler.undoMove();
+    return flips;
+  }
+
+  @Override
+  public FlipMatrix getFlipMatrix(List<Card> cards) {
+    return FlipMatrix.evaluate(board, battleHandler, cards, currentPlayer);
+  }
+
+  @Override
+  public GameState getGameState() {
+    return gameState;
+  }
+
+  @Override
+  public int getScore(PlayerColor player) {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null");
+    }
+    return board.getCardCount(player) + hands.get(player).size();
+  }
+
+  @Override
+  public PlayerColor getWinner() {
+    if (gameState != GameState.GAME_OVER) {
+      return null;
+    }
+
+    return getScoreSnapshot().getLeader();
+  }
+
+  @Override
+  public ScoreSnapshot getScoreSnapshot() {
+    return new ScoreSnapshot(
+            board.getCardCount(PlayerColor.RED), board.getCardCount(PlayerColor.BLUE),
+            hands.get(PlayerColor.RED).size(), hands.get(PlayerColor.BLUE).size());
+  }
+
+  @Override
+  public long getPositionHash() {
+    return board.getHash() ^ handHash ^ Zobrist.sideKey(currentPlayer);
+  }
+
+  @Override
+  public ThreeTriosSimulation simulate() {
+    return new GameSimulation(board.copy(), hands.get(PlayerColor.RED),
+            hands.get(PlayerColor.BLUE), currentPlayer, gameState);
+  }
+}
@@ -21,6 +21,44 @@ public interface Grid {
    */
   int getTotalColumns();
 
+  /**
+   * Gets the total number of cells in the grid, holes included.
+   * Cell indices run from 0 to this count minus one, in row-major order.
+   *
+   * @return total number of cells
+   */
+  int getCellCount();
+
+  /**
+   * Gets the cell index of the given position.
+   *
+   * @param position the position to convert
+   * @return the index of the position, {@code row * columns + col}
+   * @throws IllegalArgumentException if position is null or invalid
+   */
+  int getIndex(Coordinate position);
+
+  /**
+   * Gets the shared coordinate for the given cell index.
+   * The same instance is returned on every call, so callers can look up
+   * coordinates in hot loops without allocating.
+   *
+   * @param index the cell index
+   * @return the coordinate of the cell
+   * @throws IllegalArgumentException if index is out of bounds
+   */
+  Coordinate getCoordinate(int index);
+
+  /**
+   * Gets the shared coordinate for the given row and column.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return the coordinate of the cell
+   * @throws IllegalArgumentException if row or col is out of bounds
+   */
+  Coordinate getCoordinate(int row, int col);
+
   /**
    * Gets the state of the cell at the given position.
    *
@@ -30,6 +68,15 @@ public interface Grid {
    */
   CellState getCellState(Coordinate position);
 
+  /**
+   * Gets the state of the cell at the given index.
+   *
+   * @param index the cell index
+   * @return the state of the cell at the index
+   * @throws IllegalArgumentException if index is out of bounds
+   */
+  CellState getCellState(int index);
+
   /**
    * Sets the state of the cell at the given position.
    *
@@ -56,6 +103,14 @@ public interface Grid {
    */
   List<Coordinate> getAdjacentPositions(Coordinate position);
 
+  /**
+   * Gets the precomputed neighbour and direction tables of this grid.
+   * The tables are built once per grid and shared by its copies.
+   *
+   * @return the adjacency table
+   */
+  AdjacencyTable getAdjacency();
+
   /**
    * Gets the total number of card cells (non-hole cells) in the grid.
    * Must be odd as per game requirements.
@@ -0,0 +1,159 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A rotation or reflection of a grid that maps its card cells onto card cells and its
+ * holes onto holes. Square grids can have up to eight such symmetries, other grids up
+ * to four. Placing a card on a transformed grid also turns the card, so the value on
+ * each side of the card moves to the side given by {@link #mapDirection}.
+ *
+ * <p>Each symmetry is an integer matrix acting on coordinates doubled and centred on the
+ * middle of the grid, which keeps every transform exact for any grid size.
+ */
+public final class GridSymmetry {
+  // Matrices {a, b, c, d} mapping (row, col) to (a * row + b * col, c * row + d * col)
+  private static final int[][] MATRICES = {
+      {1, 0, 0, 1},    // identity
+      {0, 1, -1, 0},   // quarter turn clockwise
+      {-1, 0, 0, -1},  // half turn
+      {0, -1, 1, 0},   // quarter turn counter-clockwise
+      {1, 0, 0, -1},   // mirror left to right
+      {-1, 0, 0, 1},   // mirror top to bottom
+      {0, 1, 1, 0},    // mirror across the main diagonal
+      {0, -1, -1, 0},  // mirror across the anti-diagonal
+  };
+  private static final String[] NAMES = {
+      "identity", "rotate90", "rotate180", "rotate270",
+      "mirrorHorizontal", "mirrorVertical", "transpose", "antiTranspose"
+  };
+
+  private final String name;
+  private final int[] cells;
+  private final int[] inverseCells;
+  private final Direction[] directions;
+
+  private GridSymmetry(String name, int[] cells, Direction[] directions) {
+    this.name = name;
+    this.cells = cells;
+    this.inverseCells = new int[cells.length];
+    for (int i = 0; i < cells.length; i++) {
+      inverseCells[cells[i]] = i;
+    }
+    this.directions = directions;
+  }
+
+  /**
+   * Finds the symmetries of a grid's layout of holes and card cells.
+   *
+   * @param grid the grid
+   * @return the symmetries, starting with the identity
+   * @throws IllegalArgumentException if grid is null
+   */
+  public static List<GridSymmetry> of(Grid grid) {
+    if (grid == null) {
+      throw new IllegalArgumentException("Grid cannot be null");
+    }
+    int rows = grid.getTotalRows();
+    int cols = grid.getTotalColumns();
+    List<GridSymmetry> symmetries = new ArrayList<>();
+    search:
+    for (int m = 0; m < MATRICES.length; m++) {
+      int[] matrix = MATRICES[m];
+      if (matrix[1] != 0 && rows != cols) {
+        continue;
+      }
+      int[] cells = new int[grid.getCellCount()];
+      for (int row = 0; row < rows; row++) {
+        for (int col = 0; col < cols; col++) {
+          int r = 2 * row - (rows - 1);
+          int c = 2 * col - (cols - 1);
+          int mappedRow = (matrix[0] * r + matrix[1] * c + rows - 1) / 2;
+          int mappedCol = (matrix[2] * r + matrix[3] * c + cols - 1) / 2;
+          int index = row * cols + col;
+          int mapped = mappedRow * cols + mappedCol;
+          // Only the layout matters, not which card cells are occupied
+          if ((grid.getCellState(index) == CellState.HOLE)
+                  != (grid.getCellState(mapped) == CellState.HOLE)) {
+            continue search;
+          }
+          cells[index] = mapped;
+        }
+      }
+      symmetries.add(new GridSymmetry(NAMES[m], cells, directionsOf(matrix)));
+    }
+    return Collections.unmodifiableList(symmetries);
+  }
+
+  /**
+   * Maps each direction to the direction its side of a card faces after the transform.
+   */
+  private static Direction[] directionsOf(int[] matrix) {
+    Direction[] mapped = new Direction[Direction.values().length];
+    for (Direction direction : Direction.values()) {
+      int dr = direction == Direction.NORTH ? -1 : direction == Direction.SOUTH ? 1 : 0;
+      int dc = direction == Direction.WEST ? -1 : direction == Direction.EAST ? 1 : 0;
+      int r = matrix[0] * dr + matrix[1] * dc;
+      int c = matrix[2] * dr + matrix[3] * dc;
+      mapped[direction.ordinal()] = r < 0 ? Direction.NORTH : r > 0 ? Direction.SOUTH
+              : c > 0 ? Direction.EAST : Direction.WEST;
+    }
+    return mapped;
+  }
+
+  /**
+   * Gets the cell a cell is moved to.
+   *
+   * @param cell the cell index
+   * @return the index of the transformed cell
+   */
+  public int mapCell(int cell) {
+    return cells[cell];
+  }
+
+  /**
+   * Gets the cell that is moved to a cell.
+   *
+   * @param cell the index of a transformed cell
+   * @return the index of the original cell
+   */
+  public int unmapCell(int cell) {
+    return inverseCells[cell];
+  }
+
+  /**
+   * Gets the side of a card that the given side faces after the transform.
+   *
+   * @param direction a side of the card before the transform
+   * @return the side after the transform
+   */
+  public Direction mapDirection(Direction direction) {
+    return directions[direction.ordinal()];
+  }
+
+  /**
+   * Whether this symmetry leaves every cell and every side of a card in place.
+   *
+   * @return true for the identity
+   */
+  public boolean isIdentity() {
+    for (Direction direction : Direction.values()) {
+      if (mapDirection(direction) != direction) {
+        return false;
+      }
+    }
+    for (int i = 0; i < cells.length; i++) {
+      if (cells[i] != i) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
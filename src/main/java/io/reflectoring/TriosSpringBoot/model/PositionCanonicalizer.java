@@ -0,0 +1,236 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps positions that are rotations or reflections of each other to one canonical
+ * position, so caches keyed by position hash can share entries between them.
+ *
+ * <p>Turning the board turns every card on it and in the hands. Canonical hashes
+ * therefore key each card by its turned values rather than by its identifier: a
+ * position and its mirror image, in which every card is turned, hash alike whatever
+ * the deck. Cards with equal values are interchangeable in play, so they share keys
+ * too, and a move is stored as the turned values of its card, to be replayed with any
+ * card of the hand that turns into them. Every symmetry of the grid's hole layout is
+ * used.
+ */
+public final class PositionCanonicalizer {
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final AdjacencyTable adjacency;
+  private final long layoutKey;
+  private final long templateKey;
+  private final Set<Card> deck;
+  private final List<GridSymmetry> symmetries;
+
+  private PositionCanonicalizer(Grid grid, long templateKey, Set<Card> deck,
+                                List<GridSymmetry> symmetries) {
+    this.adjacency = grid.getAdjacency();
+    this.layoutKey = Zobrist.layoutKey(grid);
+    this.templateKey = templateKey;
+    this.deck = deck;
+    this.symmetries = symmetries;
+  }
+
+  /**
+   * Creates the canonicalizer for a game, from its grid and every card on the board
+   * or in a hand.
+   *
+   * @param model the game
+   * @return the canonicalizer
+   * @throws IllegalArgumentException if model is null
+   */
+  public static PositionCanonicalizer of(ReadOnlyThreeTriosModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    Board board = model.getBoard();
+    List<Card> deck = new ArrayList<>(board.getAllCards().values());
+    for (PlayerColor player : PlayerColor.values()) {
+      deck.addAll(model.getPlayerHand(player));
+    }
+    return of(board.getGrid(), deck);
+  }
+
+  /**
+   * Creates the canonicalizer for a grid and a deck.
+   *
+   * @param grid the grid
+   * @param deck every card in the game
+   * @return the canonicalizer
+   * @throws IllegalArgumentException if grid or deck is null
+   */
+  public static PositionCanonicalizer of(Grid grid, Collection<Card> deck) {
+    if (deck == null) {
+      throw new IllegalArgumentException("Deck cannot be null");
+    }
+    List<GridSymmetry> symmetries = GridSymmetry.of(grid);
+    Set<Card> cards = Collections.newSetFromMap(new IdentityHashMap<>());
+    cards.addAll(deck);
+    return new PositionCanonicalizer(grid, Zobrist.templateKey(grid, deck), cards, symmetries);
+  }
+
+  /**
+   * Whether this canonicalizer was created for the game a position belongs to, so
+   * callers can keep one canonicalizer per game instead of creating one per position.
+   * Copies of a board, such as the simulations searches run on, share the adjacency
+   * table of the grid they were copied from, so their positions count as the game's.
+   *
+   * @param model the position
+   * @return true if the position is on a copy of this grid and holds only cards of
+   *         this deck
+   */
+  public boolean isFor(ReadOnlyThreeTriosModel model) {
+    if (model.getBoard().getGrid().getAdjacency() != adjacency) {
+      return false;
+    }
+    for (Card card : model.getPlayerHand(model.getCurrentPlayerColor())) {
+      if (!deck.contains(card)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the key of the grid layout and deck this canonicalizer was created for, so
+   * tables built for one board template can tell positions of another apart.
+   *
+   * @return the template key of the grid and deck
+   */
+  public long getTemplateKey() {
+    return templateKey;
+  }
+
+  /**
+   * Gets the number of symmetries of the grid layout, including the identity.
+   *
+   * @return the symmetry count
+   */
+  public int size() {
+    return symmetries.size();
+  }
+
+  /**
+   * Gets a symmetry of the grid layout.
+   *
+   * @param symmetry the symmetry number, with 0 for the identity
+   * @return the grid symmetry
+   */
+  public GridSymmetry getSymmetry(int symmetry) {
+    return symmetries.get(symmetry);
+  }
+
+  /**
+   * Hashes the position a symmetry turns a position into, keying cards by their
+   * turned values. The result is not the position's Zobrist hash, even for the
+   * identity, since cards with equal values hash alike.
+   *
+   * @param model the position
+   * @param symmetry the symmetry number
+   * @return the hash of the transformed position
+   */
+  public long hash(ReadOnlyThreeTriosModel model, int symmetry) {
+    GridSymmetry transform = symmetries.get(symmetry);
+    Board board = model.getBoard();
+    // Symmetries map holes onto holes, so the transformed layout has the same key.
+    // Keys are summed rather than XOR-ed so that equal cards in a hand do not cancel.
+    long hash = layoutKey ^ Zobrist.sideKey(model.getCurrentPlayerColor());
+    Grid layout = board.getGrid();
+    for (int cell = 0; cell < layout.getCellCount(); cell++) {
+      if (layout.getCellState(cell) == CellState.HOLE) {
+        continue;
+      }
+      Card card = board.getCardAt(cell);
+      if (card != null) {
+        hash += Zobrist.valuesKey(transform.mapCell(cell), turnedValues(transform, card),
+                board.getOwnerAt(cell));
+      }
+    }
+    for (PlayerColor player : PlayerColor.values()) {
+      for (Card card : model.getPlayerHand(player)) {
+        hash += Zobrist.handValuesKey(turnedValues(transform, card), player);
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Finds the symmetry that turns a position into its canonical form, the
+   * transformed position with the smallest hash.
+   *
+   * @param model the position
+   * @return the symmetry number
+   */
+  public int canonicalSymmetry(ReadOnlyThreeTriosModel model) {
+    int best = 0;
+    long bestHash = hash(model, 0);
+    for (int symmetry = 1; symmetry < symmetries.size(); symmetry++) {
+      long hash = hash(model, symmetry);
+      if (hash < bestHash) {
+        best = symmetry;
+        bestHash = hash;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Hashes the canonical form of a position. Positions that are rotations or
+   * reflections of each other have the same canonical hash.
+   *
+   * @param model the position
+   * @return the hash of the canonical form
+   */
+  public long canonicalHash(ReadOnlyThreeTriosModel model) {
+    return hash(model, canonicalSymmetry(model));
+  }
+
+  /**
+   * Gets the values a card shows once a symmetry has turned it, packed one byte per
+   * side in direction order. Moves are stored with these values in place of the card.
+   *
+   * @param symmetry the symmetry number
+   * @param card the card
+   * @return the packed values of the turned card
+   */
+  public int cardValues(int symmetry, Card card) {
+    return turnedValues(symmetries.get(symmetry), card);
+  }
+
+  private static int turnedValues(GridSymmetry transform, Card card) {
+    int values = 0;
+    for (Direction direction : DIRECTIONS) {
+      int side = transform.mapDirection(direction).ordinal();
+      values |= (card.getValue(direction) & 0xFF) << (8 * side);
+    }
+    return values;
+  }
+
+  /**
+   * Gets the cell a symmetry moves a cell to.
+   *
+   * @param symmetry the symmetry number
+   * @param cell the cell index
+   * @return the transformed cell index
+   */
+  public int mapCell(int symmetry, int cell) {
+    return symmetries.get(symmetry).mapCell(cell);
+  }
+
+  /**
+   * Gets the cell a symmetry moves to a cell.
+   *
+   * @param symmetry the symmetry number
+   * @param cell the transformed cell index
+   * @return the original cell index
+   */
+  public int unmapCell(int symmetry, int cell) {
+    return symmetries.get(symmetry).unmapCell(cell);
+  }
+}
@@ -33,6 +33,8 @@ public interface ReadOnlyThreeTriosModel {
   /**
    * Calculates number of cards that would be flipped if the given card
    * was played at the given position by current player.
+   * The board is left unchanged: games try the move on a copy of the board, while
+   * simulations, which are owned by one caller, make and take it back in place.
    *
    * @param card card to simulate playing
    * @param position position to simulate playing at
@@ -41,6 +43,17 @@ public interface ReadOnlyThreeTriosModel {
    */
   int getPotentialFlips(Card card, Coordinate position);
 
+  /**
+   * Calculates, in one pass, the number of cards each of the given cards would
+   * flip at every free cell if played by the current player.
+   * The board is left unchanged, in the same way as for {@link #getPotentialFlips}.
+   *
+   * @param cards cards to simulate playing, typically a player's hand
+   * @return matrix of flip counts by card and free cell
+   * @throws IllegalArgumentException if cards is null or contains null
+   */
+  FlipMatrix getFlipMatrix(List<Card> cards);
+
   /**
    * Gets the current state of the game.
    *
@@ -64,4 +77,31 @@ public interface ReadOnlyThreeTriosModel {
    * @return the winner of the game, or null if game is not over
    */
   PlayerColor getWinner();
+
+  /**
+   * Gets both players' scores at the current point of the game.
+   *
+   * @return an immutable snapshot of the scores
+   */
+  ScoreSnapshot getScoreSnapshot();
+
+  /**
+   * Gets a 64-bit Zobrist hash of the current position.
+   * The hash covers the grid layout, the cards on the board and their owners, the
+   * cards in both hands and the player to move, so equal positions reached by
+   * different move orders, or in different games dealt from the same deck on the same
+   * grid, hash the same, while the same cards on another grid hash differently.
+   *
+   * @return the position hash
+   * @see Zobrist
+   */
+  long getPositionHash();
+
+  /**
+   * Creates an isolated simulation of the current position.
+   * Moves played on the simulation never affect this model.
+   *
+   * @return a new simulation starting from the current position
+   */
+  ThreeTriosSimulation simulate();
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+/**
+ * Immutable view of both players' scores at one point in a game.
+ * A player's score is the number of board cards they own plus the number of
+ * cards left in their hand. Taking a snapshot reads a few counters, so it is
+ * cheap enough to take on every state response or metrics scrape.
+ */
+public final class ScoreSnapshot {
+  private final int redBoardCards;
+  private final int blueBoardCards;
+  private final int redHandCards;
+  private final int blueHandCards;
+
+  /**
+   * Constructor for the ScoreSnapshot class.
+   *
+   * @param redBoardCards number of board cards owned by red
+   * @param blueBoardCards number of board cards owned by blue
+   * @param redHandCards number of cards in red's hand
+   * @param blueHandCards number of cards in blue's hand
+   * @throws IllegalArgumentException if any count is negative
+   */
+  public ScoreSnapshot(int redBoardCards, int blueBoardCards,
+                       int redHandCards, int blueHandCards) {
+    if (redBoardCards < 0 || blueBoardCards < 0 || redHandCards < 0 || blueHandCards < 0) {
+      throw new IllegalArgumentException("Card counts cannot be negative");
+    }
+    this.redBoardCards = redBoardCards;
+    this.blueBoardCards = blueBoardCards;
+    this.redHandCards = redHandCards;
+    this.blueHandCards = blueHandCards;
+  }
+
+  /**
+   * Gets the number of board cards owned by a player.
+   *
+   * @param player the player color
+   * @return number of board cards owned by the player
+   * @throws IllegalArgumentException if player is null
+   */
+  public int getBoardCards(PlayerColor player) {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null");
+    }
+    return player == PlayerColor.RED ? redBoardCards : blueBoardCards;
+  }
+
+  /**
+   * Gets the number of cards left in a player's hand.
+   *
+   * @param player the player color
+   * @return number of cards in the player's hand
+   * @throws IllegalArgumentException if player is null
+   */
+  public int getHandCards(PlayerColor player) {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null");
+    }
+    return player == PlayerColor.RED ? redHandCards : blueHandCards;
+  }
+
+  /**
+   * Gets a player's score.
+   *
+   * @param player the player color
+   * @return board cards owned plus cards in hand
+   * @throws IllegalArgumentException if player is null
+   */
+  public int getScore(PlayerColor player) {
+    return getBoardCards(player) + getHandCards(player);
+  }
+
+  /**
+   * Gets the player with the higher score.
+   *
+   * @return the leading player, or null if the scores are tied
+   */
+  public PlayerColor getLeader() {
+    int redScore = getScore(PlayerColor.RED);
+    int blueScore = getScore(PlayerColor.BLUE);
+    if (redScore > blueScore) {
+      return PlayerColor.RED;
+    } else if (blueScore > redScore) {
+      return PlayerColor.BLUE;
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return "RED " + getScore(PlayerColor.RED) + " - BLUE " + getScore(PlayerColor.BLUE);
+  }
+}
@@ -0,0 +1,35 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+/**
+ * Speculative copy of a Three Trios game.
+ * Strategies can play moves on a simulation and take them back again to look ahead,
+ * without being able to change the game the simulation was created from.
+ */
+public interface ThreeTriosSimulation extends ReadOnlyThreeTriosModel {
+  /**
+   * Plays a card from the current player's hand, resolves battles and combos,
+   * and passes the turn to the other player.
+   *
+   * @param card card to play from the current player's hand
+   * @param position position to play the card at
+   * @return number of cards flipped by the move
+   * @throws IllegalArgumentException if card or position is null or invalid
+   * @throws IllegalStateException if the game is not in progress, the card is not in the
+   *         current player's hand or the position cannot hold a card
+   */
+  int playCard(Card card, Coordinate position);
+
+  /**
+   * Takes back the most recent card played on this simulation.
+   *
+   * @throws IllegalStateException if no card has been played on this simulation
+   */
+  void undo();
+
+  /**
+   * Gets the number of cards played on this simulation that have not been taken back.
+   *
+   * @return the number of moves that can be undone
+   */
+  int getMoveDepth();
+}
@@ -0,0 +1,127 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import java.util.Arrays;
+
+/**
+ * Growable log of board changes that can be rolled back in reverse order.
+ * Entries are kept in parallel arrays that are reused between rollbacks,
+ * so recording and undoing moves does not allocate once the log has grown
+ * to the depth of the deepest simulation.
+ */
+final class UndoLog {
+  private static final int INITIAL_CAPACITY = 32;
+  private static final PlayerColor[] COLORS = PlayerColor.values();
+
+  private int[] cells;
+  private boolean[] placements;
+  private byte[] previousOwners;
+  private int size;
+
+  /**
+   * Constructor for the UndoLog class.
+   */
+  UndoLog() {
+    this.cells = new int[INITIAL_CAPACITY];
+    this.placements = new boolean[INITIAL_CAPACITY];
+    this.previousOwners = new byte[INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  /**
+   * Records that a card was placed on a cell.
+   *
+   * @param cell the cell index
+   */
+  void placed(int cell) {
+    push(cell, true, (byte) 0);
+  }
+
+  /**
+   * Records that the card on a cell changed owner.
+   *
+   * @param cell the cell index
+   * @param previousOwner the owner before the flip
+   */
+  void flipped(int cell, PlayerColor previousOwner) {
+    push(cell, false, (byte) previousOwner.ordinal());
+  }
+
+  private void push(int cell, boolean placement, byte previousOwner) {
+    if (size == cells.length) {
+      int capacity = size * 2;
+      cells = Arrays.copyOf(cells, capacity);
+      placements = Arrays.copyOf(placements, capacity);
+      previousOwners = Arrays.copyOf(previousOwners, capacity);
+    }
+    cells[size] = cell;
+    placements[size] = placement;
+    previousOwners[size] = previousOwner;
+    size++;
+  }
+
+  /**
+   * Gets the number of recorded entries.
+   *
+   * @return the log size
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Gets the cell index of the most recent entry.
+   *
+   * @return the cell index
+   */
+  int lastCell() {
+    return cells[size - 1];
+  }
+
+  /**
+   * Checks whether the most recent entry is a placement.
+   *
+   * @return true for a placement, false for a flip
+   */
+  boolean lastIsPlacement() {
+    return placements[size - 1];
+  }
+
+  /**
+   * Gets the previous owner recorded by the most recent entry.
+   *
+   * @return the owner before the flip
+   * @throws IllegalStateException if the most recent entry is a placement
+   */
+  PlayerColor lastPreviousOwner() {
+    if (placements[size - 1]) {
+      throw new IllegalStateException("Placements have no previous owner");
+    }
+    return COLORS[previousOwners[size - 1]];
+  }
+
+  /**
+   * Drops the most recent entry.
+   */
+  void pop() {
+    size--;
+  }
+
+  /**
+   * Validates a mark previously returned by {@link #size()}.
+   *
+   * @param mark the mark to validate
+   * @throws IllegalArgumentException if the mark is negative or beyond the log
+   */
+  void checkMark(int mark) {
+    if (mark < 0 || mark > size) {
+      throw new IllegalArgumentException("Invalid undo mark: " + mark);
+    }
+  }
+
+  /**
+   * Drops every entry.
+   */
+  void clear() {
+    size = 0;
+  }
+}
@@ -0,0 +1,214 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+/**
+ * Zobrist keys for hashing Three Trios positions.
+ * A position hash is the XOR of a key for the grid layout, one key per card on the
+ * board, one key per card in a hand and a key for the side to move, so it can be
+ * updated incrementally by XOR-ing keys in and out as cards are placed, flipped and
+ * played. The layout key keeps positions on different grids apart even when the same
+ * cards sit on the same cell indices.
+ *
+ * <p>Keys are derived from the grid dimensions, the cell index, the card's identifier
+ * and values and the owner with a fixed mixing function rather than a random table, so
+ * the same position hashes to the same value on every board implementation, in every
+ * game and in every JVM.
+ */
+public final class Zobrist {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final long BOARD_DOMAIN = 1L;
+  private static final long OWNER_DOMAIN = 2L;
+  private static final long HAND_DOMAIN = 3L;
+  private static final long SIDE_DOMAIN = 4L;
+  private static final long SHAPE_DOMAIN = 5L;
+  private static final long HOLE_DOMAIN = 6L;
+  private static final long DECK_DOMAIN = 7L;
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private Zobrist() {
+  }
+
+  /**
+   * Gets the key of a grid layout: its dimensions and which of its cells are holes.
+   * Empty boards start from this key.
+   *
+   * @param grid the grid
+   * @return {@code shapeKey(rows, cols)} XOR the hole key of every hole
+   * @throws IllegalArgumentException if grid is null
+   */
+  public static long layoutKey(Grid grid) {
+    if (grid == null) {
+      throw new IllegalArgumentException("Grid cannot be null");
+    }
+    long key = shapeKey(grid.getTotalRows(), grid.getTotalColumns());
+    for (int cell = 0; cell < grid.getCellCount(); cell++) {
+      if (grid.getCellState(cell) == CellState.HOLE) {
+        key ^= holeKey(cell);
+      }
+    }
+    return key;
+  }
+
+  /**
+   * Gets the key of a board template: a grid layout and the deck played on it. The
+   * key does not depend on how the deck is dealt or on the order of its cards, so
+   * every game started from the same grid and card files has the same key.
+   *
+   * @param grid the grid
+   * @param deck every card in the game
+   * @return the key
+   * @throws IllegalArgumentException if grid or deck is null
+   */
+  public static long templateKey(Grid grid, Iterable<Card> deck) {
+    if (deck == null) {
+      throw new IllegalArgumentException("Deck cannot be null");
+    }
+    // Summed rather than XOR-ed so that two equal cards do not cancel out
+    long cards = 0L;
+    for (Card card : deck) {
+      cards += mix(cardHash(card) ^ salt(DECK_DOMAIN, 0));
+    }
+    return mix(layoutKey(grid) ^ salt(DECK_DOMAIN, 1)) ^ mix(cards);
+  }
+
+  /**
+   * Gets the key of a grid's dimensions.
+   *
+   * @param rows the number of rows
+   * @param cols the number of columns
+   * @return the key
+   */
+  public static long shapeKey(int rows, int cols) {
+    return mix(salt(SHAPE_DOMAIN, (long) rows << 32 | cols));
+  }
+
+  /**
+   * Gets the key of a hole in the grid.
+   *
+   * @param cell the cell index of the hole
+   * @return the key
+   */
+  public static long holeKey(int cell) {
+    return mix(salt(HOLE_DOMAIN, cell));
+  }
+
+  /**
+   * Gets the key of a card on a cell, owned by the given player.
+   * This is {@code placementKey(cell, card) ^ ownerKey(cell, owner)}, so flipping
+   * the card only needs the two owner keys of its cell.
+   *
+   * @param cell the cell index
+   * @param card the card on the cell
+   * @param owner the owner of the card
+   * @return the key
+   */
+  public static long cardKey(int cell, Card card, PlayerColor owner) {
+    return placementKey(cell, card) ^ ownerKey(cell, owner);
+  }
+
+  /**
+   * Gets the ownership-independent part of the key of a card on a cell.
+   *
+   * @param cell the cell index
+   * @param card the card on the cell
+   * @return the key
+   */
+  public static long placementKey(int cell, Card card) {
+    return mix(cardHash(card) ^ salt(BOARD_DOMAIN, cell));
+  }
+
+  /**
+   * Gets the ownership part of the key of a card on a cell.
+   *
+   * @param cell the cell index
+   * @param owner the owner of the card
+   * @return the key
+   */
+  public static long ownerKey(int cell, PlayerColor owner) {
+    return mix(salt(OWNER_DOMAIN, ((long) cell << 1) | owner.ordinal()));
+  }
+
+  /**
+   * Gets the key of a card held in a player's hand.
+   *
+   * @param card the card
+   * @param holder the player holding the card
+   * @return the key
+   */
+  public static long handKey(Card card, PlayerColor holder) {
+    return mix(cardHash(card) ^ salt(HAND_DOMAIN, holder.ordinal()));
+  }
+
+  /**
+   * Gets the key of a card on a cell by its values alone, for hashes that treat cards
+   * with equal values as the same card.
+   *
+   * @param cell the cell index
+   * @param values the card's values, packed one byte per side in direction order
+   * @param owner the owner of the card
+   * @return the key
+   */
+  public static long valuesKey(int cell, int values, PlayerColor owner) {
+    return mix(mix(values) ^ salt(BOARD_DOMAIN, cell)) ^ ownerKey(cell, owner);
+  }
+
+  /**
+   * Gets the key of a card held in a player's hand by its values alone.
+   *
+   * @param values the card's values, packed one byte per side in direction order
+   * @param holder the player holding the card
+   * @return the key
+   */
+  public static long handValuesKey(int values, PlayerColor holder) {
+    return mix(mix(values) ^ salt(HAND_DOMAIN, holder.ordinal()));
+  }
+
+  /**
+   * Gets the key for the player to move.
+   *
+   * @param player the player to move
+   * @return the key
+   */
+  public static long sideKey(PlayerColor player) {
+    return mix(salt(SIDE_DOMAIN, player.ordinal()));
+  }
+
+  /**
+   * Gets the combined key of every card in a hand.
+   *
+   * @param hand the cards in the hand
+   * @param holder the player holding the hand
+   * @return the XOR of the hand keys of the cards
+   */
+  public static long handHash(Iterable<Card> hand, PlayerColor holder) {
+    long hash = 0L;
+    for (Card card : hand) {
+      hash ^= handKey(card, holder);
+    }
+    return hash;
+  }
+
+  /**
+   * Identifiers are unique within a game, and the values are hashed with them so that
+   * decks reusing an identifier for a different card do not share keys.
+   */
+  private static long cardHash(Card card) {
+    long values = 0L;
+    for (Direction direction : DIRECTIONS) {
+      values = values << 8 | card.getValue(direction);
+    }
+    return mix(mix(card.getIdentifier().hashCode()) ^ values);
+  }
+
+  private static long salt(long domain, long value) {
+    return mix((value << 3 | domain) * GOLDEN_GAMMA);
+  }
+
+  /**
+   * SplitMix64 finaliser, which spreads every input bit over the whole output.
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,265 @@
+package io.reflectoring.TriosSpringBoot.service;
+
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+import io.reflectoring.TriosSpringBoot.strategy.Move;
+import io.reflectoring.TriosSpringBoot.strategy.Strategy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Runs AI move searches on a fixed pool of threads, separate from request threads.
+ *
+ * <p>Jobs wait in one bounded queue, ordered by priority class and then by arrival, so a
+ * human waiting for an AI reply is served before queued AI-versus-AI games. Each job has
+ * a deadline, counted from submission, which is passed to the strategy so that its
+ * search stops by it; a job that is still queued at its deadline, or whose strategy
+ * fails, plays the fallback strategy's move instead. A job submitted while the queue is
+ * full, or after the scheduler is closed, is not queued: the fallback move is chosen on
+ * the submitting thread straight away. Every job that runs or is turned away hands a
+ * move, or null, to its callback exactly once, even if the fallback fails; jobs still
+ * queued when the scheduler closes are dropped.
+ */
+public class AIMoveScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AIMoveScheduler.class);
+
+    /**
+     * Priority classes of AI moves, from most to least urgent.
+     */
+    public enum Priority {
+        /** A move a human player is waiting for. */
+        INTERACTIVE,
+        /** A move in a game between AI players. */
+        BULK
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final Strategy fallback;
+    private final Map<Priority, Long> deadlineNanos = new EnumMap<>(Priority.class);
+    private final Map<Priority, Metrics> metrics = new EnumMap<>(Priority.class);
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Counters of one priority class.
+     */
+    private static final class Metrics {
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder started = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder deadlineMisses = new LongAdder();
+        private final LongAdder rejections = new LongAdder();
+    }
+
+    /**
+     * Creates a scheduler and starts its threads.
+     *
+     * @param threads the number of searches run at once
+     * @param queueCapacity the most jobs waiting at once
+     * @param interactiveDeadlineMillis time from submission to deadline for interactive jobs
+     * @param bulkDeadlineMillis time from submission to deadline for bulk jobs
+     * @param fallback cheap strategy played when a job misses its deadline
+     * @throws IllegalArgumentException if a number is not positive or fallback is null
+     */
+    public AIMoveScheduler(int threads, int queueCapacity, long interactiveDeadlineMillis,
+                           long bulkDeadlineMillis, Strategy fallback) {
+        if (threads <= 0 || queueCapacity <= 0 || interactiveDeadlineMillis <= 0 || bulkDeadlineMillis <= 0) {
+            throw new IllegalArgumentException("Threads, queue capacity and deadlines must be positive");
+        }
+        if (fallback == null) {
+            throw new IllegalArgumentException("Fallback strategy cannot be null");
+        }
+        this.queueCapacity = queueCapacity;
+        this.fallback = fallback;
+        deadlineNanos.put(Priority.INTERACTIVE, TimeUnit.MILLISECONDS.toNanos(interactiveDeadlineMillis));
+        deadlineNanos.put(Priority.BULK, TimeUnit.MILLISECONDS.toNanos(bulkDeadlineMillis));
+        for (var priority : Priority.values()) {
+            metrics.put(priority, new Metrics());
+        }
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), new CustomizableThreadFactory("ai-move-"));
+    }
+
+    /**
+     * Queues the search for a move. The move is handed to the callback on a scheduler
+     * thread, or on the calling thread if the queue is full or the scheduler is closed;
+     * it is null only if neither the strategy nor the fallback found a move.
+     *
+     * @param priority the priority class of the move
+     * @param model a copy of the position to search, read by the search and the fallback
+     *        on scheduler threads, so it must not be the live game or be changed by anyone
+     * @param player the player to move
+     * @param strategy the player's strategy
+     * @param onMove receives the chosen move
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public void submit(Priority priority, ReadOnlyThreeTriosModel model, PlayerColor player,
+                       Strategy strategy, Consumer<Move> onMove) {
+        if (priority == null || model == null || player == null || strategy == null || onMove == null) {
+            throw new IllegalArgumentException("Parameters cannot be null");
+        }
+        var job = new Job(priority, sequence.getAndIncrement(), System.nanoTime(),
+                model, player, strategy, onMove);
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            metrics.get(priority).rejections.increment();
+            logger.warn("AI queue full; {} move for {} falls back", priority, player);
+            job.complete(null);
+            return;
+        }
+        metrics.get(priority).queued.incrementAndGet();
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            metrics.get(priority).queued.decrementAndGet();
+            metrics.get(priority).rejections.increment();
+            logger.warn("AI scheduler closed; {} move for {} falls back", priority, player);
+            job.complete(null);
+        }
+    }
+
+    /**
+     * A queued search, ordered by priority class and then by submission.
+     */
+    private final class Job implements Runnable, Comparable<Job> {
+        private final Priority priority;
+        private final long sequence;
+        private final long submitted;
+        private final ReadOnlyThreeTriosModel model;
+        private final PlayerColor player;
+        private final Strategy strategy;
+        private final Consumer<Move> onMove;
+
+        private Job(Priority priority, long sequence, long submitted, ReadOnlyThreeTriosModel model,
+                    PlayerColor player, Strategy strategy, Consumer<Move> onMove) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.submitted = submitted;
+            this.model = model;
+            this.player = player;
+            this.strategy = strategy;
+            this.onMove = onMove;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            var byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public void run() {
+            var jobMetrics = metrics.get(priority);
+            queued.decrementAndGet();
+            jobMetrics.queued.decrementAndGet();
+            var start = System.nanoTime();
+            jobMetrics.started.increment();
+            jobMetrics.waitNanos.add(start - submitted);
+
+            var deadline = submitted + deadlineNanos.get(priority);
+            Move move = null;
+            if (start - deadline < 0) {
+                try {
+                    move = strategy.chooseMove(model, player, deadline);
+                } catch (RuntimeException e) {
+                    logger.error("AI strategy failed for {}: {}", player, e.getMessage(), e);
+                }
+            } else {
+                jobMetrics.deadlineMisses.increment();
+            }
+            complete(move);
+        }
+
+        /**
+         * Hands the move to the callback, choosing the fallback move first if there is no
+         * move. The callback runs even if the fallback fails, with a null move.
+         */
+        private void complete(Move move) {
+            if (move == null) {
+                try {
+                    move = fallback.chooseMove(model, player);
+                } catch (RuntimeException e) {
+                    logger.error("AI fallback failed for {}: {}", player, e.getMessage(), e);
+                }
+            }
+            try {
+                onMove.accept(move);
+            } catch (RuntimeException e) {
+                logger.error("AI move callback failed for {}: {}", player, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of jobs waiting in a priority class.
+     *
+     * @param priority the priority class
+     * @return the queue depth
+     */
+    public int getQueueDepth(Priority priority) {
+        return metrics.get(priority).queued.get();
+    }
+
+    /**
+     * Gets the number of jobs of a priority class that have left the queue.
+     *
+     * @param priority the priority class
+     * @return the count of started jobs
+     */
+    public long getStarted(Priority priority) {
+        return metrics.get(priority).started.sum();
+    }
+
+    /**
+     * Gets the total time started jobs of a priority class spent in the queue.
+     *
+     * @param priority the priority class
+     * @return the total wait in nanoseconds
+     */
+    public long getWaitNanos(Priority priority) {
+        return metrics.get(priority).waitNanos.sum();
+    }
+
+    /**
+     * Gets the number of jobs of a priority class that waited in the queue past their
+     * deadline and played the fallback move without searching.
+     *
+     * @param priority the priority class
+     * @return the deadline miss count
+     */
+    public long getDeadlineMisses(Priority priority) {
+        return metrics.get(priority).deadlineMisses.sum();
+    }
+
+    /**
+     * Gets the number of jobs of a priority class turned away because the queue was full
+     * or the scheduler was closed.
+     *
+     * @param priority the priority class
+     * @return the rejection count
+     */
+    public long getRejections(Priority priority) {
+        return metrics.get(priority).rejections.sum();
+    }
+
+    /**
+     * Stops the threads, abandoning queued jobs.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+package io.reflectoring.TriosSpringBoot.service;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Queue of the actions on one game, run one at a time in submission order.
+ *
+ * <p>The game model is not thread-safe, so every action that reads or changes it goes
+ * through the game's mailbox. Mailboxes share one executor but hold none of its threads
+ * while empty, so actions on one game never overlap while different games run in
+ * parallel. A busy mailbox gives its thread back after a batch of actions, so one game
+ * cannot starve the others.
+ */
+public class GameMailbox {
+    private static final int BATCH = 16;
+
+    private final Executor executor;
+    private final Queue<Runnable> actions = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Creates an empty mailbox.
+     *
+     * @param executor runs the mailbox's actions, shared with other mailboxes
+     * @throws IllegalArgumentException if executor is null
+     */
+    public GameMailbox(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Queues an action after every action submitted before it.
+     *
+     * @param action the action, which may throw to fail the future
+     * @return completes with the action's result once it has run
+     * @throws IllegalArgumentException if action is null
+     * @throws RejectedExecutionException if the executor has shut down
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        var result = new CompletableFuture<T>();
+        actions.add(() -> {
+            try {
+                result.complete(action.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        schedule();
+        return result;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < BATCH; i++) {
+            var action = actions.poll();
+            if (action == null) {
+                break;
+            }
+            action.run();
+        }
+        scheduled.set(false);
+        if (!actions.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package io.reflectoring.TriosSpringBoot.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import io.reflectoring.TriosSpringBoot.entity.Game;
 import io.reflectoring.TriosSpringBoot.entity.Player;
 import io.reflectoring.TriosSpringBoot.model.*;
 import io.reflectoring.TriosSpringBoot.repository.GameRepository;
 import io.reflectoring.TriosSpringBoot.repository.PlayerRepository;
+import io.reflectoring.TriosSpringBoot.strategy.Move;
+import io.reflectoring.TriosSpringBoot.strategy.StrategyFactory;
 import io.reflectoring.TriosSpringBoot.view.dto.*;
 import io.reflectoring.TriosSpringBoot.exception.*;
 import org.springframework.stereotype.Service;
@@ -16,8 +27,19 @@ import java.util.*;
 
 @Service
 public class GameService {
+    private static final Logger logger = LoggerFactory.getLogger(GameService.class);
+
     private record PlayerHandUpdate(String color, String playerType) {}
 
+    /**
+     * A game in play, the mailbox every change to it goes through and the snapshot of its
+     * state after the last change. Only the mailbox touches the model; readers take the
+     * snapshot, which each move replaces whole once the move and its combos are applied,
+     * so reads never wait for a move and never see one half done.
+     */
+    private record ActiveGame(Long id, ThreeTriosModel model, GameMailbox mailbox,
+                              AtomicReference<GameStateDTO> snapshot) {}
+
     private sealed interface GameAction permits CreateGame, PlayMove, CancelMove {
         GameStateDTO execute(ThreeTriosModel model);
     }
@@ -48,19 +70,39 @@ public class GameService {
 
     private final GameRepository gameRepository;
     private final PlayerRepository playerRepository;
+    private final StrategyFactory strategyFactory;
     private final ObjectMapper objectMapper;
-    private final Map<Long, ThreeTriosModel> activeGames;
-
-    public GameService(GameRepository gameRepository, PlayerRepository playerRepository) {
+    private final Map<Long, ActiveGame> activeGames;
+    private final Executor mailboxExecutor;
+    private final AIMoveScheduler aiMoveScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public GameService(GameRepository gameRepository, PlayerRepository playerRepository,
+                       StrategyFactory strategyFactory, Executor mailboxExecutor,
+                       AIMoveScheduler aiMoveScheduler, TransactionTemplate transactionTemplate,
+                       ApplicationEventPublisher eventPublisher) {
         this.gameRepository = gameRepository;
         this.playerRepository = playerRepository;
+        this.strategyFactory = strategyFactory;
         this.objectMapper = new ObjectMapper();
         this.activeGames = new ConcurrentHashMap<>();
+        this.mailboxExecutor = mailboxExecutor;
+        this.aiMoveScheduler = aiMoveScheduler;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public Game createGame(String gridConfig, String cardConfig, String redPlayerType, String bluePlayerType) {
-        var gameModel = new AIThreeTriosGame();
+        return createGame(gridConfig, cardConfig, redPlayerType, bluePlayerType, BoardType.STANDARD);
+    }
+
+    @Transactional
+    public Game createGame(String gridConfig, String cardConfig, String redPlayerType, String bluePlayerType,
+                           BoardType boardType) {
+        var gameModel = new AIThreeTriosGame(strategyFactory);
+        gameModel.setBoardType(boardType);
         gameModel.initializeGameFromFiles(gridConfig, cardConfig);
 
         var action = new CreateGame(redPlayerType, bluePlayerType);
@@ -76,8 +118,14 @@ public class GameService {
 
         game = gameRepository.save(game);
         createPlayers(game, redPlayerType, bluePlayerType);
-        activeGames.put(game.getId(), gameModel);
+        var activeGame = new ActiveGame(game.getId(), gameModel, new GameMailbox(mailboxExecutor),
+                new AtomicReference<>(convertToGameStateDTO(gameModel, game.getId(), 0)));
+        activeGames.put(game.getId(), activeGame);
 
+        afterCommit(() -> activeGame.mailbox().submit(() -> {
+            scheduleAIMove(activeGame);
+            return null;
+        }));
         return game;
     }
 
@@ -100,54 +148,133 @@ public class GameService {
         playerRepository.save(player);
     }
 
-    @Transactional
-    public GameStateDTO playCard(Long gameId, String playerColor, String cardId, CoordinateDTO position) {
-        var gameModel = getGameModel(gameId);
+    /**
+     * Queues a human move. Moves on one game are applied one at a time in the order they
+     * arrive, while moves on different games are applied in parallel.
+     *
+     * @return completes with the state after the move, or fails with an
+     *         {@link InvalidMoveException} if the move is not allowed when its turn comes
+     * @throws GameNotFoundException if the game is not active
+     */
+    public CompletableFuture<GameStateDTO> playCard(Long gameId, String playerColor, String cardId,
+                                                    CoordinateDTO position) {
+        var game = getActiveGame(gameId);
         var currentPlayer = PlayerColor.valueOf(playerColor);
-
-        if (gameModel.getCurrentPlayerColor() != currentPlayer) {
-            throw new InvalidMoveException("Not your turn");
-        }
-
-        var cardToPlay = findCardInHand(gameModel, currentPlayer, cardId);
         var gamePosition = new GameCoordinate(position.row(), position.col());
 
-        var action = new PlayMove(currentPlayer, cardToPlay, gamePosition);
-        action.execute(gameModel);
-
-        updateGameState(gameId, gameModel);
-        checkAndExecuteAIMove(gameId);
+        return game.mailbox().submit(() -> {
+            var gameModel = game.model();
+            // The AI player's move is being searched on a copy and will be played through this mailbox
+            if (gameModel instanceof AIThreeTriosGame aiGame && aiGame.isAITurn()) {
+                throw new InvalidMoveException("Not your turn: waiting for the AI player");
+            }
+            if (gameModel.getCurrentPlayerColor() != currentPlayer) {
+                throw new InvalidMoveException("Not your turn");
+            }
+            var cardToPlay = findCardInHand(gameModel, currentPlayer, cardId);
 
-        return convertToGameStateDTO(gameModel, gameId);
+            var action = new PlayMove(currentPlayer, cardToPlay, gamePosition);
+            action.execute(gameModel);
+            return saveAndPublish(game);
+        });
     }
 
-    private void checkAndExecuteAIMove(Long gameId) {
-        var gameModel = getGameModel(gameId);
-        var game = findGame(gameId);
+    /**
+     * Runs an action once the current transaction has committed, so that background
+     * work and listeners see what it saved, or right away outside a transaction.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 
-        var currentPlayer = playerRepository.findByGameId(gameId)
-                .stream()
-                .filter(p -> p.getColor().equals(gameModel.getCurrentPlayerColor().name()))
-                .findFirst()
-                .orElseThrow(() -> new GameNotFoundException("Player not found"));
+    /**
+     * Saves a game after a move, publishes its new state and queues the AI reply, if any.
+     * Runs in the game's mailbox. The move is already applied to the model, so the state
+     * is published and the game goes on even if the save fails; the next save stores the
+     * whole state again. The save failure is still rethrown to the caller.
+     */
+    private GameStateDTO saveAndPublish(ActiveGame game) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> updateGameState(game.id(), game.model()));
+        } finally {
+            var version = game.snapshot().get().version() + 1;
+            game.snapshot().set(convertToGameStateDTO(game.model(), game.id(), version));
+            scheduleAIMove(game);
+            eventPublisher.publishEvent(new GameStateChangedEvent(game.id(), game.snapshot().get()));
+        }
+        return game.snapshot().get();
+    }
 
-        if (currentPlayer.getPlayerType().equals("AI") &&
-                gameModel.getGameState() == GameState.WAITING_FOR_MOVE) {
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+    /**
+     * Queues the next AI move of a game, if an AI player is to move. AI moves are searched
+     * by the AI scheduler, never on the request thread that made the move before them, and
+     * each move queues the next, so AI-versus-AI games hold no request thread or connection
+     * between moves. Runs in the game's mailbox, which takes a copy of the position for the
+     * search, so the search never reads the live model; human moves are turned away until
+     * the AI player's move is applied through the mailbox.
+     */
+    private void scheduleAIMove(ActiveGame game) {
+        if (!(game.model() instanceof AIThreeTriosGame aiGame) || !aiGame.isAITurn()) {
+            return;
+        }
+        var player = aiGame.getCurrentPlayerColor();
+        var aiPlayer = (AICapable) aiGame.getCurrentPlayer();
+        var priority = aiGame.hasHumanPlayer()
+                ? AIMoveScheduler.Priority.INTERACTIVE : AIMoveScheduler.Priority.BULK;
+        var searched = aiGame.getPositionHash();
+        aiMoveScheduler.submit(priority, aiGame.simulate(), player, aiPlayer.getStrategy(),
+                move -> game.mailbox().submit(() -> playAIMove(game, aiGame, player, searched, move)));
+    }
 
-            var modelPlayer = ((AIThreeTriosGame) gameModel).getCurrentPlayer();
-            if (modelPlayer instanceof AICapable aiPlayer) {
-                aiPlayer.makeMove();
-            } else {
-                throw new IllegalStateException("Current player is marked as AI but does not implement AICapable");
-            }
+    /**
+     * Plays an AI move that came back from the scheduler. Runs in the game's mailbox, and
+     * drops the move unless the game is still in the position it was searched from. If the
+     * scheduler had no move, or the move cannot be played, the AI player plays its first
+     * legal move instead, so the game never stays in an AI turn that nothing will end.
+     */
+    private GameStateDTO playAIMove(ActiveGame game, AIThreeTriosGame gameModel, PlayerColor player,
+                                    long searched, Move move) {
+        if (!gameModel.isAITurn() || gameModel.getCurrentPlayerColor() != player
+                || gameModel.getPositionHash() != searched) {
+            logger.warn("Dropped a stale AI move for {} in game {}", player, game.id());
+            return null;
+        }
+        if (move == null) {
+            logger.error("AI player {} found no move in game {}, playing its first legal move", player, game.id());
+            move = firstLegalMove(gameModel, player);
+        }
+        try {
+            new PlayMove(player, move.getCard(), move.getPosition()).execute(gameModel);
+        } catch (RuntimeException e) {
+            logger.error("AI player {} chose an illegal move in game {}, playing its first legal move",
+                    player, game.id(), e);
+            move = firstLegalMove(gameModel, player);
+            new PlayMove(player, move.getCard(), move.getPosition()).execute(gameModel);
+        }
+        try {
+            return saveAndPublish(game);
+        } catch (RuntimeException e) {
+            logger.error("AI move was played but not saved in game {}: {}", game.id(), e.getMessage(), e);
+            return game.snapshot().get();
+        }
+    }
 
-            updateGameState(gameId, gameModel);
+    private Move firstLegalMove(ThreeTriosModel model, PlayerColor player) {
+        var board = model.getBoard();
+        var cell = board.nextEmptyCell(0);
+        if (cell < 0 || model.getPlayerHand(player).isEmpty()) {
+            throw new IllegalStateException("No legal move for " + player);
         }
+        return new Move(model.getPlayerHand(player).get(0), board.getGrid().getCoordinate(cell), 0);
     }
 
     private void updateGameState(Long gameId, ThreeTriosModel gameModel) {
@@ -180,9 +307,11 @@ public class GameService {
         }
     }
 
-    private GameStateDTO convertToGameStateDTO(ThreeTriosModel model, Long gameId) {
+    private GameStateDTO convertToGameStateDTO(ThreeTriosModel model, Long gameId, long version) {
         var board = model.getBoard();
         var boardState = createBoardState(board);
+        var scores = model.getScoreSnapshot();
+        var winner = model.getGameState() == GameState.GAME_OVER ? scores.getLeader() : null;
 
         return new GameStateDTO(
                 String.valueOf(gameId),
@@ -190,15 +319,16 @@ public class GameService {
                 model.getCurrentPlayerColor(),
                 boardState,
                 model.getPlayerHand(PlayerColor.RED).stream()
-                        .map(this::convertToCardDTO)
+                        .map(card -> convertToCardDTO(card, PlayerColor.RED))
                         .toList(),
                 model.getPlayerHand(PlayerColor.BLUE).stream()
-                        .map(this::convertToCardDTO)
+                        .map(card -> convertToCardDTO(card, PlayerColor.BLUE))
                         .toList(),
-                model.getScore(PlayerColor.RED),
-                model.getScore(PlayerColor.BLUE),
-                model.getGameState() == GameState.GAME_OVER ? model.getWinner().name() : null,
-                null
+                scores.getScore(PlayerColor.RED),
+                scores.getScore(PlayerColor.BLUE),
+                winner != null ? winner.name() : null,
+                null,
+                version
         );
     }
 
@@ -210,13 +340,26 @@ public class GameService {
         for (int i = 0; i < rows; i++) {
             var row = new ArrayList<CellDTO>();
             for (int j = 0; j < cols; j++) {
-                var pos = new GameCoordinate(i, j);
+                var pos = board.getGrid().getCoordinate(i, j);
                 row.add(createCellDTO(board, pos));
             }
-            cells.add(row);
+            cells.add(List.copyOf(row));
         }
 
-        return new BoardState(rows, cols, cells, Collections.emptyList(), Collections.emptyList().toString());
+        return new BoardState(rows, cols, List.copyOf(cells), createValidMoves(board), Collections.emptyList().toString());
+    }
+
+    private List<List<Boolean>> createValidMoves(Board board) {
+        var grid = board.getGrid();
+        var validMoves = new ArrayList<List<Boolean>>(grid.getTotalRows());
+        for (int i = 0; i < grid.getTotalRows(); i++) {
+            validMoves.add(new ArrayList<>(Collections.nCopies(grid.getTotalColumns(), Boolean.FALSE)));
+        }
+        for (int index = board.nextEmptyCell(0); index >= 0; index = board.nextEmptyCell(index + 1)) {
+            var pos = grid.getCoordinate(index);
+            validMoves.get(pos.getRow()).set(pos.getCol(), Boolean.TRUE);
+        }
+        return validMoves.stream().map(List::copyOf).toList();
     }
 
     private CellDTO createCellDTO(Board board, Coordinate pos) {
@@ -225,7 +368,7 @@ public class GameService {
             case HOLE -> new CellDTO("HOLE", null, false, pos.getRow() + "," + pos.getCol());
             case OCCUPIED -> {
                 var card = board.getCardAt(pos);
-                yield new CellDTO("CARD", convertToCardDTO(card), false,
+                yield new CellDTO("CARD", convertToCardDTO(card, board.getOwnerAt(pos)), false,
                         pos.getRow() + "," + pos.getCol());
             }
             case AVAILABLE -> new CellDTO("EMPTY", null, board.canPlaceCard(pos),
@@ -233,7 +376,7 @@ public class GameService {
         };
     }
 
-    private CardDTO convertToCardDTO(Card card) {
+    private CardDTO convertToCardDTO(Card card, PlayerColor owner) {
         var values = Map.of(
                 "NORTH", card.getValue(Direction.NORTH),
                 "SOUTH", card.getValue(Direction.SOUTH),
@@ -243,12 +386,12 @@ public class GameService {
 
         return new CardDTO(
                 card.getIdentifier(),
-                card.getOwner().getColor().name(),
+                owner.name(),
                 values
         );
     }
 
-    private ThreeTriosModel getGameModel(Long gameId) {
+    private ActiveGame getActiveGame(Long gameId) {
         return Optional.ofNullable(activeGames.get(gameId))
                 .orElseThrow(() -> new GameNotFoundException("Game not found: " + gameId));
     }
@@ -258,8 +401,14 @@ public class GameService {
                 .orElseThrow(() -> new GameNotFoundException("Game not found: " + gameId));
     }
 
+    /**
+     * Gets the state of a game after its last applied move, without waiting for a move
+     * in progress.
+     *
+     * @throws GameNotFoundException if the game is not active
+     */
     public GameStateDTO getGameState(Long gameId) {
-        return convertToGameStateDTO(getGameModel(gameId), gameId);
+        return getActiveGame(gameId).snapshot().get();
     }
 
     public List<GameResponseDTO> listActiveGames() {
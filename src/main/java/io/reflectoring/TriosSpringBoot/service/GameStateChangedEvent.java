@@ -0,0 +1,22 @@
+package io.reflectoring.TriosSpringBoot.service;
+
+import io.reflectoring.TriosSpringBoot.view.dto.GameStateDTO;
+
+/**
+ * Published after a move, human or AI, has been applied to a game and saved.
+ * AI moves are played in the background, so listeners learn of them only through
+ * this event; clients that cannot listen poll the game state instead.
+ */
+public record GameStateChangedEvent(Long gameId, GameStateDTO state) {
+    /**
+     * Creates a new GameStateChangedEvent with validation.
+     */
+    public GameStateChangedEvent {
+        if (gameId == null) {
+            throw new IllegalArgumentException("Game ID cannot be null");
+        }
+        if (state == null) {
+            throw new IllegalArgumentException("State cannot be null");
+        }
+    }
+}
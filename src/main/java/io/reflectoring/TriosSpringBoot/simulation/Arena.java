@@ -0,0 +1,75 @@
+package io.reflectoring.TriosSpringBoot.simulation;
+
+import io.reflectoring.TriosSpringBoot.model.BasicThreeTriosGame;
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.Grid;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A grid and the deck dealt on it, loaded from configuration files, that simulated
+ * games are played in.
+ */
+public final class Arena {
+  private final String name;
+  private final Grid grid;
+  private final List<Card> cards;
+
+  private Arena(String name, Grid grid, List<Card> cards) {
+    this.name = name;
+    this.grid = grid;
+    this.cards = cards;
+  }
+
+  /**
+   * Loads an arena from a grid file and a card file.
+   *
+   * @param gridFile path to the grid configuration file
+   * @param cardFile path to the card configuration file
+   * @return the arena, named after the grid file
+   * @throws IllegalArgumentException if a path is null or the files do not describe a game
+   */
+  public static Arena load(String gridFile, String cardFile) {
+    BasicThreeTriosGame template = new BasicThreeTriosGame();
+    template.initializeGameFromFiles(gridFile, cardFile);
+    List<Card> deck = new ArrayList<>(template.getPlayerHand(PlayerColor.RED));
+    deck.addAll(template.getPlayerHand(PlayerColor.BLUE));
+    // The template deal is random; a fixed deck order makes the seeded deals reproducible
+    deck.sort(Comparator.comparing(Card::getIdentifier));
+
+    String name = gridFile.substring(gridFile.lastIndexOf('/') + 1);
+    if (name.endsWith(".txt")) {
+      name = name.substring(0, name.length() - ".txt".length());
+    }
+    return new Arena(name, template.getBoard().getGrid(), List.copyOf(deck));
+  }
+
+  /**
+   * Gets the name of the arena.
+   *
+   * @return the grid file name without its extension
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the grid games are played on.
+   *
+   * @return the grid; games must play on copies
+   */
+  public Grid getGrid() {
+    return grid;
+  }
+
+  /**
+   * Gets the deck, ordered by card identifier.
+   *
+   * @return the cards dealt in every game
+   */
+  public List<Card> getCards() {
+    return cards;
+  }
+}
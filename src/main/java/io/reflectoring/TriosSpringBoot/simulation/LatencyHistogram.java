@@ -0,0 +1,117 @@
+package io.reflectoring.TriosSpringBoot.simulation;
+
+/**
+ * Counts durations in buckets that are about 6% wide at any scale, so percentiles of
+ * millions of durations can be kept in a fixed, small array and merged between workers.
+ *
+ * <p>Durations below 16 ns have a bucket each. Each power of two above that is split
+ * into 16 equal buckets, and a percentile is reported as the upper edge of its bucket.
+ * Histograms are not thread-safe: each thread records into its own, and they are merged
+ * at the end.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = SUB_BUCKETS * (64 - SUB_BUCKET_BITS);
+
+  private final long[] counts = new long[BUCKETS];
+  private long count;
+  private long totalNanos;
+  private long maxNanos;
+
+  /**
+   * Records a duration.
+   *
+   * @param nanos the duration in nanoseconds; negative durations count as zero
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    counts[bucketOf(value)]++;
+    count++;
+    totalNanos += value;
+    maxNanos = Math.max(maxNanos, value);
+  }
+
+  /**
+   * Adds another histogram's durations to this one.
+   *
+   * @param other the histogram to add
+   */
+  public void merge(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] += other.counts[i];
+    }
+    count += other.count;
+    totalNanos += other.totalNanos;
+    maxNanos = Math.max(maxNanos, other.maxNanos);
+  }
+
+  private static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return SUB_BUCKETS * (exponent - SUB_BUCKET_BITS + 1) + subBucket;
+  }
+
+  private static long upperEdgeOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long subBucket = bucket % SUB_BUCKETS;
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+    return ((SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+  }
+
+  /**
+   * Gets the number of durations recorded.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the mean duration.
+   *
+   * @return the mean in nanoseconds, or NaN if nothing was recorded
+   */
+  public double getMeanNanos() {
+    return (double) totalNanos / count;
+  }
+
+  /**
+   * Gets the longest duration.
+   *
+   * @return the exact maximum in nanoseconds, or 0 if nothing was recorded
+   */
+  public long getMaxNanos() {
+    return maxNanos;
+  }
+
+  /**
+   * Gets a percentile of the durations.
+   *
+   * @param percentile the percentile, from 0 to 100
+   * @return a duration at least as long as the given fraction of durations, at most
+   *         about 6% above it and never above the maximum; 0 if nothing was recorded
+   * @throws IllegalArgumentException if percentile is outside 0 to 100
+   */
+  public long getPercentileNanos(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100");
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(upperEdgeOf(i), maxNanos);
+      }
+    }
+    return maxNanos;
+  }
+}
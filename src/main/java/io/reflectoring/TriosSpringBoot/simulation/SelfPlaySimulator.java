@@ -0,0 +1,209 @@
+package io.reflectoring.TriosSpringBoot.simulation;
+
+import io.reflectoring.TriosSpringBoot.model.BasicThreeTriosGame;
+import io.reflectoring.TriosSpringBoot.model.Board;
+import io.reflectoring.TriosSpringBoot.model.BoardType;
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.GameState;
+import io.reflectoring.TriosSpringBoot.model.Grid;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.strategy.Move;
+import io.reflectoring.TriosSpringBoot.strategy.Strategy;
+import io.reflectoring.TriosSpringBoot.strategy.StrategyFactory;
+import io.reflectoring.TriosSpringBoot.strategy.TranspositionTable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plays batches of AI-versus-AI games without Spring, the database or the delay
+ * between AI moves.
+ * Games follow the rules of an AI game: each player's strategy chooses a move, and
+ * a game in which a strategy fails, returns no move or returns an illegal one is
+ * abandoned.
+ *
+ * <p>Game {@code i} is dealt from a seed derived from the batch seed and {@code i / 2},
+ * and strategy A plays red in even games and blue in odd ones, so every deal is
+ * played once from each side and a batch is reproducible however its games are
+ * scheduled. Each game gets fresh strategies from the suppliers, as it would from
+ * a strategy factory, and workers keep their own report until the batch ends.
+ *
+ * <p>Usage: {@code SelfPlaySimulator games strategyA strategyB [gridFile cardFile
+ * [threads [seed [timeBudgetMillis]]]]}. Strategies are AI player types of
+ * {@link StrategyFactory}; paths default to the 5x5 configuration.
+ */
+public final class SelfPlaySimulator {
+  private static final Logger logger = LoggerFactory.getLogger(SelfPlaySimulator.class);
+  private static final String DEFAULT_GRID =
+          "src/main/resources/config/5x5BoardConnectedCardCells.txt";
+  private static final String DEFAULT_CARDS =
+          "src/main/resources/config/CompleteCardSet.txt";
+  private static final long DEFAULT_TIME_BUDGET_MILLIS = 50;
+  private static final long TABLE_BYTES = 64L * 1024 * 1024;
+  private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final int CHUNK = 64;
+
+  private final Grid grid;
+  private final List<Card> cards;
+  private final BoardType boardType;
+  private final Supplier<Strategy> strategyA;
+  private final Supplier<Strategy> strategyB;
+
+  /**
+   * Constructor for the SelfPlaySimulator class.
+   *
+   * @param grid the grid every game is played on; each game plays on a copy
+   * @param cards the cards dealt in every game
+   * @param boardType the board implementation to play on
+   * @param strategyA creates strategy A for each game
+   * @param strategyB creates strategy B for each game
+   * @throws IllegalArgumentException if any parameter is null or the number of cards is odd
+   */
+  public SelfPlaySimulator(Grid grid, List<Card> cards, BoardType boardType,
+                           Supplier<Strategy> strategyA, Supplier<Strategy> strategyB) {
+    if (grid == null || cards == null || boardType == null
+            || strategyA == null || strategyB == null) {
+      throw new IllegalArgumentException("Parameters cannot be null");
+    }
+    if (cards.size() % 2 != 0) {
+      throw new IllegalArgumentException("Number of cards must be even");
+    }
+    this.grid = grid.copy();
+    this.cards = List.copyOf(cards);
+    this.boardType = boardType;
+    this.strategyA = strategyA;
+    this.strategyB = strategyB;
+  }
+
+  /**
+   * Runs the simulator from the command line and prints its report.
+   *
+   * @param args number of games, strategy A, strategy B, then optionally grid file,
+   *        card file, threads, seed and time budget per move
+   */
+  public static void main(String[] args) {
+    if (args.length < 3) {
+      System.err.println("Usage: SelfPlaySimulator games strategyA strategyB "
+              + "[gridFile cardFile [threads [seed [timeBudgetMillis]]]]");
+      System.exit(2);
+    }
+    long games = Long.parseLong(args[0]);
+    String typeA = args[1];
+    String typeB = args[2];
+    String gridFile = args.length >= 5 ? args[3] : DEFAULT_GRID;
+    String cardFile = args.length >= 5 ? args[4] : DEFAULT_CARDS;
+    int threads = args.length >= 6 ? Integer.parseInt(args[5])
+            : Runtime.getRuntime().availableProcessors();
+    long seed = args.length >= 7 ? Long.parseLong(args[6]) : System.nanoTime();
+    long budget = args.length >= 8 ? Long.parseLong(args[7]) : DEFAULT_TIME_BUDGET_MILLIS;
+
+    Arena arena = Arena.load(gridFile, cardFile);
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    StrategyFactory factory = StrategyFactory.builder()
+            .transpositionTable(new TranspositionTable(TABLE_BYTES))
+            .searchTimeBudgetMillis(budget)
+            .searchPool(pool)
+            .build();
+    SelfPlaySimulator simulator = new SelfPlaySimulator(arena.getGrid(), arena.getCards(),
+            BoardType.BITBOARD, () -> factory.createStrategy(typeA),
+            () -> factory.createStrategy(typeB));
+    try {
+      System.out.printf("%s vs %s on %s with %s, %d threads, seed %d%n",
+              typeA, typeB, gridFile, cardFile, threads, seed);
+      simulator.run(games, seed, pool).print(System.out, typeA, typeB);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Plays a batch of games.
+   *
+   * @param games the number of games to play
+   * @param seed seed the deals are derived from
+   * @param pool the pool to play on, one game per worker thread at a time
+   * @return the merged report of every game
+   * @throws IllegalArgumentException if games is negative or pool is null
+   */
+  public SimulationReport run(long games, long seed, ForkJoinPool pool) {
+    if (games < 0) {
+      throw new IllegalArgumentException("Number of games cannot be negative");
+    }
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool cannot be null");
+    }
+    long startTime = System.nanoTime();
+    AtomicLong nextGame = new AtomicLong();
+    List<ForkJoinTask<SimulationReport>> workers = new ArrayList<>();
+    for (int i = 0; i < pool.getParallelism(); i++) {
+      workers.add(pool.submit(() -> playChunks(nextGame, games, seed)));
+    }
+
+    SimulationReport report = new SimulationReport(cards.size());
+    for (ForkJoinTask<SimulationReport> worker : workers) {
+      report.merge(worker.join());
+    }
+    report.setElapsedNanos(System.nanoTime() - startTime);
+    return report;
+  }
+
+  /**
+   * Claims chunks of game numbers until the batch is done.
+   */
+  private SimulationReport playChunks(AtomicLong nextGame, long games, long seed) {
+    SimulationReport report = new SimulationReport(cards.size());
+    for (long first = nextGame.getAndAdd(CHUNK); first < games;
+         first = nextGame.getAndAdd(CHUNK)) {
+      long last = Math.min(games, first + CHUNK);
+      for (long game = first; game < last; game++) {
+        play(game, seed, report);
+      }
+    }
+    return report;
+  }
+
+  private void play(long gameNumber, long seed, SimulationReport report) {
+    boolean aIsRed = gameNumber % 2 == 0;
+    BasicThreeTriosGame game = new BasicThreeTriosGame();
+    game.setBoardType(boardType);
+    game.initializeGame(grid.copy(), cards, seed + (gameNumber / 2 + 1) * SEED_GAMMA);
+    game.startGame();
+
+    Strategy a = strategyA.get();
+    Strategy b = strategyB.get();
+    PlayerColor colorA = aIsRed ? PlayerColor.RED : PlayerColor.BLUE;
+    while (game.getGameState() != GameState.GAME_OVER) {
+      PlayerColor player = game.getCurrentPlayerColor();
+      boolean byA = player == colorA;
+      Move move;
+      long startTime = System.nanoTime();
+      try {
+        move = (byA ? a : b).chooseMove(game, player);
+      } catch (RuntimeException e) {
+        logger.warn("Strategy failed in game {}: {}", gameNumber, e.getMessage(), e);
+        move = null;
+      }
+      report.recordDecision(byA, System.nanoTime() - startTime);
+      if (!isLegal(game, player, move)) {
+        report.recordFailure();
+        return;
+      }
+      game.playCard(move.getCard(), move.getPosition());
+    }
+    report.recordGame(game.getScore(colorA), game.getScore(colorA.getOpponentColor()), aIsRed);
+  }
+
+  private static boolean isLegal(BasicThreeTriosGame game, PlayerColor player, Move move) {
+    if (move == null || !game.getPlayerHand(player).contains(move.getCard())) {
+      return false;
+    }
+    Board board = game.getBoard();
+    return board.getGrid().isValidPosition(move.getPosition())
+            && board.canPlaceCard(move.getPosition());
+  }
+}
@@ -0,0 +1,319 @@
+package io.reflectoring.TriosSpringBoot.simulation;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Results of a batch of self-play games between two strategies, A and B.
+ * Reports are built per worker and merged, so recording a game needs no locking.
+ */
+public final class SimulationReport {
+  private final long[] scoreCountsA;
+  private final long[] marginCounts;
+  private final LatencyHistogram decisionTimesA = new LatencyHistogram();
+  private final LatencyHistogram decisionTimesB = new LatencyHistogram();
+  private final int maxScore;
+  private long games;
+  private long failures;
+  private long winsA;
+  private long winsB;
+  private long draws;
+  private long gamesAsRed;
+  private long winsAsRed;
+  private long elapsedNanos;
+
+  /**
+   * Creates an empty report.
+   *
+   * @param maxScore the highest score a player can reach, which is the number of cards
+   * @throws IllegalArgumentException if maxScore is negative
+   */
+  public SimulationReport(int maxScore) {
+    if (maxScore < 0) {
+      throw new IllegalArgumentException("Max score cannot be negative");
+    }
+    this.maxScore = maxScore;
+    this.scoreCountsA = new long[maxScore + 1];
+    this.marginCounts = new long[2 * maxScore + 1];
+  }
+
+  /**
+   * Records a finished game.
+   *
+   * @param scoreA A's final score
+   * @param scoreB B's final score
+   * @param aWasRed whether A played red
+   * @throws IllegalArgumentException if a score is negative or above the max score
+   */
+  void recordGame(int scoreA, int scoreB, boolean aWasRed) {
+    if (scoreA < 0 || scoreA > maxScore || scoreB < 0 || scoreB > maxScore) {
+      throw new IllegalArgumentException("Score out of range: " + scoreA + " to " + scoreB);
+    }
+    games++;
+    scoreCountsA[scoreA]++;
+    marginCounts[scoreA - scoreB + maxScore]++;
+    if (aWasRed) {
+      gamesAsRed++;
+    }
+    if (scoreA > scoreB) {
+      winsA++;
+      if (aWasRed) {
+        winsAsRed++;
+      }
+    } else if (scoreB > scoreA) {
+      winsB++;
+      if (!aWasRed) {
+        winsAsRed++;
+      }
+    } else {
+      draws++;
+    }
+  }
+
+  /**
+   * Records a game that was abandoned because a strategy returned no move or an
+   * illegal one.
+   */
+  void recordFailure() {
+    failures++;
+  }
+
+  /**
+   * Records how long a strategy took to choose a move.
+   *
+   * @param byA whether A chose the move
+   * @param nanos the time taken in nanoseconds
+   */
+  void recordDecision(boolean byA, long nanos) {
+    (byA ? decisionTimesA : decisionTimesB).record(nanos);
+  }
+
+  void setElapsedNanos(long elapsedNanos) {
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Adds another report's games to this one.
+   *
+   * @param other a report over the same cards
+   * @throws IllegalArgumentException if the reports have different max scores
+   */
+  void merge(SimulationReport other) {
+    if (other.maxScore != maxScore) {
+      throw new IllegalArgumentException("Reports have different max scores");
+    }
+    games += other.games;
+    failures += other.failures;
+    winsA += other.winsA;
+    winsB += other.winsB;
+    draws += other.draws;
+    gamesAsRed += other.gamesAsRed;
+    winsAsRed += other.winsAsRed;
+    for (int i = 0; i < scoreCountsA.length; i++) {
+      scoreCountsA[i] += other.scoreCountsA[i];
+    }
+    for (int i = 0; i < marginCounts.length; i++) {
+      marginCounts[i] += other.marginCounts[i];
+    }
+    decisionTimesA.merge(other.decisionTimesA);
+    decisionTimesB.merge(other.decisionTimesB);
+  }
+
+  /**
+   * Gets the number of finished games.
+   *
+   * @return the game count, without failures
+   */
+  public long getGames() {
+    return games;
+  }
+
+  /**
+   * Gets the number of abandoned games.
+   *
+   * @return the failure count
+   */
+  public long getFailures() {
+    return failures;
+  }
+
+  /**
+   * Gets the number of finished games A won.
+   *
+   * @return the win count
+   */
+  public long getWinsA() {
+    return winsA;
+  }
+
+  /**
+   * Gets the number of finished games B won.
+   *
+   * @return the win count
+   */
+  public long getWinsB() {
+    return winsB;
+  }
+
+  /**
+   * Gets the number of finished games that ended in a draw.
+   *
+   * @return the draw count
+   */
+  public long getDraws() {
+    return draws;
+  }
+
+  /**
+   * Gets the number of finished games won by whichever strategy played red.
+   *
+   * @return the red win count
+   */
+  public long getWinsAsRed() {
+    return winsAsRed;
+  }
+
+  /**
+   * Gets the number of finished games in which A played red.
+   *
+   * @return the game count
+   */
+  public long getGamesAsRed() {
+    return gamesAsRed;
+  }
+
+  /**
+   * Gets the fraction of finished games A won, counting draws as half a win.
+   *
+   * @return the score rate, or NaN if no game finished
+   */
+  public double getScoreRateA() {
+    return (winsA + 0.5 * draws) / games;
+  }
+
+  /**
+   * Gets the Wilson score interval of A's score rate, treating every finished game as
+   * a trial A wins, loses or half wins. Unlike the normal approximation, the interval
+   * stays within 0 and 1 and is usable for lopsided results and few games.
+   *
+   * @param z the standard normal quantile of the confidence level, e.g. 1.96 for 95%
+   * @return the lower and upper bound, or NaN bounds if no game finished
+   * @throws IllegalArgumentException if z is not positive
+   */
+  public double[] getScoreRateIntervalA(double z) {
+    if (z <= 0) {
+      throw new IllegalArgumentException("z must be positive");
+    }
+    double rate = getScoreRateA();
+    double zz = z * z / games;
+    double centre = (rate + zz / 2) / (1 + zz);
+    double halfWidth = z / (1 + zz)
+            * Math.sqrt(rate * (1 - rate) / games + zz / (4.0 * games));
+    return new double[] {centre - halfWidth, centre + halfWidth};
+  }
+
+  /**
+   * Gets how many finished games A ended with each score.
+   *
+   * @return counts indexed by A's final score
+   */
+  public long[] getScoreDistributionA() {
+    return Arrays.copyOf(scoreCountsA, scoreCountsA.length);
+  }
+
+  /**
+   * Gets how many finished games ended with each margin of A's score over B's.
+   *
+   * @return counts indexed by margin plus the max score
+   */
+  public long[] getMarginDistribution() {
+    return Arrays.copyOf(marginCounts, marginCounts.length);
+  }
+
+  /**
+   * Gets A's mean margin over B in finished games.
+   *
+   * @return the mean margin, or NaN if no game finished
+   */
+  public double getMeanMargin() {
+    double sum = 0;
+    for (int i = 0; i < marginCounts.length; i++) {
+      sum += (double) (i - maxScore) * marginCounts[i];
+    }
+    return sum / games;
+  }
+
+  /**
+   * Gets how long A took to choose each move, in finished and abandoned games.
+   *
+   * @return the decision times
+   */
+  public LatencyHistogram getDecisionTimesA() {
+    return decisionTimesA;
+  }
+
+  /**
+   * Gets how long B took to choose each move, in finished and abandoned games.
+   *
+   * @return the decision times
+   */
+  public LatencyHistogram getDecisionTimesB() {
+    return decisionTimesB;
+  }
+
+  /**
+   * Gets the wall-clock time the batch took.
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Gets the throughput of the batch.
+   *
+   * @return finished and abandoned games per second
+   */
+  public double getGamesPerSecond() {
+    return (games + failures) * 1e9 / Math.max(1, elapsedNanos);
+  }
+
+  /**
+   * Prints a summary and the score distributions.
+   *
+   * @param out the stream to print to
+   * @param nameA name of strategy A
+   * @param nameB name of strategy B
+   */
+  public void print(PrintStream out, String nameA, String nameB) {
+    out.printf("%d games (%d failed) in %.2f s, %.0f games/s%n", games, failures,
+            elapsedNanos / 1e9, getGamesPerSecond());
+    out.printf("%s wins %d (%.1f%%), %s wins %d (%.1f%%), draws %d (%.1f%%)%n",
+            nameA, winsA, percent(winsA), nameB, winsB, percent(winsB), draws, percent(draws));
+    out.printf("red wins %d (%.1f%%), mean margin for %s %+.2f%n",
+            winsAsRed, percent(winsAsRed), nameA, getMeanMargin());
+    printDecisionTimes(out, nameA, decisionTimesA);
+    printDecisionTimes(out, nameB, decisionTimesB);
+    out.printf("%-8s %12s %12s%n", "value", nameA + " score", "margin");
+    for (int value = -maxScore; value <= maxScore; value++) {
+      long scores = value >= 0 ? scoreCountsA[value] : 0;
+      long margins = marginCounts[value + maxScore];
+      if (scores != 0 || margins != 0) {
+        out.printf("%-8d %12d %12d%n", value, scores, margins);
+      }
+    }
+  }
+
+  private static void printDecisionTimes(PrintStream out, String name,
+                                         LatencyHistogram times) {
+    out.printf("%s moves %d, ms per move p50 %.3f p90 %.3f p99 %.3f max %.3f%n", name,
+            times.getCount(), times.getPercentileNanos(50) / 1e6,
+            times.getPercentileNanos(90) / 1e6, times.getPercentileNanos(99) / 1e6,
+            times.getMaxNanos() / 1e6);
+  }
+
+  private double percent(long count) {
+    return games == 0 ? 0 : 100.0 * count / games;
+  }
+}
@@ -0,0 +1,149 @@
+package io.reflectoring.TriosSpringBoot.simulation;
+
+import io.reflectoring.TriosSpringBoot.model.BoardType;
+import io.reflectoring.TriosSpringBoot.strategy.StrategyFactory;
+import io.reflectoring.TriosSpringBoot.strategy.TranspositionTable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plays every AI player type against every other in every arena, so that changes to
+ * a strategy can be checked for both strength and decision time before they ship.
+ *
+ * <p>Each match is a {@link SelfPlaySimulator} batch played on the shared pool, so
+ * every deal is played from both sides. Every match uses the same seed, so every
+ * pairing in an arena plays the same deals and a rerun with the same seed replays
+ * the tournament, up to strategies that depend on time or randomness.
+ *
+ * <p>Usage: {@code Tournament gamesPerMatch [threads [seed [timeBudgetMillis
+ * [strategies]]]]}, with strategies as a comma-separated list of AI player types,
+ * by default all of them. The tournament is played in the bundled 3x3 and 5x5
+ * configurations; the 4x4 and 6x6 grids cannot be loaded, as grids must have odd
+ * dimensions.
+ */
+public final class Tournament {
+  private static final Logger logger = LoggerFactory.getLogger(Tournament.class);
+  private static final String[][] BUNDLED_ARENAS = {
+      {"src/main/resources/config/3x3BoardNoHoles.txt",
+          "src/main/resources/config/TenCardSetFor3x3Board.txt"},
+      {"src/main/resources/config/5x5BoardConnectedCardCells.txt",
+          "src/main/resources/config/CompleteCardSet.txt"},
+  };
+  private static final long DEFAULT_TIME_BUDGET_MILLIS = 10;
+  private static final long TABLE_BYTES = 64L * 1024 * 1024;
+
+  private final List<String> strategies;
+  private final List<Arena> arenas;
+  private final StrategyFactory factory;
+  private final BoardType boardType;
+
+  /**
+   * Constructor for the Tournament class.
+   *
+   * @param strategies the AI player types to play, at least two
+   * @param arenas the arenas every pair plays in
+   * @param factory creates the strategy for each player type and game
+   * @param boardType the board implementation to play on
+   * @throws IllegalArgumentException if any parameter is null, fewer than two strategies
+   *         or no arenas are given, or a strategy is not an AI player type of the factory
+   */
+  public Tournament(List<String> strategies, List<Arena> arenas, StrategyFactory factory,
+                    BoardType boardType) {
+    if (strategies == null || arenas == null || factory == null || boardType == null) {
+      throw new IllegalArgumentException("Parameters cannot be null");
+    }
+    if (strategies.size() < 2) {
+      throw new IllegalArgumentException("A tournament needs at least two strategies");
+    }
+    if (arenas.isEmpty()) {
+      throw new IllegalArgumentException("A tournament needs at least one arena");
+    }
+    for (String strategy : strategies) {
+      factory.createStrategy(strategy);
+    }
+    this.strategies = List.copyOf(strategies);
+    this.arenas = List.copyOf(arenas);
+    this.factory = factory;
+    this.boardType = boardType;
+  }
+
+  /**
+   * Runs the tournament from the command line and prints its report.
+   *
+   * @param args games per match, then optionally threads, seed, time budget per move
+   *        and the strategies to play
+   */
+  public static void main(String[] args) {
+    if (args.length < 1) {
+      System.err.println("Usage: Tournament gamesPerMatch "
+              + "[threads [seed [timeBudgetMillis [strategy,strategy,...]]]]");
+      System.exit(2);
+    }
+    long games = Long.parseLong(args[0]);
+    int threads = args.length >= 2 ? Integer.parseInt(args[1])
+            : Runtime.getRuntime().availableProcessors();
+    long seed = args.length >= 3 ? Long.parseLong(args[2]) : System.nanoTime();
+    long budget = args.length >= 4 ? Long.parseLong(args[3]) : DEFAULT_TIME_BUDGET_MILLIS;
+    List<String> strategies = args.length >= 5 ? Arrays.asList(args[4].split(","))
+            : StrategyFactory.AI_PLAYER_TYPES;
+
+    List<Arena> arenas = new ArrayList<>();
+    for (String[] files : BUNDLED_ARENAS) {
+      arenas.add(Arena.load(files[0], files[1]));
+    }
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    StrategyFactory factory = StrategyFactory.builder()
+            .transpositionTable(new TranspositionTable(TABLE_BYTES))
+            .searchTimeBudgetMillis(budget)
+            .searchPool(pool)
+            .build();
+    Tournament tournament = new Tournament(strategies, arenas, factory, BoardType.BITBOARD);
+    try {
+      System.out.printf("%s, %d games per match, %d threads, seed %d, %d ms per move%n",
+              strategies, games, threads, seed, budget);
+      tournament.run(games, seed, pool).print(System.out);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Plays every pair of strategies against each other in every arena.
+   *
+   * @param gamesPerMatch the number of games each pair plays in each arena
+   * @param seed seed the deals of every match are derived from
+   * @param pool the pool to play on
+   * @return the report of every match
+   * @throws IllegalArgumentException if gamesPerMatch is negative or pool is null
+   */
+  public TournamentReport run(long gamesPerMatch, long seed, ForkJoinPool pool) {
+    List<String> arenaNames = new ArrayList<>();
+    for (Arena arena : arenas) {
+      arenaNames.add(arena.getName());
+    }
+    TournamentReport report = new TournamentReport(strategies, arenaNames);
+    long startTime = System.nanoTime();
+    for (int arena = 0; arena < arenas.size(); arena++) {
+      Arena current = arenas.get(arena);
+      for (int a = 0; a < strategies.size(); a++) {
+        for (int b = a + 1; b < strategies.size(); b++) {
+          String typeA = strategies.get(a);
+          String typeB = strategies.get(b);
+          SelfPlaySimulator match = new SelfPlaySimulator(current.getGrid(),
+                  current.getCards(), boardType, () -> factory.createStrategy(typeA),
+                  () -> factory.createStrategy(typeB));
+          SimulationReport result = match.run(gamesPerMatch, seed, pool);
+          logger.info("{} vs {} in {}: {} games in {} ms", typeA, typeB, current.getName(),
+                  result.getGames() + result.getFailures(), result.getElapsedNanos() / 1_000_000);
+          report.addMatch(arena, a, b, result);
+        }
+      }
+    }
+    report.setElapsedNanos(System.nanoTime() - startTime);
+    return report;
+  }
+}
@@ -0,0 +1,224 @@
+package io.reflectoring.TriosSpringBoot.simulation;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Results of a tournament: for every arena, the match between every pair of
+ * strategies, and how long each strategy took to choose its moves.
+ */
+public final class TournamentReport {
+  private static final double Z_95 = 1.959964;
+
+  private final List<String> strategies;
+  private final List<String> arenas;
+  private final SimulationReport[][][] matches;
+  private long elapsedNanos;
+
+  /**
+   * Creates an empty report.
+   *
+   * @param strategies the strategies playing, in matrix order
+   * @param arenas the names of the arenas played in
+   */
+  TournamentReport(List<String> strategies, List<String> arenas) {
+    this.strategies = List.copyOf(strategies);
+    this.arenas = List.copyOf(arenas);
+    this.matches = new SimulationReport[arenas.size()][strategies.size()][strategies.size()];
+  }
+
+  /**
+   * Records the match between two strategies in an arena.
+   *
+   * @param arena the arena number
+   * @param a the number of the strategy that played as A
+   * @param b the number of the strategy that played as B
+   * @param match the match report
+   */
+  void addMatch(int arena, int a, int b, SimulationReport match) {
+    matches[arena][a][b] = match;
+  }
+
+  void setElapsedNanos(long elapsedNanos) {
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Gets the strategies that played.
+   *
+   * @return the strategy names, in matrix order
+   */
+  public List<String> getStrategies() {
+    return strategies;
+  }
+
+  /**
+   * Gets the arenas played in.
+   *
+   * @return the arena names, in report order
+   */
+  public List<String> getArenas() {
+    return arenas;
+  }
+
+  /**
+   * Gets the match between two strategies in an arena.
+   *
+   * @param arena the arena number
+   * @param a the number of one strategy
+   * @param b the number of the other strategy
+   * @return the match report with the first strategy as A, or null if they did not play
+   */
+  public SimulationReport getMatch(int arena, int a, int b) {
+    return matches[arena][a][b];
+  }
+
+  /**
+   * Gets the fraction of games a strategy scored against another in an arena,
+   * counting draws as half a win.
+   *
+   * @param arena the arena number
+   * @param row the number of the strategy whose score rate is returned
+   * @param column the number of its opponent
+   * @return the score rate, or NaN if they did not play or finished no game
+   */
+  public double getScoreRate(int arena, int row, int column) {
+    if (matches[arena][row][column] != null) {
+      return matches[arena][row][column].getScoreRateA();
+    }
+    if (matches[arena][column][row] != null) {
+      return 1 - matches[arena][column][row].getScoreRateA();
+    }
+    return Double.NaN;
+  }
+
+  /**
+   * Gets the Wilson score interval of a strategy's score rate against another.
+   *
+   * @param arena the arena number
+   * @param row the number of the strategy whose score rate is bounded
+   * @param column the number of its opponent
+   * @param z the standard normal quantile of the confidence level, e.g. 1.96 for 95%
+   * @return the lower and upper bound, or NaN bounds if they did not play or finished
+   *         no game
+   */
+  public double[] getScoreRateInterval(int arena, int row, int column, double z) {
+    if (matches[arena][row][column] != null) {
+      return matches[arena][row][column].getScoreRateIntervalA(z);
+    }
+    if (matches[arena][column][row] != null) {
+      double[] interval = matches[arena][column][row].getScoreRateIntervalA(z);
+      return new double[] {1 - interval[1], 1 - interval[0]};
+    }
+    return new double[] {Double.NaN, Double.NaN};
+  }
+
+  /**
+   * Gets how long a strategy took to choose each move in an arena, over all its matches.
+   *
+   * @param arena the arena number
+   * @param strategy the strategy number
+   * @return the decision times
+   */
+  public LatencyHistogram getDecisionTimes(int arena, int strategy) {
+    LatencyHistogram times = new LatencyHistogram();
+    for (int opponent = 0; opponent < strategies.size(); opponent++) {
+      if (matches[arena][strategy][opponent] != null) {
+        times.merge(matches[arena][strategy][opponent].getDecisionTimesA());
+      }
+      if (matches[arena][opponent][strategy] != null) {
+        times.merge(matches[arena][opponent][strategy].getDecisionTimesB());
+      }
+    }
+    return times;
+  }
+
+  /**
+   * Gets the number of games played, finished or abandoned.
+   *
+   * @return the game count over every match
+   */
+  public long getGames() {
+    long games = 0;
+    for (SimulationReport[][] arena : matches) {
+      for (SimulationReport[] row : arena) {
+        for (SimulationReport match : row) {
+          if (match != null) {
+            games += match.getGames() + match.getFailures();
+          }
+        }
+      }
+    }
+    return games;
+  }
+
+  /**
+   * Gets the wall-clock time the tournament took.
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Prints, for every arena, the score rate matrix with 95% intervals, the abandoned
+   * games and each strategy's decision time percentiles.
+   *
+   * @param out the stream to print to
+   */
+  public void print(PrintStream out) {
+    out.printf("%d games in %.2f s, %.0f games/s%n", getGames(), elapsedNanos / 1e9,
+            getGames() * 1e9 / Math.max(1, elapsedNanos));
+    for (int arena = 0; arena < arenas.size(); arena++) {
+      out.printf("%n%s: score rate of row against column, %% with 95%% interval%n",
+              arenas.get(arena));
+      out.printf("%-10s", "");
+      for (String strategy : strategies) {
+        out.printf(" %20s", strategy);
+      }
+      out.println();
+      for (int row = 0; row < strategies.size(); row++) {
+        out.printf("%-10s", strategies.get(row));
+        for (int column = 0; column < strategies.size(); column++) {
+          out.printf(" %20s", formatRate(arena, row, column));
+        }
+        out.println();
+      }
+      printFailures(out, arena);
+
+      out.printf("%-10s %10s %9s %9s %9s %9s %9s %9s%n", "ms/move", "moves", "mean",
+              "p50", "p90", "p99", "p99.9", "max");
+      for (int strategy = 0; strategy < strategies.size(); strategy++) {
+        LatencyHistogram times = getDecisionTimes(arena, strategy);
+        out.printf("%-10s %10d %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                strategies.get(strategy), times.getCount(), times.getMeanNanos() / 1e6,
+                times.getPercentileNanos(50) / 1e6, times.getPercentileNanos(90) / 1e6,
+                times.getPercentileNanos(99) / 1e6, times.getPercentileNanos(99.9) / 1e6,
+                times.getMaxNanos() / 1e6);
+      }
+    }
+  }
+
+  private String formatRate(int arena, int row, int column) {
+    double rate = getScoreRate(arena, row, column);
+    if (Double.isNaN(rate)) {
+      return "-";
+    }
+    double[] interval = getScoreRateInterval(arena, row, column, Z_95);
+    return String.format("%.1f [%.1f, %.1f]", 100 * rate, 100 * interval[0],
+            100 * interval[1]);
+  }
+
+  private void printFailures(PrintStream out, int arena) {
+    for (int a = 0; a < strategies.size(); a++) {
+      for (int b = 0; b < strategies.size(); b++) {
+        SimulationReport match = matches[arena][a][b];
+        if (match != null && match.getFailures() > 0) {
+          out.printf("%s vs %s: %d games abandoned%n", strategies.get(a), strategies.get(b),
+                  match.getFailures());
+        }
+      }
+    }
+  }
+}
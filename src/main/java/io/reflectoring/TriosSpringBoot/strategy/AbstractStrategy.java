@@ -1,18 +1,56 @@
 package io.reflectoring.TriosSpringBoot.strategy;
 
+import io.reflectoring.TriosSpringBoot.model.Board;
 import io.reflectoring.TriosSpringBoot.model.Card;
 import io.reflectoring.TriosSpringBoot.model.Coordinate;
 import io.reflectoring.TriosSpringBoot.model.PlayerColor;
 import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Base class for implementing game strategies.
  * Provides common functionality for evaluating and selecting moves.
+ *
+ * <p>Strategies created with a fork-join pool evaluate their candidate moves in
+ * parallel. The candidates are split into contiguous chunks, and each chunk is
+ * evaluated on its own simulation of the position, so evaluateMove may look ahead
+ * without the chunks seeing each other's moves. Results keep their sequential
+ * order, so the chosen move does not depend on how the work was scheduled.
  */
 public abstract class AbstractStrategy implements Strategy {
+  /**
+   * Fewest candidate moves evaluated by one parallel task.
+   */
+  protected static final int MIN_PARALLEL_CHUNK = 16;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a strategy that evaluates moves on the calling thread.
+   */
+  protected AbstractStrategy() {
+    this.pool = null;
+  }
+
+  /**
+   * Creates a strategy that evaluates moves in parallel.
+   *
+   * @param pool the pool to evaluate moves on, which bounds the parallelism
+   * @throws IllegalArgumentException if pool is null
+   */
+  protected AbstractStrategy(ForkJoinPool pool) {
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool cannot be null");
+    }
+    this.pool = pool;
+  }
 
   @Override
   public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player) {
@@ -22,6 +60,14 @@ public abstract class AbstractStrategy implements Strategy {
       return generateDefaultMove(model, player);
     }
 
+    // Hand positions are looked up once, not on every comparison; filling the map
+    // from the back leaves each card at its first index, as indexOf would find it
+    Map<Card, Integer> cardIndices = new HashMap<>();
+    List<Card> hand = model.getPlayerHand(player);
+    for (int i = hand.size() - 1; i >= 0; i--) {
+      cardIndices.put(hand.get(i), i);
+    }
+
     // Sort moves by:
     // 1. Strategy-specific value (highest first)
     // 2. Row position (uppermost first)
@@ -35,28 +81,65 @@ public abstract class AbstractStrategy implements Strategy {
                   .thenComparing((m1, m2) -> Integer.compare(
                         m2.getPosition().getCol(), m1.getPosition().getCol()))
                   .thenComparing((m1, m2) -> Integer.compare(
-                        getCardIndex(model, player, m1.getCard()),
-                        getCardIndex(model, player, m2.getCard()))))
+                        cardIndices.getOrDefault(m1.getCard(), -1),
+                        cardIndices.getOrDefault(m2.getCard(), -1))))
             .orElse(null);
   }
 
+  @Override
+  public boolean isDeterministic() {
+    return true;
+  }
+
   /**
    * Generates all possible moves for the given player.
    * Each move is evaluated according to the strategy's criteria.
+   * Moves are listed by cell in row-major order, then by card in hand order.
    */
   protected List<Move> generateAllPossibleMoves(ReadOnlyThreeTriosModel model, PlayerColor player) {
-    List<Move> moves = new ArrayList<>();
+    Board board = model.getBoard();
     List<Card> hand = model.getPlayerHand(player);
-    List<Coordinate> emptyCells = model.getBoard().getEmptyCardCells();
+    int[] cells = new int[board.getEmptyCellCount()];
+    int count = 0;
+    for (int index = board.nextEmptyCell(0); index >= 0; index = board.nextEmptyCell(index + 1)) {
+      cells[count++] = index;
+    }
 
-    for (Coordinate pos : emptyCells) {
-      for (Card card : hand) {
-        int value = evaluateMove(model, player, card, pos);
-        moves.add(new Move(card, pos, value));
-      }
+    Move[] moves = new Move[cells.length * hand.size()];
+    int chunks = pool == null ? 1
+            : Math.min(pool.getParallelism(), moves.length / MIN_PARALLEL_CHUNK);
+    if (chunks <= 1) {
+      evaluateRange(model, player, hand, cells, moves, 0, moves.length);
+      return Arrays.asList(moves);
     }
 
-    return moves;
+    // Views are created here because the model itself may not be safe to read concurrently
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+    for (int chunk = 0; chunk < chunks; chunk++) {
+      ReadOnlyThreeTriosModel view = model.simulate();
+      List<Card> viewHand = view.getPlayerHand(player);
+      int from = (int) ((long) moves.length * chunk / chunks);
+      int to = (int) ((long) moves.length * (chunk + 1) / chunks);
+      tasks.add(pool.submit(() -> evaluateRange(view, player, viewHand, cells, moves, from, to)));
+    }
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
+    }
+    return Arrays.asList(moves);
+  }
+
+  /**
+   * Evaluates the candidate moves with indices in [from, to), where candidate
+   * {@code i} plays card {@code i % hand.size()} at cell {@code cells[i / hand.size()]}.
+   */
+  private void evaluateRange(ReadOnlyThreeTriosModel model, PlayerColor player, List<Card> hand,
+                             int[] cells, Move[] moves, int from, int to) {
+    int handSize = hand.size();
+    for (int i = from; i < to; i++) {
+      Coordinate pos = model.getBoard().getGrid().getCoordinate(cells[i / handSize]);
+      Card card = hand.get(i % handSize);
+      moves[i] = new Move(card, pos, evaluateMove(model, player, card, pos));
+    }
   }
 
   /**
@@ -64,14 +147,13 @@ public abstract class AbstractStrategy implements Strategy {
    * Uses uppermost-leftmost position and first card in hand.
    */
   protected Move generateDefaultMove(ReadOnlyThreeTriosModel model, PlayerColor player) {
-    List<Coordinate> emptyCells = model.getBoard().getEmptyCardCells();
-    if (emptyCells.isEmpty() || model.getPlayerHand(player).isEmpty()) {
+    Board board = model.getBoard();
+    if (board.getEmptyCellCount() == 0 || model.getPlayerHand(player).isEmpty()) {
       return null;
     }
 
-    // Get uppermost-leftmost position
-    Coordinate defaultPos = emptyCells.stream().min(Comparator.comparingInt(Coordinate::getRow)
-                    .thenComparingInt(Coordinate::getCol)).orElse(null);
+    // Get uppermost-leftmost position; the empty-cell index is in row-major order
+    Coordinate defaultPos = board.getGrid().getCoordinate(board.nextEmptyCell(0));
 
     // Get first card in hand
     Card defaultCard = model.getPlayerHand(player).get(0);
@@ -0,0 +1,344 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.Coordinate;
+import io.reflectoring.TriosSpringBoot.model.FlipMatrix;
+import io.reflectoring.TriosSpringBoot.model.GameState;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+import io.reflectoring.TriosSpringBoot.model.ThreeTriosSimulation;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Strategy that searches ahead with alpha-beta minimax and iterative deepening.
+ * Positions are scored by the difference between the two players' scores, which
+ * is exact once the board is full. Each iteration searches one ply deeper than the
+ * last until the whole game is solved or the time budget runs out; a search cut
+ * short by the deadline is discarded and the best move of the last completed depth
+ * is played.
+ *
+ * <p>The last ply of every line is not played out: playing a card moves it from
+ * hand to board without changing its owner's score, so a move that flips
+ * {@code n} cards changes the score difference by exactly {@code 2n}, and the best
+ * reply is read straight off the position's flip matrix.
+ *
+ * <p>Given a transposition table, positions reached again through a different move
+ * order, in a later iteration or in a later move, reuse the stored score where it is
+ * deep enough to cut the search off, and try the stored best move first otherwise.
+ */
+public class AlphaBetaStrategy implements Strategy {
+  /**
+   * Time budget used by the no-argument constructor.
+   */
+  public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+
+  private static final Logger logger = LoggerFactory.getLogger(AlphaBetaStrategy.class);
+
+  /**
+   * The deadline is only read every this many nodes, which must be a power of two.
+   */
+  private static final int DEADLINE_CHECK_INTERVAL = 256;
+  private static final int INFINITY = Integer.MAX_VALUE;
+
+  private final long timeBudgetNanos;
+  private final int maxDepth;
+  private final TranspositionTable transpositionTable;
+  private final SearchStatistics statistics;
+
+  /**
+   * Creates a strategy with the default time budget and no depth limit.
+   */
+  public AlphaBetaStrategy() {
+    this(DEFAULT_TIME_BUDGET_MILLIS);
+  }
+
+  /**
+   * Creates a strategy with no depth limit that searches without a transposition table.
+   *
+   * @param timeBudgetMillis time allowed per move, in milliseconds
+   * @throws IllegalArgumentException if timeBudgetMillis is not positive
+   */
+  public AlphaBetaStrategy(long timeBudgetMillis) {
+    this(timeBudgetMillis, Integer.MAX_VALUE, null, null);
+  }
+
+  /**
+   * Creates a strategy that caches search results in a transposition table and adds
+   * every search to shared statistics.
+   *
+   * @param timeBudgetMillis time allowed per move, in milliseconds
+   * @param maxDepth deepest search in plies, or {@link Integer#MAX_VALUE} for no limit
+   * @param transpositionTable table to share results through, or null to search without one
+   * @param statistics totals to record every search in, or null to record nothing
+   * @throws IllegalArgumentException if timeBudgetMillis or maxDepth is not positive
+   */
+  public AlphaBetaStrategy(long timeBudgetMillis, int maxDepth,
+                           TranspositionTable transpositionTable, SearchStatistics statistics) {
+    if (timeBudgetMillis <= 0) {
+      throw new IllegalArgumentException("Time budget must be positive");
+    }
+    if (maxDepth <= 0) {
+      throw new IllegalArgumentException("Maximum depth must be positive");
+    }
+    this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+    this.maxDepth = maxDepth;
+    this.transpositionTable = transpositionTable;
+    this.statistics = statistics;
+  }
+
+  /**
+   * Chooses a move for the player to move.
+   * The value of the returned move is the number of cards it flips immediately.
+   *
+   * @return the move to make, or null if the game is over or it is not the player's turn
+   */
+  @Override
+  public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player) {
+    return chooseMove(model, player, System.nanoTime() + timeBudgetNanos);
+  }
+
+  @Override
+  public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player, long deadlineNanos) {
+    if (model.getGameState() == GameState.GAME_OVER
+            || model.getCurrentPlayerColor() != player
+            || model.getPlayerHand(player).isEmpty()
+            || model.getBoard().getEmptyCellCount() == 0) {
+      return null;
+    }
+    if (transpositionTable != null) {
+      transpositionTable.newSearch();
+    }
+    long deadline = System.nanoTime() + timeBudgetNanos;
+    if (deadlineNanos - deadline < 0) {
+      deadline = deadlineNanos;
+    }
+    return new Search(model.simulate(), player, deadline).run();
+  }
+
+  /**
+   * State of one call to chooseMove. Searches are not shared between calls, so one
+   * strategy instance can serve several games at once.
+   */
+  private final class Search {
+    private final ThreeTriosSimulation simulation;
+    private final PlayerColor player;
+    private final long startTime;
+    private final long deadline;
+    private long nodes;
+    private boolean aborted;
+
+    Search(ThreeTriosSimulation simulation, PlayerColor player, long deadline) {
+      this.simulation = simulation;
+      this.player = player;
+      this.startTime = System.nanoTime();
+      this.deadline = deadline;
+    }
+
+    Move run() {
+      FlipMatrix rootMatrix = simulation.getFlipMatrix(simulation.getPlayerHand(player));
+      int[] rootMoves = orderMoves(rootMatrix);
+      int depthLimit = Math.min(maxDepth, rootMatrix.getCellCount());
+
+      int bestMove = rootMoves[0];
+      int bestScore = -INFINITY;
+      int completedDepth = 0;
+      for (int depth = 1; depth <= depthLimit; depth++) {
+        int iterationBest = -1;
+        int iterationScore = -INFINITY;
+        for (int move : rootMoves) {
+          int score = -playAndSearch(rootMatrix, move, depth - 1, -INFINITY, -iterationScore,
+                  player.getOpponentColor());
+          if (aborted) {
+            break;
+          }
+          if (score > iterationScore) {
+            iterationScore = score;
+            iterationBest = move;
+          }
+        }
+        if (aborted) {
+          break;
+        }
+        bestMove = iterationBest;
+        bestScore = iterationScore;
+        completedDepth = depth;
+        moveToFront(rootMoves, bestMove);
+        logger.debug("Alpha-beta for {} completed depth {} with score {} after {} nodes",
+                player, depth, bestScore, nodes);
+        if (System.nanoTime() - deadline >= 0) {
+          break;
+        }
+      }
+
+      long elapsed = System.nanoTime() - startTime;
+      if (statistics != null) {
+        statistics.record(SearchStatistics.Kind.ALPHA_BETA, nodes, elapsed, completedDepth);
+      }
+      if (logger.isDebugEnabled()) {
+        logger.debug("Alpha-beta for {} searched {} plies, score {}: {} nodes in {} ms ({} nodes/s)",
+                player, completedDepth, bestScore, nodes,
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                elapsed > 0 ? nodes * TimeUnit.SECONDS.toNanos(1) / elapsed : nodes);
+      }
+
+      int cells = rootMatrix.getCellCount();
+      return new Move(rootMatrix.getCard(bestMove / cells), rootMatrix.getPosition(bestMove % cells),
+              rootMatrix.getFlips(bestMove / cells, bestMove % cells));
+    }
+
+    /**
+     * Plays one move of a matrix, searches the resulting position for the other side
+     * and takes the move back.
+     *
+     * @return the score of the resulting position for {@code side}
+     */
+    private int playAndSearch(FlipMatrix matrix, int move, int depth, int alpha, int beta,
+                              PlayerColor side) {
+      int cells = matrix.getCellCount();
+      simulation.playCard(matrix.getCard(move / cells), matrix.getPosition(move % cells));
+      try {
+        return search(depth, alpha, beta, side);
+      } finally {
+        simulation.undo();
+      }
+    }
+
+    /**
+     * Negamax search of the current simulation position.
+     *
+     * @param depth remaining plies to search
+     * @param side the player whose turn it is, and whose point of view the score takes
+     * @return the score of the position for side, or 0 once the search is aborted
+     */
+    private int search(int depth, int alpha, int beta, PlayerColor side) {
+      if ((++nodes & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() - deadline >= 0) {
+        aborted = true;
+      }
+      if (aborted) {
+        return 0;
+      }
+
+      int score = simulation.getScore(side) - simulation.getScore(side.getOpponentColor());
+      if (depth == 0 || simulation.getGameState() == GameState.GAME_OVER
+              || simulation.getPlayerHand(side).isEmpty()) {
+        return score;
+      }
+
+      FlipMatrix matrix = simulation.getFlipMatrix(simulation.getPlayerHand(side));
+      if (depth == 1) {
+        return score + 2 * maxFlips(matrix);
+      }
+
+      int[] moves = orderMoves(matrix);
+      long hash = 0L;
+      if (transpositionTable != null) {
+        hash = simulation.getPositionHash();
+        long entry = transpositionTable.probe(hash);
+        if (entry != TranspositionTable.MISS) {
+          if (TranspositionTable.depth(entry) >= depth) {
+            int stored = TranspositionTable.score(entry);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && stored >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && stored <= alpha)) {
+              return stored;
+            }
+          }
+          int hint = findMove(matrix, TranspositionTable.bestCard(entry),
+                  TranspositionTable.bestCell(entry));
+          if (hint >= 0) {
+            moveToFront(moves, hint);
+          }
+        }
+      }
+
+      int originalAlpha = alpha;
+      int best = -INFINITY;
+      int bestMove = moves[0];
+      for (int move : moves) {
+        int value = -playAndSearch(matrix, move, depth - 1, -beta, -alpha, side.getOpponentColor());
+        if (aborted) {
+          return 0;
+        }
+        if (value > best) {
+          best = value;
+          bestMove = move;
+          if (value > alpha) {
+            alpha = value;
+            if (alpha >= beta) {
+              break;
+            }
+          }
+        }
+      }
+
+      if (transpositionTable != null) {
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        int cells = matrix.getCellCount();
+        transpositionTable.store(hash, depth, bound, best,
+                matrix.getCellIndex(bestMove % cells), bestMove / cells);
+      }
+      return best;
+    }
+  }
+
+  private static int maxFlips(FlipMatrix matrix) {
+    int max = 0;
+    for (int card = 0; card < matrix.getCardCount(); card++) {
+      for (int cell = 0; cell < matrix.getCellCount(); cell++) {
+        max = Math.max(max, matrix.getFlips(card, cell));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Lists the moves of a matrix, most immediate flips first. A move is encoded as
+   * {@code card * cellCount + cell}; ties keep card-then-cell order, so the search
+   * is deterministic.
+   */
+  private static int[] orderMoves(FlipMatrix matrix) {
+    int cells = matrix.getCellCount();
+    int count = matrix.getCardCount() * cells;
+    long[] keys = new long[count];
+    for (int move = 0; move < count; move++) {
+      keys[move] = ((long) -matrix.getFlips(move / cells, move % cells) << 32) | move;
+    }
+    Arrays.sort(keys);
+    int[] moves = new int[count];
+    for (int i = 0; i < count; i++) {
+      moves[i] = (int) keys[i];
+    }
+    return moves;
+  }
+
+  /**
+   * Finds the move of a matrix that plays the given hand card at the given grid cell.
+   *
+   * @return the encoded move, or -1 if the matrix has no such move
+   */
+  private static int findMove(FlipMatrix matrix, int card, int cellIndex) {
+    if (card < 0 || card >= matrix.getCardCount()) {
+      return -1;
+    }
+    for (int cell = 0; cell < matrix.getCellCount(); cell++) {
+      if (matrix.getCellIndex(cell) == cellIndex) {
+        return card * matrix.getCellCount() + cell;
+      }
+    }
+    return -1;
+  }
+
+  private static void moveToFront(int[] moves, int move) {
+    int i = 0;
+    while (moves[i] != move) {
+      i++;
+    }
+    System.arraycopy(moves, 0, moves, 1, i);
+    moves[0] = move;
+  }
+}
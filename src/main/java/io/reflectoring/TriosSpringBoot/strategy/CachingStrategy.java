@@ -0,0 +1,139 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import io.reflectoring.TriosSpringBoot.model.Board;
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.GameState;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.PositionCanonicalizer;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+
+/**
+ * Strategy that replays the moves a deterministic strategy chose in earlier games.
+ * Decisions are shared through a cache, so once any game reaches a position, every
+ * later game played by the same kind of strategy skips the search for it. Decisions
+ * are cached for canonical positions, so a decision is also replayed, turned, in
+ * positions that are rotations or reflections of the one it was made in, and with any
+ * card holding the values of the card it was made with.
+ */
+public class CachingStrategy implements Strategy {
+  private final Strategy delegate;
+  private final DecisionCache cache;
+  private final String strategyId;
+  private volatile PositionCanonicalizer canonicalizer;
+
+  /**
+   * Constructor for the CachingStrategy class.
+   *
+   * @param delegate the deterministic strategy to cache
+   * @param cache the cache shared with other games
+   * @param strategyId identifies the delegate and its configuration in the cache
+   * @throws IllegalArgumentException if any parameter is null or delegate is not deterministic
+   */
+  public CachingStrategy(Strategy delegate, DecisionCache cache, String strategyId) {
+    if (delegate == null || cache == null || strategyId == null) {
+      throw new IllegalArgumentException("Parameters cannot be null");
+    }
+    if (!delegate.isDeterministic()) {
+      throw new IllegalArgumentException("Only deterministic strategies can be cached");
+    }
+    this.delegate = delegate;
+    this.cache = cache;
+    this.strategyId = strategyId;
+  }
+
+  @Override
+  public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player) {
+    return chooseMove(model, player, false, 0L);
+  }
+
+  /**
+   * Replays the cached decision, or asks the delegate for a move by the deadline. A
+   * move the delegate chose after the deadline is played but not cached, since the
+   * delegate may have given up a search to make it.
+   */
+  @Override
+  public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player, long deadlineNanos) {
+    return chooseMove(model, player, true, deadlineNanos);
+  }
+
+  private Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player, boolean timed,
+                          long deadlineNanos) {
+    if (model.getGameState() == GameState.GAME_OVER || model.getCurrentPlayerColor() != player) {
+      return timed ? delegate.chooseMove(model, player, deadlineNanos)
+              : delegate.chooseMove(model, player);
+    }
+
+    PositionCanonicalizer canonicalizer = canonicalizerFor(model);
+    int symmetry = canonicalizer.canonicalSymmetry(model);
+    long hash = canonicalizer.hash(model, symmetry);
+    DecisionCache.Decision decision = cache.get(strategyId, hash, player);
+    if (decision != null) {
+      Move move = toMove(model, player, decision, canonicalizer, symmetry);
+      if (move != null) {
+        return move;
+      }
+    }
+
+    Move move = timed ? delegate.chooseMove(model, player, deadlineNanos)
+            : delegate.chooseMove(model, player);
+    if (move != null && (!timed || System.nanoTime() - deadlineNanos < 0)) {
+      int cell = model.getBoard().getGrid().getIndex(move.getPosition());
+      cache.put(strategyId, hash, player,
+              canonicalizer.cardValues(symmetry, move.getCard()),
+              canonicalizer.mapCell(symmetry, cell), move.getValue());
+    }
+    return move;
+  }
+
+  /**
+   * Gets the canonicalizer of the game being played, creating it on the first move.
+   */
+  private PositionCanonicalizer canonicalizerFor(ReadOnlyThreeTriosModel model) {
+    PositionCanonicalizer current = canonicalizer;
+    if (current == null || !current.isFor(model)) {
+      current = PositionCanonicalizer.of(model);
+      canonicalizer = current;
+    }
+    return current;
+  }
+
+  /**
+   * Turns a decision made for the canonical position back into this position and
+   * finds a card in this game's hand that turns into the decision's card.
+   *
+   * @return the move, or null if the decision does not fit the position, e.g. after a
+   *         hash collision
+   */
+  private Move toMove(ReadOnlyThreeTriosModel model, PlayerColor player,
+                      DecisionCache.Decision decision, PositionCanonicalizer canonicalizer,
+                      int symmetry) {
+    Board board = model.getBoard();
+    if (decision.getCell() >= board.getGrid().getCellCount()) {
+      return null;
+    }
+    int cell = canonicalizer.unmapCell(symmetry, decision.getCell());
+    if (!board.canPlaceCard(cell)) {
+      return null;
+    }
+    for (Card card : model.getPlayerHand(player)) {
+      if (canonicalizer.cardValues(symmetry, card) == decision.getCardValues()) {
+        return new Move(card, board.getGrid().getCoordinate(cell), decision.getValue());
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isDeterministic() {
+    return true;
+  }
+
+  /**
+   * Gets the strategy whose moves are cached.
+   *
+   * @return the wrapped strategy
+   */
+  public Strategy getDelegate() {
+    return delegate;
+  }
+}
@@ -1,21 +1,41 @@
 package io.reflectoring.TriosSpringBoot.strategy;
 
+import io.reflectoring.TriosSpringBoot.model.AdjacencyTable;
 import io.reflectoring.TriosSpringBoot.model.Card;
 import io.reflectoring.TriosSpringBoot.model.Coordinate;
-import io.reflectoring.TriosSpringBoot.model.Direction;
+import io.reflectoring.TriosSpringBoot.model.Grid;
 import io.reflectoring.TriosSpringBoot.model.PlayerColor;
 import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Strategy that prioritizes placing strong cards in corner positions.
  */
 public class CornerStrategy extends AbstractStrategy {
 
+  /**
+   * Creates a strategy that evaluates moves on the calling thread.
+   */
+  public CornerStrategy() {
+    super();
+  }
+
+  /**
+   * Creates a strategy that evaluates moves in parallel.
+   *
+   * @param pool the pool to evaluate moves on
+   * @throws IllegalArgumentException if pool is null
+   */
+  public CornerStrategy(ForkJoinPool pool) {
+    super(pool);
+  }
+
   @Override
   protected int evaluateMove(ReadOnlyThreeTriosModel model,
                              PlayerColor player, Card card, Coordinate position) {
-    int rows = model.getBoard().getGrid().getTotalRows();
-    int cols = model.getBoard().getGrid().getTotalColumns();
+    Grid grid = model.getBoard().getGrid();
+    int rows = grid.getTotalRows();
+    int cols = grid.getTotalColumns();
 
     // Check if position is a corner
     boolean isCorner = (position.getRow() == 0 || position.getRow() == rows - 1)
@@ -28,18 +48,12 @@ public class CornerStrategy extends AbstractStrategy {
     // For corners, evaluate based on exposed values
     int score = 0;
 
-    // Add value if edge is exposed (not protected by board edge)
-    if (position.getRow() > 0) {
-      score += card.getValue(Direction.NORTH);
-    }
-    if (position.getRow() < rows - 1) {
-      score += card.getValue(Direction.SOUTH);
-    }
-    if (position.getCol() > 0) {
-      score += card.getValue(Direction.WEST);
-    }
-    if (position.getCol() < cols - 1) {
-      score += card.getValue(Direction.EAST);
+    // Add value if edge is exposed (not protected by board edge),
+    // i.e. for every direction the adjacency table has a neighbour in
+    AdjacencyTable adjacency = grid.getAdjacency();
+    int index = grid.getIndex(position);
+    for (int slot = adjacency.start(index); slot < adjacency.end(index); slot++) {
+      score += card.getValue(adjacency.direction(slot));
     }
 
     // Corners are highest priority, so multiply score
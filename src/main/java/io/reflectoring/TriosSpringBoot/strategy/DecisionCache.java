@@ -0,0 +1,280 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of the moves strategies chose, shared across games.
+ * Decisions are keyed by strategy, position hash and side to move, and hold the card
+ * by its values and the cell by index, so a decision made in one game can be replayed
+ * in any other game that reaches the same position.
+ *
+ * <p>The cache is split into segments, each a least-recently-used map behind its own
+ * lock, so games on different threads rarely contend. A segment evicts its least
+ * recently used decision when full, and decisions unused for longer than the idle
+ * timeout are dropped when they are next seen or when their segment is written.
+ */
+public final class DecisionCache {
+  private static final int SEGMENTS = 16;
+
+  private final Segment[] segments;
+  private final long idleNanos;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+
+  /**
+   * Constructor for the DecisionCache class.
+   *
+   * @param maxEntries most decisions to hold
+   * @param idleMillis time after its last use at which a decision expires, in milliseconds
+   * @throws IllegalArgumentException if maxEntries or idleMillis is not positive
+   */
+  public DecisionCache(int maxEntries, long idleMillis) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("Cache size must be positive");
+    }
+    if (idleMillis <= 0) {
+      throw new IllegalArgumentException("Idle timeout must be positive");
+    }
+    int segmentCapacity = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+    this.segments = new Segment[SEGMENTS];
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(segmentCapacity);
+    }
+    this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.evictions = new LongAdder();
+  }
+
+  /**
+   * Looks up a decision.
+   *
+   * @param strategyId identifies the strategy and its configuration
+   * @param hash the position hash
+   * @param side the player to move
+   * @return the decision, or null if none is cached or it has expired
+   */
+  public Decision get(String strategyId, long hash, PlayerColor side) {
+    Key key = new Key(strategyId, hash, side);
+    long now = System.nanoTime();
+    Segment segment = segmentFor(key);
+    Decision decision;
+    synchronized (segment) {
+      decision = segment.get(key);
+      if (decision != null && now - decision.lastUsed > idleNanos) {
+        segment.remove(key);
+        evictions.increment();
+        decision = null;
+      }
+      if (decision != null) {
+        decision.lastUsed = now;
+      }
+    }
+    if (decision == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return decision;
+  }
+
+  /**
+   * Caches a decision, replacing any decision for the same key.
+   *
+   * @param strategyId identifies the strategy and its configuration
+   * @param hash the position hash
+   * @param side the player to move
+   * @param cardValues values of the card played, packed one byte per side
+   * @param cell index of the cell played
+   * @param value value of the move
+   */
+  public void put(String strategyId, long hash, PlayerColor side,
+                  int cardValues, int cell, int value) {
+    Key key = new Key(strategyId, hash, side);
+    long now = System.nanoTime();
+    Segment segment = segmentFor(key);
+    synchronized (segment) {
+      segment.put(key, new Decision(cardValues, cell, value, now), now);
+    }
+  }
+
+  /**
+   * Removes every decision. Counters are kept.
+   */
+  public void clear() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  private Segment segmentFor(Key key) {
+    int h = key.hashCode();
+    return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+  }
+
+  /**
+   * Gets the number of decisions held.
+   *
+   * @return the decision count
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Gets the number of lookups that found a decision.
+   *
+   * @return the hit count since creation
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of lookups that found no decision.
+   *
+   * @return the miss count since creation
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the number of decisions dropped for space or idleness.
+   *
+   * @return the eviction count since creation
+   */
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * A cached move.
+   */
+  public static final class Decision {
+    private final int cardValues;
+    private final int cell;
+    private final int value;
+    private long lastUsed;
+
+    private Decision(int cardValues, int cell, int value, long lastUsed) {
+      this.cardValues = cardValues;
+      this.cell = cell;
+      this.value = value;
+      this.lastUsed = lastUsed;
+    }
+
+    /**
+     * Gets the values of the card played.
+     *
+     * @return the card values, packed one byte per side in direction order
+     */
+    public int getCardValues() {
+      return cardValues;
+    }
+
+    /**
+     * Gets the index of the cell played.
+     *
+     * @return the cell index
+     */
+    public int getCell() {
+      return cell;
+    }
+
+    /**
+     * Gets the value of the move.
+     *
+     * @return the move value
+     */
+    public int getValue() {
+      return value;
+    }
+  }
+
+  private static final class Key {
+    private final String strategyId;
+    private final long hash;
+    private final PlayerColor side;
+
+    Key(String strategyId, long hash, PlayerColor side) {
+      this.strategyId = strategyId;
+      this.hash = hash;
+      this.side = side;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return hash == key.hash && side == key.side && strategyId.equals(key.strategyId);
+    }
+
+    @Override
+    public int hashCode() {
+      return (31 * strategyId.hashCode() + Long.hashCode(hash)) * 31 + side.ordinal();
+    }
+  }
+
+  /**
+   * A least-recently-used map of decisions, guarded by synchronizing on the segment.
+   */
+  private final class Segment {
+    private final int capacity;
+    private final LinkedHashMap<Key, Decision> decisions = new LinkedHashMap<>(16, 0.75f, true);
+
+    Segment(int capacity) {
+      this.capacity = capacity;
+    }
+
+    Decision get(Key key) {
+      return decisions.get(key);
+    }
+
+    void remove(Key key) {
+      decisions.remove(key);
+    }
+
+    /**
+     * Stores a decision, then evicts the least recently used decision if the segment
+     * is over capacity and every decision idle for longer than the timeout.
+     */
+    void put(Key key, Decision decision, long now) {
+      decisions.put(key, decision);
+      // Access order puts the least recently used and longest idle decisions first
+      Iterator<Decision> eldest = decisions.values().iterator();
+      if (decisions.size() > capacity) {
+        eldest.next();
+        eldest.remove();
+        evictions.increment();
+      }
+      while (eldest.hasNext() && now - eldest.next().lastUsed > idleNanos) {
+        eldest.remove();
+        evictions.increment();
+      }
+    }
+
+    void clear() {
+      decisions.clear();
+    }
+
+    int size() {
+      return decisions.size();
+    }
+  }
+}
@@ -0,0 +1,354 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import io.reflectoring.TriosSpringBoot.model.Board;
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.Direction;
+import io.reflectoring.TriosSpringBoot.model.FlipMatrix;
+import io.reflectoring.TriosSpringBoot.model.GameState;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+import io.reflectoring.TriosSpringBoot.model.ThreeTriosSimulation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves positions exactly by searching every line to the end of the game.
+ * The score of a position is the final difference between the two players' scores,
+ * from the point of view of the player to move.
+ *
+ * <p>The search is alpha-beta over (card, cell) moves. Each player's hand is a bitset
+ * over the cards dealt to both players, and cards in the same hand with the same four
+ * values are interchangeable, so only the first of them is tried. Results are
+ * memoised in a transposition table keyed by position hash. Because every entry is
+ * searched to the end of the game, the table can be shared with depth-limited searches:
+ * an entry is only used when its depth covers the remaining cells.
+ *
+ * <p>A solve given a deadline gives up when the deadline passes, storing nothing for
+ * the positions it left unfinished, so callers can play a cheaper move instead.
+ */
+public final class EndgameSolver {
+  /**
+   * Most cards the hand bitsets can hold.
+   */
+  public static final int MAX_CARDS = Long.SIZE;
+
+  private static final Logger logger = LoggerFactory.getLogger(EndgameSolver.class);
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final int INFINITY = Integer.MAX_VALUE;
+
+  /**
+   * The deadline is only read every this many nodes, which must be a power of two.
+   */
+  private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+  private final TranspositionTable memo;
+  private final SearchStatistics statistics;
+
+  /**
+   * Creates a solver that records no statistics.
+   *
+   * @param memo the table to memoise results in
+   * @throws IllegalArgumentException if memo is null
+   */
+  public EndgameSolver(TranspositionTable memo) {
+    this(memo, null);
+  }
+
+  /**
+   * Constructor for the EndgameSolver class.
+   *
+   * @param memo the table to memoise results in
+   * @param statistics totals to record every solve in, or null to record nothing
+   * @throws IllegalArgumentException if memo is null
+   */
+  public EndgameSolver(TranspositionTable memo, SearchStatistics statistics) {
+    if (memo == null) {
+      throw new IllegalArgumentException("Memo table cannot be null");
+    }
+    this.memo = memo;
+    this.statistics = statistics;
+  }
+
+  /**
+   * Finds a best move for the player to move.
+   * The value of the returned move is the number of cards it flips immediately.
+   *
+   * @param model the position to solve
+   * @return a move with the best final score, or null if the game is over, the player
+   *         to move has no cards or the hands hold more than MAX_CARDS cards
+   */
+  public Move solve(ReadOnlyThreeTriosModel model) {
+    return solve(model, false, 0L);
+  }
+
+  /**
+   * Finds a best move for the player to move, unless the deadline passes first.
+   * The value of the returned move is the number of cards it flips immediately.
+   *
+   * @param model the position to solve
+   * @param deadlineNanos the {@link System#nanoTime()} value at which to give up
+   * @return a move with the best final score, or null if the deadline passed before
+   *         the solve finished, the game is over, the player to move has no cards or
+   *         the hands hold more than MAX_CARDS cards
+   */
+  public Move solve(ReadOnlyThreeTriosModel model, long deadlineNanos) {
+    return solve(model, true, deadlineNanos);
+  }
+
+  private Move solve(ReadOnlyThreeTriosModel model, boolean timed, long deadlineNanos) {
+    PlayerColor player = model.getCurrentPlayerColor();
+    List<Card> hand = model.getPlayerHand(player);
+    List<Card> otherHand = model.getPlayerHand(player.getOpponentColor());
+    if (model.getGameState() == GameState.GAME_OVER || hand.isEmpty()
+            || model.getBoard().getEmptyCellCount() == 0
+            || hand.size() + otherHand.size() > MAX_CARDS) {
+      return null;
+    }
+    return new Solve(model.simulate(), player, hand, otherHand, timed, deadlineNanos).run();
+  }
+
+  /**
+   * State of one call to solve.
+   */
+  private final class Solve {
+    private final ThreeTriosSimulation simulation;
+    private final PlayerColor player;
+    private final Card[] cards;
+    private final long[] hands;
+    private final long[] sameValuesBefore;
+    private final long startTime;
+    private final boolean timed;
+    private final long deadline;
+    private long nodes;
+    private boolean aborted;
+
+    Solve(ThreeTriosSimulation simulation, PlayerColor player,
+          List<Card> hand, List<Card> otherHand, boolean timed, long deadline) {
+      this.simulation = simulation;
+      this.player = player;
+      this.startTime = System.nanoTime();
+      this.timed = timed;
+      this.deadline = deadline;
+
+      List<Card> dealt = new ArrayList<>(hand);
+      dealt.addAll(otherHand);
+      this.cards = dealt.toArray(new Card[0]);
+      this.hands = new long[PlayerColor.values().length];
+      hands[player.ordinal()] = (1L << hand.size()) - 1;
+      hands[player.getOpponentColor().ordinal()] = ((1L << otherHand.size()) - 1) << hand.size();
+
+      // Bit i of sameValuesBefore[j] is set when card i < j has the same values as card j
+      this.sameValuesBefore = new long[cards.length];
+      for (int j = 0; j < cards.length; j++) {
+        for (int i = 0; i < j; i++) {
+          if (sameValues(cards[i], cards[j])) {
+            sameValuesBefore[j] |= 1L << i;
+          }
+        }
+      }
+    }
+
+    Move run() {
+      memo.newSearch();
+      Board board = simulation.getBoard();
+      int empties = board.getEmptyCellCount();
+      int bestCard = -1;
+      int bestCell = -1;
+      int bestScore = -INFINITY;
+      long hand = hands[player.ordinal()];
+      for (long remaining = hand; remaining != 0 && !aborted; remaining &= remaining - 1) {
+        int card = Long.numberOfTrailingZeros(remaining);
+        if ((hand & sameValuesBefore[card]) != 0) {
+          continue;
+        }
+        for (int cell = board.nextEmptyCell(0); cell >= 0; cell = board.nextEmptyCell(cell + 1)) {
+          int score = -playAndSolve(card, cell, player, empties, -INFINITY, -bestScore);
+          if (aborted) {
+            break;
+          }
+          if (score > bestScore) {
+            bestScore = score;
+            bestCard = card;
+            bestCell = cell;
+          }
+        }
+      }
+
+      long elapsed = System.nanoTime() - startTime;
+      if (statistics != null) {
+        statistics.record(SearchStatistics.Kind.ENDGAME, nodes, elapsed, aborted ? 0 : empties);
+      }
+      if (aborted) {
+        logger.debug("Endgame for {} gave up on {} empty cells at the deadline: {} nodes in {} ms",
+                player, empties, nodes, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return null;
+      }
+      if (logger.isDebugEnabled()) {
+        logger.debug("Endgame for {} solved {} empty cells, score {}: {} nodes in {} ms",
+                player, empties, bestScore, nodes, TimeUnit.NANOSECONDS.toMillis(elapsed));
+      }
+
+      int flips = simulation.getPotentialFlips(cards[bestCard],
+              board.getGrid().getCoordinate(bestCell));
+      return new Move(cards[bestCard], board.getGrid().getCoordinate(bestCell), flips);
+    }
+
+    /**
+     * Plays a card for side, solves the resulting position for the other player
+     * and takes the card back.
+     */
+    private int playAndSolve(int card, int cell, PlayerColor side, int empties,
+                             int alpha, int beta) {
+      simulation.playCard(cards[card], simulation.getBoard().getGrid().getCoordinate(cell));
+      hands[side.ordinal()] &= ~(1L << card);
+      try {
+        return solve(side.getOpponentColor(), empties - 1, alpha, beta);
+      } finally {
+        hands[side.ordinal()] |= 1L << card;
+        simulation.undo();
+      }
+    }
+
+    /**
+     * Negamax search of the current simulation position to the end of the game.
+     *
+     * @param side the player to move
+     * @param empties the number of empty cells
+     * @return the final score difference for side under best play, or 0 once the
+     *         solve is aborted
+     */
+    private int solve(PlayerColor side, int empties, int alpha, int beta) {
+      if ((++nodes & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && timed
+              && System.nanoTime() - deadline >= 0) {
+        aborted = true;
+      }
+      if (aborted) {
+        return 0;
+      }
+      int score = simulation.getScore(side) - simulation.getScore(side.getOpponentColor());
+      long hand = hands[side.ordinal()];
+      if (empties == 0 || hand == 0 || simulation.getGameState() == GameState.GAME_OVER) {
+        return score;
+      }
+      if (empties == 1) {
+        // The last card ends the game; it changes the difference by twice its flips
+        FlipMatrix matrix = simulation.getFlipMatrix(simulation.getPlayerHand(side));
+        int maxFlips = 0;
+        for (int row = 0; row < matrix.getCardCount(); row++) {
+          maxFlips = Math.max(maxFlips, matrix.getFlips(row, 0));
+        }
+        return score + 2 * maxFlips;
+      }
+
+      long hash = simulation.getPositionHash();
+      long entry = memo.probe(hash);
+      int hintCard = -1;
+      int hintCell = -1;
+      if (entry != TranspositionTable.MISS) {
+        if (TranspositionTable.depth(entry) >= empties) {
+          int stored = TranspositionTable.score(entry);
+          int bound = TranspositionTable.bound(entry);
+          if (bound == TranspositionTable.EXACT
+                  || (bound == TranspositionTable.LOWER_BOUND && stored >= beta)
+                  || (bound == TranspositionTable.UPPER_BOUND && stored <= alpha)) {
+            return stored;
+          }
+        }
+        hintCard = toCardIndex(side, TranspositionTable.bestCard(entry));
+        hintCell = TranspositionTable.bestCell(entry);
+        if (hintCard < 0 || hintCell < 0 || !simulation.getBoard().canPlaceCard(hintCell)) {
+          hintCard = -1;
+        }
+      }
+
+      int originalAlpha = alpha;
+      int best = -INFINITY;
+      int bestCard = -1;
+      int bestCell = -1;
+      if (hintCard >= 0) {
+        best = -playAndSolve(hintCard, hintCell, side, empties, -beta, -alpha);
+        if (aborted) {
+          return 0;
+        }
+        bestCard = hintCard;
+        bestCell = hintCell;
+        alpha = Math.max(alpha, best);
+      }
+
+      Board board = simulation.getBoard();
+      search:
+      for (long remaining = hand; remaining != 0 && alpha < beta; remaining &= remaining - 1) {
+        int card = Long.numberOfTrailingZeros(remaining);
+        if ((hand & sameValuesBefore[card]) != 0) {
+          continue;
+        }
+        for (int cell = board.nextEmptyCell(0); cell >= 0; cell = board.nextEmptyCell(cell + 1)) {
+          if (card == hintCard && cell == hintCell) {
+            continue;
+          }
+          int value = -playAndSolve(card, cell, side, empties, -beta, -alpha);
+          if (aborted) {
+            return 0;
+          }
+          if (value > best) {
+            best = value;
+            bestCard = card;
+            bestCell = cell;
+            if (value > alpha) {
+              alpha = value;
+              if (alpha >= beta) {
+                break search;
+              }
+            }
+          }
+        }
+      }
+
+      int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+              : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+      memo.store(hash, empties, bound, best, bestCell, toHandIndex(side, bestCard));
+      return best;
+    }
+
+    /**
+     * Converts a card bit to the card's index in the simulation's hand list, which is
+     * what the table stores so that other searches sharing it can read the move.
+     */
+    private int toHandIndex(PlayerColor side, int card) {
+      List<Card> hand = simulation.getPlayerHand(side);
+      for (int i = 0; i < hand.size(); i++) {
+        if (hand.get(i) == cards[card]) {
+          return i;
+        }
+      }
+      return TranspositionTable.NO_MOVE;
+    }
+
+    private int toCardIndex(PlayerColor side, int handIndex) {
+      List<Card> hand = simulation.getPlayerHand(side);
+      if (handIndex < 0 || handIndex >= hand.size()) {
+        return -1;
+      }
+      Card card = hand.get(handIndex);
+      for (long remaining = hands[side.ordinal()]; remaining != 0; remaining &= remaining - 1) {
+        int index = Long.numberOfTrailingZeros(remaining);
+        if (cards[index] == card) {
+          return index;
+        }
+      }
+      return -1;
+    }
+  }
+
+  private static boolean sameValues(Card first, Card second) {
+    for (Direction direction : DIRECTIONS) {
+      if (first.getValue(direction) != second.getValue(direction)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
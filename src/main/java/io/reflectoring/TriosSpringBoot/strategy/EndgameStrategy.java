@@ -0,0 +1,77 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import io.reflectoring.TriosSpringBoot.model.GameState;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+
+/**
+ * Strategy that plays another strategy's moves until the end of the game is near,
+ * and then plays perfectly.
+ * Once the number of empty cells is at or below the threshold, moves come from an
+ * exact endgame solver instead of the wrapped strategy.
+ */
+public class EndgameStrategy implements Strategy {
+  private final Strategy delegate;
+  private final EndgameSolver solver;
+  private final int threshold;
+
+  /**
+   * Constructor for the EndgameStrategy class.
+   *
+   * @param delegate the strategy to play with while more cells are empty
+   * @param solver the solver to play perfectly with
+   * @param threshold the most empty cells at which the solver takes over
+   * @throws IllegalArgumentException if delegate or solver is null or threshold is negative
+   */
+  public EndgameStrategy(Strategy delegate, EndgameSolver solver, int threshold) {
+    if (delegate == null || solver == null) {
+      throw new IllegalArgumentException("Delegate and solver cannot be null");
+    }
+    if (threshold < 0) {
+      throw new IllegalArgumentException("Threshold cannot be negative");
+    }
+    this.delegate = delegate;
+    this.solver = solver;
+    this.threshold = threshold;
+  }
+
+  @Override
+  public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player) {
+    Move move = solve(model, player);
+    return move != null ? move : delegate.chooseMove(model, player);
+  }
+
+  /**
+   * Chooses the solved move, or the delegate's move by the deadline. A solve still
+   * running at the deadline is given up and the delegate's move is played instead.
+   */
+  @Override
+  public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player, long deadlineNanos) {
+    Move move = isEndgame(model, player) ? solver.solve(model, deadlineNanos) : null;
+    return move != null ? move : delegate.chooseMove(model, player, deadlineNanos);
+  }
+
+  private Move solve(ReadOnlyThreeTriosModel model, PlayerColor player) {
+    return isEndgame(model, player) ? solver.solve(model) : null;
+  }
+
+  private boolean isEndgame(ReadOnlyThreeTriosModel model, PlayerColor player) {
+    return model.getGameState() != GameState.GAME_OVER
+            && model.getCurrentPlayerColor() == player
+            && model.getBoard().getEmptyCellCount() <= threshold;
+  }
+
+  @Override
+  public boolean isDeterministic() {
+    return delegate.isDeterministic();
+  }
+
+  /**
+   * Gets the strategy played with while more cells are empty than the threshold.
+   *
+   * @return the wrapped strategy
+   */
+  public Strategy getDelegate() {
+    return delegate;
+  }
+}
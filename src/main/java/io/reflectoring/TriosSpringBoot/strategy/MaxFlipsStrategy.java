@@ -3,10 +3,10 @@ package io.reflectoring.TriosSpringBoot.strategy;
 import io.reflectoring.TriosSpringBoot.model.Card;
 import io.reflectoring.TriosSpringBoot.model.Coordinate;
 import io.reflectoring.TriosSpringBoot.model.Direction;
+import io.reflectoring.TriosSpringBoot.model.FlipMatrix;
 import io.reflectoring.TriosSpringBoot.model.GameState;
 import io.reflectoring.TriosSpringBoot.model.PlayerColor;
 import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
-import java.util.List;
 
 /**
  * Strategy that chooses the move with the most flips.
@@ -18,21 +18,20 @@ public class MaxFlipsStrategy implements Strategy {
     if (model.getGameState() == GameState.GAME_OVER) {
       return null;
     }
-    List<Card> hand = model.getPlayerHand(player);
-    List<Coordinate> emptyCells = model.getBoard().getEmptyCardCells();
+    // Flip counts for the whole hand against every free cell, in one pass
+    FlipMatrix matrix = model.getFlipMatrix(model.getPlayerHand(player));
     Move bestMove = null;
     int maxFlips = -1;
 
-    for (Card card : hand) {
-      for (Coordinate pos : emptyCells) {
-        if (model.getBoard().canPlaceCard(pos)) {
-          int flips = model.getPotentialFlips(card, pos);
-          if (flips > maxFlips
-                  || (flips == maxFlips
-                  && shouldPreferMove(bestMove, card, pos, model, player))) {
-            maxFlips = flips;
-            bestMove = new Move(card, pos, flips);
-          }
+    for (int card = 0; card < matrix.getCardCount(); card++) {
+      for (int cell = 0; cell < matrix.getCellCount(); cell++) {
+        int flips = matrix.getFlips(card, cell);
+        if (flips > maxFlips
+                || (flips == maxFlips
+                && shouldPreferMove(bestMove, matrix.getCard(card), matrix.getPosition(cell),
+                model, player))) {
+          maxFlips = flips;
+          bestMove = new Move(matrix.getCard(card), matrix.getPosition(cell), flips);
         }
       }
     }
@@ -40,6 +39,11 @@ public class MaxFlipsStrategy implements Strategy {
     return bestMove;
   }
 
+  @Override
+  public boolean isDeterministic() {
+    return true;
+  }
+
   private boolean shouldPreferMove(Move currentBest, Card newCard, Coordinate newPos,
                                    ReadOnlyThreeTriosModel model, PlayerColor player) {
     if (currentBest == null) {
@@ -0,0 +1,440 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import io.reflectoring.TriosSpringBoot.model.Board;
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.FlipMatrix;
+import io.reflectoring.TriosSpringBoot.model.GameState;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+import io.reflectoring.TriosSpringBoot.model.ThreeTriosSimulation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Strategy that chooses moves by Monte Carlo tree search with root parallelism.
+ * Every worker grows its own UCT tree from its own simulation of the position, on a
+ * fork-join pool, until the time or playout budget runs out. The visit counts of the
+ * workers' root moves are then added up and the most visited move is played.
+ *
+ * <p>Trees are kept between moves. On the next turn each worker looks two plies down
+ * its old tree, past its own move and the opponent's reply, for the node whose
+ * position hash matches the game, and continues from that subtree. Trees are dropped
+ * once the game is over.
+ *
+ * <p>Nodes are created only when a playout first reaches them. Until then a node keeps
+ * its untried moves as packed hand and cell indices, so a position with many cards and
+ * free cells costs one small array rather than a node per move.
+ *
+ * <p>One instance keeps the trees of one game, so each AI player needs its own.
+ */
+public class MonteCarloTreeSearchStrategy implements Strategy {
+  /**
+   * How moves are chosen once a playout leaves the tree.
+   */
+  public enum Playout {
+    /**
+     * A random card at a random free cell.
+     */
+    RANDOM,
+    /**
+     * A random card at the free cell where it flips the most cards.
+     */
+    GREEDY
+  }
+
+  private static final Logger logger = LoggerFactory.getLogger(MonteCarloTreeSearchStrategy.class);
+
+  private static final double EXPLORATION = Math.sqrt(2);
+  private static final double WIN = 1.0;
+  private static final double DRAW = 0.5;
+
+  private final ForkJoinPool pool;
+  private final long timeBudgetNanos;
+  private final long playoutBudget;
+  private final Playout playout;
+  private final int workers;
+  private final SplittableRandom seeds;
+  private final Node[] retainedRoots;
+  private final SearchStatistics statistics;
+  private final ReentrantLock searchLock = new ReentrantLock();
+
+  /**
+   * Creates a strategy that runs random playouts on the common pool for the given time.
+   *
+   * @param timeBudgetMillis time allowed per move, in milliseconds
+   * @throws IllegalArgumentException if timeBudgetMillis is not positive
+   */
+  public MonteCarloTreeSearchStrategy(long timeBudgetMillis) {
+    this(ForkJoinPool.commonPool(), timeBudgetMillis, Long.MAX_VALUE, Playout.RANDOM,
+            new SplittableRandom(), null);
+  }
+
+  /**
+   * Creates a strategy that adds every search to shared statistics.
+   * A search stops at whichever budget runs out first.
+   *
+   * @param pool the pool to run workers on; one worker is started per unit of parallelism
+   * @param timeBudgetMillis time allowed per move, in milliseconds
+   * @param playoutBudget most playouts per move, summed over all workers
+   * @param playout how moves are chosen during playouts
+   * @param random source of the workers' random seeds
+   * @param statistics totals to record every search in, or null to record nothing
+   * @throws IllegalArgumentException if pool, playout or random is null or a budget is
+   *         not positive
+   */
+  public MonteCarloTreeSearchStrategy(ForkJoinPool pool, long timeBudgetMillis, long playoutBudget,
+                                      Playout playout, SplittableRandom random,
+                                      SearchStatistics statistics) {
+    if (pool == null || playout == null || random == null) {
+      throw new IllegalArgumentException("Arguments cannot be null");
+    }
+    if (timeBudgetMillis <= 0 || playoutBudget <= 0) {
+      throw new IllegalArgumentException("Budgets must be positive");
+    }
+    this.pool = pool;
+    this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+    this.playoutBudget = playoutBudget;
+    this.playout = playout;
+    this.workers = pool.getParallelism();
+    this.seeds = random;
+    this.retainedRoots = new Node[workers];
+    this.statistics = statistics;
+  }
+
+  /**
+   * Chooses the move visited most often by the workers.
+   * The value of the returned move is the percentage of its playouts the player won,
+   * counting draws as half.
+   *
+   * @return the move to make, or null if the game is over or it is not the player's turn
+   */
+  @Override
+  public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player) {
+    return chooseMove(model, player, System.nanoTime() + timeBudgetNanos);
+  }
+
+  /**
+   * Chooses the move visited most often by the workers, stopping the playouts at the
+   * deadline if it comes before the end of the time budget.
+   *
+   * @return the move to make, or null if the game is over or it is not the player's turn
+   */
+  @Override
+  public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player, long deadlineNanos) {
+    // A lock rather than synchronized: the caller blocks joining the workers, which
+    // would pin a virtual thread to its carrier for the whole search
+    searchLock.lock();
+    try {
+      return search(model, player, deadlineNanos);
+    } finally {
+      searchLock.unlock();
+    }
+  }
+
+  /**
+   * Runs the workers on the retained trees, one search at a time.
+   */
+  private Move search(ReadOnlyThreeTriosModel model, PlayerColor player, long deadlineNanos) {
+    if (model.getGameState() == GameState.GAME_OVER
+            || model.getBoard().getEmptyCellCount() == 0) {
+      Arrays.fill(retainedRoots, null);
+      return null;
+    }
+    if (model.getCurrentPlayerColor() != player || model.getPlayerHand(player).isEmpty()) {
+      return null;
+    }
+
+    long start = System.nanoTime();
+    long deadline = start + timeBudgetNanos;
+    if (deadlineNanos - deadline < 0) {
+      deadline = deadlineNanos;
+    }
+    long positionHash = model.getPositionHash();
+    AtomicLong playoutsLeft = new AtomicLong(playoutBudget);
+    List<ForkJoinTask<Node>> tasks = new ArrayList<>(workers);
+    int reused = 0;
+    long playouts = 0;
+    for (int worker = 0; worker < workers; worker++) {
+      Node root = findRetained(retainedRoots[worker], positionHash);
+      if (root == null) {
+        root = new Node(null, -1, null);
+      } else {
+        reused++;
+        playouts -= root.visits;
+      }
+      Worker task = new Worker(model.simulate(), root, seeds.split(), deadline, playoutsLeft);
+      tasks.add(pool.submit(task::run));
+    }
+
+    Board board = model.getBoard();
+    List<Card> hand = model.getPlayerHand(player);
+    int cellCount = board.getGrid().getCellCount();
+    long[] visits = new long[hand.size() * cellCount];
+    double[] wins = new double[visits.length];
+    for (int worker = 0; worker < workers; worker++) {
+      Node root = tasks.get(worker).join();
+      // The last move ends the game, so there is no later turn to reuse the trees on
+      retainedRoots[worker] = board.getEmptyCellCount() > 1 ? root : null;
+      playouts += root.visits;
+      for (Node child : root.children) {
+        int move = handIndex(hand, child.card) * cellCount + child.cell;
+        visits[move] += child.visits;
+        wins[move] += child.wins;
+      }
+    }
+
+    int best = -1;
+    for (int index = board.nextEmptyCell(0); index >= 0; index = board.nextEmptyCell(index + 1)) {
+      for (int card = 0; card < hand.size(); card++) {
+        int move = card * cellCount + index;
+        if (best < 0 || visits[move] > visits[best]) {
+          best = move;
+        }
+      }
+    }
+
+    long elapsed = System.nanoTime() - start;
+    if (statistics != null) {
+      statistics.record(SearchStatistics.Kind.MONTE_CARLO, playouts, elapsed, 0);
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("MCTS for {} ran {} playouts on {} workers ({} reused trees) in {} ms"
+                      + " ({} playouts/s per worker)",
+              player, playouts, workers, reused, TimeUnit.NANOSECONDS.toMillis(elapsed),
+              elapsed > 0 ? playouts * TimeUnit.SECONDS.toNanos(1) / elapsed / workers : playouts);
+    }
+
+    int winRate = visits[best] == 0 ? 0 : (int) Math.round(100 * wins[best] / visits[best]);
+    return new Move(hand.get(best / cellCount),
+            board.getGrid().getCoordinate(best % cellCount), winRate);
+  }
+
+  /**
+   * Looks for the node of a position among the grandchildren of a previous root,
+   * which are the positions after one move by each player.
+   *
+   * @return the node, or null if there is none
+   */
+  private static Node findRetained(Node previousRoot, long positionHash) {
+    if (previousRoot == null) {
+      return null;
+    }
+    for (Node child : previousRoot.children) {
+      for (Node grandchild : child.children) {
+        if (grandchild.visits > 0 && grandchild.hash == positionHash) {
+          return grandchild;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static int handIndex(List<Card> hand, Card card) {
+    for (int i = 0; i < hand.size(); i++) {
+      if (hand.get(i) == card) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("Card not in hand: " + card.getIdentifier());
+  }
+
+  /**
+   * Node of a search tree: the position after a move, with the results of the
+   * playouts that passed through it.
+   */
+  private static final class Node {
+    private final Card card;
+    private final int cell;
+    private final PlayerColor mover;
+    private final List<Node> children = new ArrayList<>();
+    private int[] untried;
+    private int untriedCount = -1;
+    private long hash;
+    private int visits;
+    private double wins;
+
+    /**
+     * Constructor for the Node class.
+     *
+     * @param card the card played to reach this node, or null for a new root
+     * @param cell the cell index it was played at
+     * @param mover the player who played it, whose point of view wins are counted from
+     */
+    Node(Card card, int cell, PlayerColor mover) {
+      this.card = card;
+      this.cell = cell;
+      this.mover = mover;
+    }
+
+    /**
+     * Whether the moves of this node's position have been listed yet.
+     */
+    boolean isExpanded() {
+      return untriedCount >= 0;
+    }
+  }
+
+  /**
+   * One tree grown on one simulation by one pool thread.
+   */
+  private final class Worker {
+    private final ThreeTriosSimulation simulation;
+    private final Node root;
+    private final SplittableRandom random;
+    private final long deadline;
+    private final AtomicLong playoutsLeft;
+    private final List<Node> path;
+
+    Worker(ThreeTriosSimulation simulation, Node root, SplittableRandom random,
+           long deadline, AtomicLong playoutsLeft) {
+      this.simulation = simulation;
+      this.root = root;
+      this.random = random;
+      this.deadline = deadline;
+      this.playoutsLeft = playoutsLeft;
+      this.path = new ArrayList<>();
+    }
+
+    Node run() {
+      expand(root);
+      while (System.nanoTime() - deadline < 0 && playoutsLeft.getAndDecrement() > 0) {
+        iterate();
+      }
+      return root;
+    }
+
+    /**
+     * Runs one selection, expansion, playout and backpropagation step.
+     */
+    private void iterate() {
+      int baseDepth = simulation.getMoveDepth();
+      path.clear();
+      path.add(root);
+      Node node = root;
+      while (simulation.getGameState() != GameState.GAME_OVER) {
+        expand(node);
+        node = select(node);
+        simulation.playCard(node.card, simulation.getBoard().getGrid().getCoordinate(node.cell));
+        path.add(node);
+        if (node.visits == 0) {
+          node.hash = simulation.getPositionHash();
+          break;
+        }
+      }
+
+      while (simulation.getGameState() != GameState.GAME_OVER) {
+        playMove();
+      }
+      PlayerColor winner = simulation.getWinner();
+      while (simulation.getMoveDepth() > baseDepth) {
+        simulation.undo();
+      }
+
+      for (Node visited : path) {
+        visited.visits++;
+        if (winner == null) {
+          visited.wins += DRAW;
+        } else if (winner == visited.mover) {
+          visited.wins += WIN;
+        }
+      }
+    }
+
+    /**
+     * Lists the moves of the player to move as untried moves, each packed as its hand
+     * index above its cell index. Children are only created as the moves are tried.
+     */
+    private void expand(Node node) {
+      if (node.isExpanded()) {
+        return;
+      }
+      List<Card> hand = simulation.getPlayerHand(simulation.getCurrentPlayerColor());
+      Board board = simulation.getBoard();
+      int[] moves = new int[hand.size() * board.getEmptyCellCount()];
+      int count = 0;
+      for (int card = 0; card < hand.size(); card++) {
+        for (int index = board.nextEmptyCell(0); index >= 0; index = board.nextEmptyCell(index + 1)) {
+          moves[count++] = card << 16 | index;
+        }
+      }
+      node.untried = moves;
+      node.untriedCount = count;
+    }
+
+    /**
+     * Adds a child for a random untried move while there are any, so that moves are tried
+     * in random order, and then picks the child with the highest UCT score.
+     */
+    private Node select(Node node) {
+      if (node.untriedCount > 0) {
+        int pick = random.nextInt(node.untriedCount);
+        int move = node.untried[pick];
+        node.untried[pick] = node.untried[--node.untriedCount];
+        if (node.untriedCount == 0) {
+          node.untried = null;
+        }
+        PlayerColor mover = simulation.getCurrentPlayerColor();
+        Node child = new Node(simulation.getPlayerHand(mover).get(move >>> 16), move & 0xFFFF, mover);
+        node.children.add(child);
+        return child;
+      }
+      double logVisits = Math.log(Math.max(node.visits, 1));
+      Node best = null;
+      double bestScore = Double.NEGATIVE_INFINITY;
+      for (Node child : node.children) {
+        if (child.visits == 0) {
+          return child;
+        }
+        double score = child.wins / child.visits
+                + EXPLORATION * Math.sqrt(logVisits / child.visits);
+        if (score > bestScore) {
+          bestScore = score;
+          best = child;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Plays one playout move for the player to move.
+     */
+    private void playMove() {
+      List<Card> hand = simulation.getPlayerHand(simulation.getCurrentPlayerColor());
+      Card card = hand.get(random.nextInt(hand.size()));
+      Board board = simulation.getBoard();
+
+      int cell;
+      if (playout == Playout.GREEDY) {
+        FlipMatrix matrix = simulation.getFlipMatrix(Collections.singletonList(card));
+        int bestColumn = 0;
+        int ties = 0;
+        for (int column = 0; column < matrix.getCellCount(); column++) {
+          int difference = matrix.getFlips(0, column) - matrix.getFlips(0, bestColumn);
+          if (difference > 0) {
+            bestColumn = column;
+            ties = 1;
+          } else if (difference == 0 && random.nextInt(++ties) == 0) {
+            bestColumn = column;
+          }
+        }
+        cell = matrix.getCellIndex(bestColumn);
+      } else {
+        cell = board.nextEmptyCell(0);
+        for (int skip = random.nextInt(board.getEmptyCellCount()); skip > 0; skip--) {
+          cell = board.nextEmptyCell(cell + 1);
+        }
+      }
+      simulation.playCard(card, board.getGrid().getCoordinate(cell));
+    }
+  }
+}
@@ -0,0 +1,281 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import io.reflectoring.TriosSpringBoot.model.Board;
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.GameState;
+import io.reflectoring.TriosSpringBoot.model.PositionCanonicalizer;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only table of precomputed moves for early game positions, keyed by board
+ * template and position hash. Books are written by {@link OpeningBookBuilder} and
+ * memory-mapped when opened, so looking a position up is a binary search over the
+ * mapped file without reading it into the heap.
+ *
+ * <p>The file is a 16-byte header (magic, version, template count, entry count), a
+ * 16-byte section per template (the template key of its grid layout and deck, its
+ * first entry and its entry count), then 16-byte entries sorted by position hash within
+ * each section: the hash, the card's values, the cell index and the move value.
+ * Positions are only looked up in the section of their own template, so a move analysed
+ * on one grid or deck is never replayed on another. Positions, cells and cards are
+ * stored in canonical form, so one entry serves every rotation or reflection of a
+ * position; cards are stored by their turned values rather than by hand index, which
+ * depends on the deal.
+ */
+public final class OpeningBook {
+  private static final int MAGIC = 0x54544F42;
+  private static final int VERSION = 4;
+  private static final int HEADER_BYTES = 16;
+  private static final int TEMPLATE_BYTES = 16;
+  private static final int ENTRY_BYTES = 16;
+
+  private final long[] templateKeys;
+  private final int[] templateFirsts;
+  private final int[] templateSizes;
+  private final ByteBuffer entries;
+  private final int size;
+
+  private OpeningBook(long[] templateKeys, int[] templateFirsts, int[] templateSizes,
+                      ByteBuffer entries, int size) {
+    this.templateKeys = templateKeys;
+    this.templateFirsts = templateFirsts;
+    this.templateSizes = templateSizes;
+    this.entries = entries;
+    this.size = size;
+  }
+
+  /**
+   * Memory-maps a book file.
+   *
+   * @param path the book file
+   * @return the book
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if path is null or the file is not a valid book
+   */
+  public static OpeningBook open(Path path) throws IOException {
+    if (path == null) {
+      throw new IllegalArgumentException("Path cannot be null");
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long length = channel.size();
+      if (length < HEADER_BYTES) {
+        throw new IllegalArgumentException("Not an opening book: " + path);
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+      if (buffer.getInt(0) != MAGIC) {
+        throw new IllegalArgumentException("Not an opening book: " + path);
+      }
+      if (buffer.getInt(4) != VERSION) {
+        throw new IllegalArgumentException("Unsupported opening book version: " + buffer.getInt(4));
+      }
+      int templates = buffer.getInt(8);
+      int size = buffer.getInt(12);
+      long entriesStart = HEADER_BYTES + (long) templates * TEMPLATE_BYTES;
+      if (templates < 0 || size < 0 || length != entriesStart + (long) size * ENTRY_BYTES) {
+        throw new IllegalArgumentException("Truncated opening book: " + path);
+      }
+      long[] templateKeys = new long[templates];
+      int[] templateFirsts = new int[templates];
+      int[] templateSizes = new int[templates];
+      int next = 0;
+      for (int i = 0; i < templates; i++) {
+        int offset = HEADER_BYTES + i * TEMPLATE_BYTES;
+        templateKeys[i] = buffer.getLong(offset);
+        templateFirsts[i] = buffer.getInt(offset + Long.BYTES);
+        templateSizes[i] = buffer.getInt(offset + Long.BYTES + Integer.BYTES);
+        if (templateFirsts[i] != next || templateSizes[i] < 0) {
+          throw new IllegalArgumentException("Corrupt opening book: " + path);
+        }
+        next += templateSizes[i];
+      }
+      if (next != size) {
+        throw new IllegalArgumentException("Corrupt opening book: " + path);
+      }
+      // The mapping stays valid after the channel is closed
+      return new OpeningBook(templateKeys, templateFirsts, templateSizes,
+              buffer.position((int) entriesStart).slice(), size);
+    }
+  }
+
+  /**
+   * Writes a book file. Entries are grouped by template in the order of the template
+   * keys, and must be sorted by position hash without duplicates within each template.
+   *
+   * @param path the file to write
+   * @param templateKeys the template key of each template, without duplicates
+   * @param templateSizes the number of entries of each template
+   * @param hashes the position hashes, ascending within each template
+   * @param cardValues the packed values of each entry's card
+   * @param cells the cell index of each entry's move
+   * @param values the value of each entry's move
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if the template arrays or the entry arrays differ
+   *         in length, a template size is negative or the sizes do not add up to the
+   *         entry count, a template key repeats or hashes are not ascending within a template
+   */
+  static void write(Path path, long[] templateKeys, int[] templateSizes, long[] hashes,
+                    int[] cardValues, int[] cells, int[] values) throws IOException {
+    int templates = templateKeys.length;
+    int size = hashes.length;
+    if (templateSizes.length != templates) {
+      throw new IllegalArgumentException("Template arrays must have the same length");
+    }
+    if (cardValues.length != size || cells.length != size || values.length != size) {
+      throw new IllegalArgumentException("Entry arrays must have the same length");
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(
+            HEADER_BYTES + templates * TEMPLATE_BYTES + size * ENTRY_BYTES);
+    buffer.putInt(MAGIC).putInt(VERSION).putInt(templates).putInt(size);
+    int first = 0;
+    for (int t = 0; t < templates; t++) {
+      for (int other = 0; other < t; other++) {
+        if (templateKeys[other] == templateKeys[t]) {
+          throw new IllegalArgumentException("Template keys must be unique");
+        }
+      }
+      if (templateSizes[t] < 0) {
+        throw new IllegalArgumentException("Template sizes cannot be negative");
+      }
+      buffer.putLong(templateKeys[t]).putInt(first).putInt(templateSizes[t]);
+      first += templateSizes[t];
+    }
+    if (first != size) {
+      throw new IllegalArgumentException("Template sizes must add up to the entry count");
+    }
+    first = 0;
+    for (int templateSize : templateSizes) {
+      for (int i = first; i < first + templateSize; i++) {
+        if (i > first && hashes[i - 1] >= hashes[i]) {
+          throw new IllegalArgumentException("Hashes must be ascending and unique");
+        }
+        buffer.putLong(hashes[i])
+                .putInt(cardValues[i])
+                .putShort((short) cells[i])
+                .putShort((short) Math.min(values[i], Short.MAX_VALUE));
+      }
+      first += templateSize;
+    }
+    Files.write(path, buffer.array());
+  }
+
+  /**
+   * Looks up the book move for the player to move.
+   *
+   * @param model the position to look up
+   * @return the book move, or null if the position is not in the book or its stored
+   *         move cannot be played in the position
+   */
+  public Move lookup(ReadOnlyThreeTriosModel model) {
+    return lookup(model, PositionCanonicalizer.of(model));
+  }
+
+  /**
+   * Looks up the book move for the player to move, with the canonicalizer of the
+   * position's game.
+   *
+   * @param model the position to look up
+   * @param canonicalizer the canonicalizer of the game
+   * @return the book move, or null if the book has no entries for the game's grid and
+   *         deck, the position is not in the book or its stored move cannot be played
+   *         in the position
+   */
+  public Move lookup(ReadOnlyThreeTriosModel model, PositionCanonicalizer canonicalizer) {
+    if (model.getGameState() == GameState.GAME_OVER) {
+      return null;
+    }
+    int template = findTemplate(canonicalizer.getTemplateKey());
+    if (template < 0) {
+      return null;
+    }
+    int symmetry = canonicalizer.canonicalSymmetry(model);
+    int entry = find(templateFirsts[template], templateSizes[template],
+            canonicalizer.hash(model, symmetry));
+    if (entry < 0) {
+      return null;
+    }
+
+    int offset = entry * ENTRY_BYTES;
+    int cardValues = entries.getInt(offset + Long.BYTES);
+    int canonicalCell = entries.getShort(offset + Long.BYTES + Integer.BYTES) & 0xFFFF;
+    int value = entries.getShort(offset + Long.BYTES + Integer.BYTES + Short.BYTES);
+
+    // Cards with equal values play alike, so any of them will do
+    Card card = null;
+    for (Card candidate : model.getPlayerHand(model.getCurrentPlayerColor())) {
+      if (canonicalizer.cardValues(symmetry, candidate) == cardValues) {
+        card = candidate;
+        break;
+      }
+    }
+    Board board = model.getBoard();
+    if (card == null || canonicalCell >= board.getGrid().getCellCount()) {
+      return null;
+    }
+    int cell = canonicalizer.unmapCell(symmetry, canonicalCell);
+    if (!board.canPlaceCard(cell)) {
+      return null;
+    }
+    return new Move(card, board.getGrid().getCoordinate(cell), Math.max(value, 0));
+  }
+
+  /**
+   * Finds the section of a template. Books hold few templates, so a scan is enough.
+   *
+   * @return the template index, or -1 if the template is not in the book
+   */
+  private int findTemplate(long templateKey) {
+    for (int template = 0; template < templateKeys.length; template++) {
+      if (templateKeys[template] == templateKey) {
+        return template;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Binary search for a position hash among the entries of one template.
+   *
+   * @return the entry index, or -1 if the hash is not in the section
+   */
+  private int find(int first, int count, long hash) {
+    int low = first;
+    int high = first + count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long stored = entries.getLong(middle * ENTRY_BYTES);
+      if (stored < hash) {
+        low = middle + 1;
+      } else if (stored > hash) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the number of positions in the book, over every template.
+   *
+   * @return the entry count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of board templates the book holds positions for.
+   *
+   * @return the template count
+   */
+  public int getTemplateCount() {
+    return templateKeys.length;
+  }
+}
@@ -0,0 +1,293 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import io.reflectoring.TriosSpringBoot.model.BasicThreeTriosGame;
+import io.reflectoring.TriosSpringBoot.model.Board;
+import io.reflectoring.TriosSpringBoot.model.BoardType;
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.GameState;
+import io.reflectoring.TriosSpringBoot.model.Player;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.PositionCanonicalizer;
+import io.reflectoring.TriosSpringBoot.model.ThreeTriosSimulation;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds opening books offline.
+ * For every board template (a grid file and a card file), each way of dealing the cards
+ * is started and every position reachable in the first few plies is analysed with a
+ * fixed-depth alpha-beta search, or solved exactly once few enough cells are empty.
+ * Both players' replies are expanded, so the book covers either color against any
+ * opponent. When a template has more deals than the limit, a seeded sample of deals is
+ * analysed instead, so the same arguments always build the same book. Positions are
+ * analysed once per canonical form and template; templates sharing a deck or a grid
+ * are kept apart by their template key.
+ *
+ * <p>Usage: {@code OpeningBookBuilder output plies depth maxDeals grid cards [grid cards ...]}.
+ */
+public final class OpeningBookBuilder {
+  /**
+   * Empty cells at or below which positions are solved exactly.
+   */
+  public static final int DEFAULT_ENDGAME_THRESHOLD = 7;
+
+  private static final Logger logger = LoggerFactory.getLogger(OpeningBookBuilder.class);
+  private static final long SAMPLE_SEED = 0x5EEDL;
+  private static final long TABLE_BYTES = 256L * 1024 * 1024;
+  private static final long ANALYSIS_BUDGET_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  private final int plies;
+  private final long maxDeals;
+  private final Strategy engine;
+  // Template key to position hash to card values, cell and value packed as in the book file
+  private final Map<Long, Map<Long, Long>> templates = new LinkedHashMap<>();
+
+  /**
+   * Constructor for the OpeningBookBuilder class.
+   *
+   * @param plies number of plies from the start of the game to analyse
+   * @param depth search depth in plies for positions that are not solved exactly
+   * @param maxDeals most deals to analyse per template
+   * @param endgameThreshold most empty cells at which positions are solved exactly
+   * @throws IllegalArgumentException if plies, depth or maxDeals is not positive or
+   *         endgameThreshold is negative
+   */
+  public OpeningBookBuilder(int plies, int depth, long maxDeals, int endgameThreshold) {
+    if (plies <= 0 || depth <= 0 || maxDeals <= 0) {
+      throw new IllegalArgumentException("Plies, depth and deal limit must be positive");
+    }
+    this.plies = plies;
+    this.maxDeals = maxDeals;
+    TranspositionTable table = new TranspositionTable(TABLE_BYTES);
+    this.engine = new EndgameStrategy(
+            new AlphaBetaStrategy(ANALYSIS_BUDGET_MILLIS, depth, table, null),
+            new EndgameSolver(table), endgameThreshold);
+  }
+
+  /**
+   * Builds a book.
+   *
+   * @param args output file, plies, search depth, deal limit, then pairs of grid and
+   *        card files
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 6 || args.length % 2 != 0) {
+      System.err.println(
+              "Usage: OpeningBookBuilder output plies depth maxDeals grid cards [grid cards ...]");
+      System.exit(2);
+    }
+    OpeningBookBuilder builder = new OpeningBookBuilder(Integer.parseInt(args[1]),
+            Integer.parseInt(args[2]), Long.parseLong(args[3]), DEFAULT_ENDGAME_THRESHOLD);
+    for (int i = 4; i < args.length; i += 2) {
+      builder.addTemplate(args[i], args[i + 1]);
+    }
+    builder.write(Path.of(args[0]));
+  }
+
+  /**
+   * Analyses the opening positions of a board template.
+   *
+   * @param gridFile path to the grid configuration file
+   * @param cardFile path to the card configuration file
+   * @throws IllegalArgumentException if the files are invalid or the deck holds more
+   *         than EndgameSolver.MAX_CARDS cards
+   */
+  public void addTemplate(String gridFile, String cardFile) {
+    DealtGame game = new DealtGame();
+    game.initializeGameFromFiles(gridFile, cardFile);
+    int deckSize = game.getPlayerHand(PlayerColor.RED).size()
+            + game.getPlayerHand(PlayerColor.BLUE).size();
+    if (deckSize >= EndgameSolver.MAX_CARDS) {
+      throw new IllegalArgumentException("Decks of more than "
+              + (EndgameSolver.MAX_CARDS - 1) + " cards are not supported");
+    }
+
+    long startTime = System.nanoTime();
+    long templateKey = PositionCanonicalizer.of(game).getTemplateKey();
+    Map<Long, Long> moves = templates.computeIfAbsent(templateKey, key -> new TreeMap<>());
+    int before = moves.size();
+    List<Long> deals = deals(deckSize);
+    for (long deal : deals) {
+      game.deal = deal;
+      game.initializeGameFromFiles(gridFile, cardFile);
+      game.startGame();
+      ThreeTriosSimulation simulation = game.simulate();
+      analyse(simulation, PositionCanonicalizer.of(simulation), moves, 0);
+    }
+    logger.info("Opening book template {} with {}: {} deals, {} positions in {} s",
+            gridFile, cardFile, deals.size(), moves.size() - before,
+            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTime));
+  }
+
+  /**
+   * Lists the deals to analyse as bitsets of the cards dealt to red, in deck order.
+   * All deals are listed when there are no more than maxDeals, otherwise a seeded sample.
+   */
+  private List<Long> deals(int deckSize) {
+    int handSize = deckSize / 2;
+    List<Long> deals = new ArrayList<>();
+    if (binomial(deckSize, handSize) <= maxDeals) {
+      // Gosper's hack: every bitset with handSize bits set, in increasing order
+      for (long deal = (1L << handSize) - 1; deal < 1L << deckSize; ) {
+        deals.add(deal);
+        long lowest = deal & -deal;
+        long ripple = deal + lowest;
+        deal = (((ripple ^ deal) >>> 2) / lowest) | ripple;
+      }
+      return deals;
+    }
+
+    SplittableRandom random = new SplittableRandom(SAMPLE_SEED);
+    int[] order = new int[deckSize];
+    Set<Long> seen = new HashSet<>();
+    while (deals.size() < maxDeals) {
+      for (int i = 0; i < deckSize; i++) {
+        order[i] = i;
+      }
+      long deal = 0;
+      for (int i = 0; i < handSize; i++) {
+        int pick = i + random.nextInt(deckSize - i);
+        int card = order[pick];
+        order[pick] = order[i];
+        order[i] = card;
+        deal |= 1L << card;
+      }
+      if (seen.add(deal)) {
+        deals.add(deal);
+      }
+    }
+    return deals;
+  }
+
+  /**
+   * Stores the engine's move for a position in its template's moves and analyses every
+   * position reachable from it within the ply limit.
+   */
+  private void analyse(ThreeTriosSimulation simulation, PositionCanonicalizer canonicalizer,
+                       Map<Long, Long> moves, int ply) {
+    if (ply >= plies || simulation.getGameState() == GameState.GAME_OVER) {
+      return;
+    }
+    int symmetry = canonicalizer.canonicalSymmetry(simulation);
+    long hash = canonicalizer.hash(simulation, symmetry);
+    if (!moves.containsKey(hash)) {
+      Move move = engine.chooseMove(simulation, simulation.getCurrentPlayerColor());
+      if (move != null) {
+        int cell = simulation.getBoard().getGrid().getIndex(move.getPosition());
+        int cardValues = canonicalizer.cardValues(symmetry, move.getCard());
+        moves.put(hash, (long) cardValues << 32
+                | (long) canonicalizer.mapCell(symmetry, cell) << 16
+                | Math.min(move.getValue(), Short.MAX_VALUE));
+      }
+    }
+    if (ply + 1 >= plies) {
+      return;
+    }
+
+    List<Card> hand = new ArrayList<>(simulation.getPlayerHand(simulation.getCurrentPlayerColor()));
+    Board board = simulation.getBoard();
+    for (Card card : hand) {
+      for (int cell = board.nextEmptyCell(0); cell >= 0; cell = board.nextEmptyCell(cell + 1)) {
+        simulation.playCard(card, board.getGrid().getCoordinate(cell));
+        analyse(simulation, canonicalizer, moves, ply + 1);
+        simulation.undo();
+      }
+    }
+  }
+
+  /**
+   * Writes every analysed position to a book file.
+   *
+   * @param path the file to write
+   * @throws IOException if the file cannot be written
+   */
+  public void write(Path path) throws IOException {
+    int size = size();
+    long[] templateKeys = new long[templates.size()];
+    int[] templateSizes = new int[templates.size()];
+    long[] hashes = new long[size];
+    int[] cardValues = new int[size];
+    int[] cells = new int[size];
+    int[] values = new int[size];
+    int t = 0;
+    int i = 0;
+    for (Map.Entry<Long, Map<Long, Long>> template : templates.entrySet()) {
+      templateKeys[t] = template.getKey();
+      templateSizes[t] = template.getValue().size();
+      t++;
+      for (Map.Entry<Long, Long> entry : template.getValue().entrySet()) {
+        long move = entry.getValue();
+        hashes[i] = entry.getKey();
+        cardValues[i] = (int) (move >>> 32);
+        cells[i] = (int) (move >>> 16) & 0xFFFF;
+        values[i] = (int) move & 0xFFFF;
+        i++;
+      }
+    }
+    OpeningBook.write(path, templateKeys, templateSizes, hashes, cardValues, cells, values);
+    logger.info("Opening book written to {}: {} templates, {} positions",
+            path, templateKeys.length, size);
+  }
+
+  /**
+   * Gets the number of positions analysed so far, over every template.
+   *
+   * @return the position count
+   */
+  public int size() {
+    int size = 0;
+    for (Map<Long, Long> moves : templates.values()) {
+      size += moves.size();
+    }
+    return size;
+  }
+
+  private static long binomial(int n, int k) {
+    long result = 1;
+    for (int i = 0; i < k; i++) {
+      if (result > Long.MAX_VALUE / (n - i)) {
+        return Long.MAX_VALUE;
+      }
+      result = result * (n - i) / (i + 1);
+    }
+    return result;
+  }
+
+  /**
+   * Game that deals a chosen split of the deck instead of shuffling.
+   */
+  private static final class DealtGame extends BasicThreeTriosGame {
+    private long deal;
+
+    DealtGame() {
+      setBoardType(BoardType.BITBOARD);
+    }
+
+    @Override
+    protected void distributeCards(List<Card> cards) {
+      if (deal == 0) {
+        super.distributeCards(cards);
+        return;
+      }
+      for (Player player : players.values()) {
+        player.getHand().clear();
+      }
+      for (int i = 0; i < cards.size(); i++) {
+        PlayerColor color = (deal & (1L << i)) != 0 ? PlayerColor.RED : PlayerColor.BLUE;
+        players.get(color).addCardToHand(cards.get(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.PositionCanonicalizer;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+
+/**
+ * Strategy that plays book moves while the game is in its opening book, and another
+ * strategy's moves once it leaves it.
+ */
+public class OpeningBookStrategy implements Strategy {
+  private final Strategy delegate;
+  private final OpeningBook book;
+  private volatile PositionCanonicalizer canonicalizer;
+
+  /**
+   * Constructor for the OpeningBookStrategy class.
+   *
+   * @param delegate the strategy to play with outside the book
+   * @param book the opening book
+   * @throws IllegalArgumentException if delegate or book is null
+   */
+  public OpeningBookStrategy(Strategy delegate, OpeningBook book) {
+    if (delegate == null || book == null) {
+      throw new IllegalArgumentException("Delegate and book cannot be null");
+    }
+    this.delegate = delegate;
+    this.book = book;
+  }
+
+  @Override
+  public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player) {
+    Move move = lookup(model, player);
+    return move != null ? move : delegate.chooseMove(model, player);
+  }
+
+  @Override
+  public Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player, long deadlineNanos) {
+    Move move = lookup(model, player);
+    return move != null ? move : delegate.chooseMove(model, player, deadlineNanos);
+  }
+
+  private Move lookup(ReadOnlyThreeTriosModel model, PlayerColor player) {
+    if (model.getCurrentPlayerColor() != player) {
+      return null;
+    }
+    PositionCanonicalizer current = canonicalizer;
+    if (current == null || !current.isFor(model)) {
+      current = PositionCanonicalizer.of(model);
+      canonicalizer = current;
+    }
+    return book.lookup(model, current);
+  }
+
+  @Override
+  public boolean isDeterministic() {
+    return delegate.isDeterministic();
+  }
+
+  /**
+   * Gets the strategy played with outside the book.
+   *
+   * @return the wrapped strategy
+   */
+  public Strategy getDelegate() {
+    return delegate;
+  }
+}
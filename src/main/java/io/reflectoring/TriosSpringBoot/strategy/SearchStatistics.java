@@ -0,0 +1,106 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totals of the searches run by AI strategies, by kind of search, so they can be
+ * published as metrics instead of being logged for every move. One instance is shared
+ * by every strategy a factory creates, and searches on any thread may record into it.
+ */
+public final class SearchStatistics {
+  /**
+   * Kinds of search counted separately.
+   */
+  public enum Kind {
+    /** Alpha-beta search with iterative deepening; nodes are positions searched. */
+    ALPHA_BETA,
+    /** Monte Carlo tree search; nodes are playouts, and no depth is completed. */
+    MONTE_CARLO,
+    /** Exact endgame solving; nodes are positions searched and depth is the empty cells. */
+    ENDGAME
+  }
+
+  private final Map<Kind, Counters> counters = new EnumMap<>(Kind.class);
+
+  /**
+   * Totals of one kind of search.
+   */
+  private static final class Counters {
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder plies = new LongAdder();
+  }
+
+  /**
+   * Creates statistics with every total at zero.
+   */
+  public SearchStatistics() {
+    for (Kind kind : Kind.values()) {
+      counters.put(kind, new Counters());
+    }
+  }
+
+  /**
+   * Records one finished search.
+   *
+   * @param kind the kind of search
+   * @param nodes the nodes the search visited
+   * @param nanos the time the search took, in nanoseconds
+   * @param plies the depth the search completed, in plies
+   * @throws IllegalArgumentException if kind is null
+   */
+  public void record(Kind kind, long nodes, long nanos, int plies) {
+    if (kind == null) {
+      throw new IllegalArgumentException("Kind cannot be null");
+    }
+    Counters totals = counters.get(kind);
+    totals.searches.increment();
+    totals.nanos.add(nanos);
+    totals.nodes.add(nodes);
+    totals.plies.add(plies);
+  }
+
+  /**
+   * Gets the number of searches of a kind.
+   *
+   * @param kind the kind of search
+   * @return the search count
+   */
+  public long getSearches(Kind kind) {
+    return counters.get(kind).searches.sum();
+  }
+
+  /**
+   * Gets the total time spent in searches of a kind.
+   *
+   * @param kind the kind of search
+   * @return the total time in nanoseconds
+   */
+  public long getNanos(Kind kind) {
+    return counters.get(kind).nanos.sum();
+  }
+
+  /**
+   * Gets the total nodes visited by searches of a kind.
+   *
+   * @param kind the kind of search
+   * @return the node count
+   */
+  public long getNodes(Kind kind) {
+    return counters.get(kind).nodes.sum();
+  }
+
+  /**
+   * Gets the total depth completed by searches of a kind; divided by the search count
+   * it gives the mean depth.
+   *
+   * @param kind the kind of search
+   * @return the sum of the completed depths, in plies
+   */
+  public long getPlies(Kind kind) {
+    return counters.get(kind).plies.sum();
+  }
+}
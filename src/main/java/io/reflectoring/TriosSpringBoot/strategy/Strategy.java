@@ -13,4 +13,27 @@ public interface Strategy {
    * @return Move to make, or null if no valid moves.
    */
   Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player);
+
+  /**
+   * Chooses the best move for the given player by a deadline. Searching strategies
+   * stop at the deadline or at the end of their own time budget, whichever comes
+   * first; strategies that do not search ignore the deadline.
+   *
+   * @param deadlineNanos the {@link System#nanoTime()} value by which the move is needed
+   * @return Move to make, or null if no valid moves.
+   */
+  default Move chooseMove(ReadOnlyThreeTriosModel model, PlayerColor player, long deadlineNanos) {
+    return chooseMove(model, player);
+  }
+
+  /**
+   * Whether the strategy always chooses an equally good move for the same position.
+   * Moves of deterministic strategies may be cached and replayed in other games;
+   * strategies that depend on time budgets or randomness are not deterministic.
+   *
+   * @return true if the strategy's moves depend only on the position
+   */
+  default boolean isDeterministic() {
+    return false;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Creates the strategies behind AI player types.
+ * Strategies that search share the factory's transposition table, so every AI player
+ * created through one factory reuses the results of the others. With a table and an
+ * endgame threshold, every strategy switches to exact play for the last cells. With an
+ * opening book, every strategy plays book moves first. With a decision cache, the moves
+ * of deterministic strategies are shared across games. With an evaluation pool,
+ * strategies that score every candidate move score them in parallel. Monte Carlo
+ * strategies run their workers on the factory's search pool, the common pool unless one
+ * is given. Every search run by the
+ * factory's strategies is added to its {@link SearchStatistics}.
+ */
+public class StrategyFactory {
+  /**
+   * Every AI player type the factory creates strategies for.
+   */
+  public static final List<String> AI_PLAYER_TYPES =
+          List.of("maxflips", "corner", "alphabeta", "mcts");
+
+  private final TranspositionTable transpositionTable;
+  private final long searchTimeBudgetMillis;
+  private final long playoutBudget;
+  private final int endgameThreshold;
+  private final OpeningBook openingBook;
+  private final DecisionCache decisionCache;
+  private final ForkJoinPool evaluationPool;
+  private final ForkJoinPool searchPool;
+  private final SearchStatistics searchStatistics = new SearchStatistics();
+
+  /**
+   * Creates a factory whose searching strategies use the default time budget,
+   * no transposition table and no playout budget.
+   */
+  public StrategyFactory() {
+    this(null, AlphaBetaStrategy.DEFAULT_TIME_BUDGET_MILLIS);
+  }
+
+  /**
+   * Creates a factory with a transposition table and a time budget and nothing else.
+   *
+   * @param transpositionTable table shared by searching strategies, or null for none
+   * @param searchTimeBudgetMillis time allowed per move for searching strategies, in milliseconds
+   * @throws IllegalArgumentException if searchTimeBudgetMillis is not positive
+   */
+  public StrategyFactory(TranspositionTable transpositionTable, long searchTimeBudgetMillis) {
+    this(builder().transpositionTable(transpositionTable).searchTimeBudgetMillis(searchTimeBudgetMillis));
+  }
+
+  private StrategyFactory(Builder builder) {
+    if (builder.endgameThreshold < 0) {
+      throw new IllegalArgumentException("Endgame threshold cannot be negative");
+    }
+    if (builder.searchTimeBudgetMillis <= 0) {
+      throw new IllegalArgumentException("Time budget must be positive");
+    }
+    if (builder.playoutBudget <= 0) {
+      throw new IllegalArgumentException("Playout budget must be positive");
+    }
+    this.transpositionTable = builder.transpositionTable;
+    this.searchTimeBudgetMillis = builder.searchTimeBudgetMillis;
+    this.playoutBudget = builder.playoutBudget;
+    this.endgameThreshold = builder.endgameThreshold;
+    this.openingBook = builder.openingBook;
+    this.decisionCache = builder.decisionCache;
+    this.evaluationPool = builder.evaluationPool;
+    this.searchPool = builder.searchPool != null ? builder.searchPool : ForkJoinPool.commonPool();
+  }
+
+  /**
+   * Starts a factory with the default time budget and none of the optional parts.
+   *
+   * @return a builder for the factory
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Collects the settings of a factory. Every setting left alone keeps the value of the
+   * no-argument constructor.
+   */
+  public static final class Builder {
+    private TranspositionTable transpositionTable;
+    private long searchTimeBudgetMillis = AlphaBetaStrategy.DEFAULT_TIME_BUDGET_MILLIS;
+    private long playoutBudget = Long.MAX_VALUE;
+    private int endgameThreshold;
+    private OpeningBook openingBook;
+    private DecisionCache decisionCache;
+    private ForkJoinPool evaluationPool;
+    private ForkJoinPool searchPool;
+
+    private Builder() {
+    }
+
+    /**
+     * Sets the table shared by searching strategies.
+     *
+     * @param transpositionTable table shared by searching strategies and the endgame
+     *        solver, or null for none
+     * @return this builder
+     */
+    public Builder transpositionTable(TranspositionTable transpositionTable) {
+      this.transpositionTable = transpositionTable;
+      return this;
+    }
+
+    /**
+     * Sets the time budget of searching strategies.
+     *
+     * @param searchTimeBudgetMillis time allowed per move for searching strategies, in
+     *        milliseconds
+     * @return this builder
+     */
+    public Builder searchTimeBudgetMillis(long searchTimeBudgetMillis) {
+      this.searchTimeBudgetMillis = searchTimeBudgetMillis;
+      return this;
+    }
+
+    /**
+     * Sets the playout budget of Monte Carlo strategies.
+     *
+     * @param playoutBudget most playouts per move for Monte Carlo strategies
+     * @return this builder
+     */
+    public Builder playoutBudget(long playoutBudget) {
+      this.playoutBudget = playoutBudget;
+      return this;
+    }
+
+    /**
+     * Sets when strategies switch to exact play.
+     *
+     * @param endgameThreshold most empty cells at which strategies are solved exactly, or
+     *        0 to never solve; ignored without a transposition table
+     * @return this builder
+     */
+    public Builder endgameThreshold(int endgameThreshold) {
+      this.endgameThreshold = endgameThreshold;
+      return this;
+    }
+
+    /**
+     * Sets the opening book.
+     *
+     * @param openingBook book consulted before every strategy, or null for none
+     * @return this builder
+     */
+    public Builder openingBook(OpeningBook openingBook) {
+      this.openingBook = openingBook;
+      return this;
+    }
+
+    /**
+     * Sets the cache shared by deterministic strategies.
+     *
+     * @param decisionCache cache for the moves of deterministic strategies, or null for
+     *        none; a cache must not be shared with factories configured differently
+     * @return this builder
+     */
+    public Builder decisionCache(DecisionCache decisionCache) {
+      this.decisionCache = decisionCache;
+      return this;
+    }
+
+    /**
+     * Sets the pool candidate moves are scored on.
+     *
+     * @param evaluationPool pool that evaluation strategies score candidate moves on, or
+     *        null to score them on the calling thread; a pool with a parallelism of 1 also
+     *        keeps scoring on the calling thread
+     * @return this builder
+     */
+    public Builder evaluationPool(ForkJoinPool evaluationPool) {
+      this.evaluationPool = evaluationPool;
+      return this;
+    }
+
+    /**
+     * Sets the pool Monte Carlo strategies run their workers on.
+     *
+     * @param searchPool pool with one worker per unit of parallelism for each search, or
+     *        null for the common pool
+     * @return this builder
+     */
+    public Builder searchPool(ForkJoinPool searchPool) {
+      this.searchPool = searchPool;
+      return this;
+    }
+
+    /**
+     * Creates the factory.
+     *
+     * @return the factory
+     * @throws IllegalArgumentException if the time or playout budget is not positive or
+     *         the endgame threshold is negative
+     */
+    public StrategyFactory build() {
+      return new StrategyFactory(this);
+    }
+  }
+
+  /**
+   * Creates the strategy for an AI player type.
+   *
+   * @param playerType the player type, case-insensitive
+   * @return a new strategy
+   * @throws IllegalArgumentException if playerType is null or not an AI player type
+   */
+  public Strategy createStrategy(String playerType) {
+    Strategy strategy = createBaseStrategy(playerType);
+    if (transpositionTable != null && endgameThreshold > 0) {
+      strategy = new EndgameStrategy(strategy,
+              new EndgameSolver(transpositionTable, searchStatistics), endgameThreshold);
+    }
+    if (decisionCache != null && strategy.isDeterministic()) {
+      strategy = new CachingStrategy(strategy, decisionCache, playerType.toLowerCase());
+    }
+    if (openingBook != null) {
+      strategy = new OpeningBookStrategy(strategy, openingBook);
+    }
+    return strategy;
+  }
+
+  private Strategy createBaseStrategy(String playerType) {
+    if (playerType == null) {
+      throw new IllegalArgumentException("Player type cannot be null");
+    }
+
+    switch (playerType.toLowerCase()) {
+      case "maxflips":
+        return new MaxFlipsStrategy();
+      case "corner":
+        return evaluationPool == null ? new CornerStrategy() : new CornerStrategy(evaluationPool);
+      case "alphabeta":
+        return new AlphaBetaStrategy(searchTimeBudgetMillis, Integer.MAX_VALUE, transpositionTable,
+                searchStatistics);
+      case "mcts":
+        return new MonteCarloTreeSearchStrategy(searchPool, searchTimeBudgetMillis,
+                playoutBudget, MonteCarloTreeSearchStrategy.Playout.GREEDY, new SplittableRandom(),
+                searchStatistics);
+      default:
+        throw new IllegalArgumentException("Invalid AI player type: " + playerType
+                + ". Use 'maxflips', 'corner', 'alphabeta', or 'mcts'");
+    }
+  }
+
+  /**
+   * Gets the transposition table shared by searching strategies.
+   *
+   * @return the table, or null if strategies search without one
+   */
+  public TranspositionTable getTranspositionTable() {
+    return transpositionTable;
+  }
+
+  /**
+   * Gets the opening book consulted before every strategy.
+   *
+   * @return the book, or null if strategies play without one
+   */
+  public OpeningBook getOpeningBook() {
+    return openingBook;
+  }
+
+  /**
+   * Gets the totals of the searches run by the factory's strategies.
+   *
+   * @return the statistics
+   */
+  public SearchStatistics getSearchStatistics() {
+    return searchStatistics;
+  }
+
+  /**
+   * Gets the cache shared by deterministic strategies.
+   *
+   * @return the cache, or null if strategies do not share decisions
+   */
+  public DecisionCache getDecisionCache() {
+    return decisionCache;
+  }
+}
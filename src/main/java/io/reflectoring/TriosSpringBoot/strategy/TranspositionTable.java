@@ -0,0 +1,279 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size cache of search results keyed by position hash, shared by every search
+ * that is given it.
+ *
+ * <p>Entries live in one {@code long[]} as pairs of words: the entry data and the
+ * position hash XOR-ed with the data. Threads read and write entries without locks;
+ * an entry torn by a concurrent write fails the XOR check and reads as a miss, so a
+ * probe never returns data stored for a different position.
+ *
+ * <p>The entry data packs the score, the searched depth, the kind of bound the score
+ * is, the search generation that stored it and an optional best move. Entries are
+ * grouped in buckets of two. A store replaces the entry for the same position if
+ * there is one, and otherwise evicts the entry with the lowest priority, where
+ * entries from earlier generations rank below all current ones and shallower
+ * entries rank below deeper ones.
+ */
+public final class TranspositionTable {
+  /**
+   * Returned by probe when the position is not in the table.
+   */
+  public static final long MISS = 0L;
+
+  /**
+   * Bound type of a score that is the exact value of the position.
+   */
+  public static final int EXACT = 1;
+
+  /**
+   * Bound type of a score that the position's value is at least.
+   */
+  public static final int LOWER_BOUND = 2;
+
+  /**
+   * Bound type of a score that the position's value is at most.
+   */
+  public static final int UPPER_BOUND = 3;
+
+  /**
+   * Best move cell or card of an entry stored without a best move.
+   */
+  public static final int NO_MOVE = -1;
+
+  private static final int ENTRY_LONGS = 2;
+  private static final int BUCKET_ENTRIES = 2;
+  private static final int BUCKET_LONGS = ENTRY_LONGS * BUCKET_ENTRIES;
+  private static final long BUCKET_BYTES = (long) BUCKET_LONGS * Long.BYTES;
+  private static final int MAX_BUCKETS = 1 << 28;
+
+  private static final int DEPTH_SHIFT = 16;
+  private static final int BOUND_SHIFT = 24;
+  private static final int AGE_SHIFT = 26;
+  private static final int CELL_SHIFT = 34;
+  private static final int CARD_SHIFT = 50;
+  private static final int MAX_DEPTH = 0xFF;
+  private static final int AGE_MASK = 0xFF;
+  private static final int CELL_MASK = 0xFFFF;
+  private static final int CARD_MASK = 0xFF;
+
+  private final long[] slots;
+  private final int bucketMask;
+  private final AtomicInteger generation;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder stores;
+
+  /**
+   * Constructor for the TranspositionTable class.
+   * The table is sized to the largest power-of-two number of buckets that fits the budget.
+   *
+   * @param memoryBytes the memory budget for entries, in bytes
+   * @throws IllegalArgumentException if the budget is smaller than one bucket
+   */
+  public TranspositionTable(long memoryBytes) {
+    if (memoryBytes < BUCKET_BYTES) {
+      throw new IllegalArgumentException("Memory budget must be at least " + BUCKET_BYTES + " bytes");
+    }
+    int buckets = (int) Math.min(Long.highestOneBit(memoryBytes / BUCKET_BYTES), MAX_BUCKETS);
+    this.slots = new long[buckets * BUCKET_LONGS];
+    this.bucketMask = buckets - 1;
+    this.generation = new AtomicInteger();
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.stores = new LongAdder();
+  }
+
+  /**
+   * Starts a new search generation. Entries stored by earlier generations stay
+   * readable but are the first to be replaced.
+   */
+  public void newSearch() {
+    generation.incrementAndGet();
+  }
+
+  /**
+   * Looks up a position.
+   *
+   * @param hash the position hash
+   * @return the entry data, to be read with the static accessors, or MISS
+   */
+  public long probe(long hash) {
+    int bucket = bucketOf(hash);
+    for (int slot = bucket; slot < bucket + BUCKET_LONGS; slot += ENTRY_LONGS) {
+      long data = slots[slot + 1];
+      if (data != MISS && (slots[slot] ^ data) == hash) {
+        hits.increment();
+        return data;
+      }
+    }
+    misses.increment();
+    return MISS;
+  }
+
+  /**
+   * Stores the result of searching a position.
+   *
+   * @param hash the position hash
+   * @param depth the depth the position was searched to; deeper searches are capped at 255
+   * @param bound the bound type of the score, one of EXACT, LOWER_BOUND or UPPER_BOUND
+   * @param score the score of the position for the player to move
+   * @param bestCell the grid cell index of the best move, or NO_MOVE
+   * @param bestCard the hand index of the card of the best move, or NO_MOVE
+   * @throws IllegalArgumentException if depth is negative, bound is unknown, score does
+   *         not fit in 16 bits or the best move cannot be stored
+   */
+  public void store(long hash, int depth, int bound, int score, int bestCell, int bestCard) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("Depth cannot be negative");
+    }
+    if (bound < EXACT || bound > UPPER_BOUND) {
+      throw new IllegalArgumentException("Invalid bound type: " + bound);
+    }
+    if (score < Short.MIN_VALUE || score > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Score out of range: " + score);
+    }
+    if (bestCell < NO_MOVE || bestCell >= CELL_MASK || bestCard < NO_MOVE || bestCard >= CARD_MASK) {
+      throw new IllegalArgumentException("Best move out of range");
+    }
+
+    int age = generation.get() & AGE_MASK;
+    long data = (score & 0xFFFFL)
+            | (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT
+            | (long) bound << BOUND_SHIFT
+            | (long) age << AGE_SHIFT
+            | (long) (bestCell & CELL_MASK) << CELL_SHIFT
+            | (long) (bestCard & CARD_MASK) << CARD_SHIFT;
+
+    int bucket = bucketOf(hash);
+    int victim = bucket;
+    int victimPriority = Integer.MAX_VALUE;
+    for (int slot = bucket; slot < bucket + BUCKET_LONGS; slot += ENTRY_LONGS) {
+      long existing = slots[slot + 1];
+      if (existing != MISS && (slots[slot] ^ existing) == hash) {
+        victim = slot;
+        break;
+      }
+      int priority = existing == MISS ? -1
+              : depth(existing) + (age(existing) == age ? MAX_DEPTH + 1 : 0);
+      if (priority < victimPriority) {
+        victim = slot;
+        victimPriority = priority;
+      }
+    }
+    slots[victim] = hash ^ data;
+    slots[victim + 1] = data;
+    stores.increment();
+  }
+
+  private int bucketOf(long hash) {
+    return ((int) hash & bucketMask) * BUCKET_LONGS;
+  }
+
+  /**
+   * Removes every entry and resets the counters.
+   */
+  public void clear() {
+    Arrays.fill(slots, 0L);
+    hits.reset();
+    misses.reset();
+    stores.reset();
+  }
+
+  /**
+   * Gets the score of an entry.
+   *
+   * @param entry entry data returned by probe
+   * @return the stored score
+   */
+  public static int score(long entry) {
+    return (short) entry;
+  }
+
+  /**
+   * Gets the searched depth of an entry.
+   *
+   * @param entry entry data returned by probe
+   * @return the stored depth
+   */
+  public static int depth(long entry) {
+    return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+  }
+
+  /**
+   * Gets the bound type of an entry.
+   *
+   * @param entry entry data returned by probe
+   * @return EXACT, LOWER_BOUND or UPPER_BOUND
+   */
+  public static int bound(long entry) {
+    return (int) (entry >>> BOUND_SHIFT) & 0x3;
+  }
+
+  /**
+   * Gets the grid cell index of the best move of an entry.
+   *
+   * @param entry entry data returned by probe
+   * @return the cell index, or NO_MOVE
+   */
+  public static int bestCell(long entry) {
+    int cell = (int) (entry >>> CELL_SHIFT) & CELL_MASK;
+    return cell == CELL_MASK ? NO_MOVE : cell;
+  }
+
+  /**
+   * Gets the hand index of the card of the best move of an entry.
+   *
+   * @param entry entry data returned by probe
+   * @return the hand index, or NO_MOVE
+   */
+  public static int bestCard(long entry) {
+    int card = (int) (entry >>> CARD_SHIFT) & CARD_MASK;
+    return card == CARD_MASK ? NO_MOVE : card;
+  }
+
+  private static int age(long entry) {
+    return (int) (entry >>> AGE_SHIFT) & AGE_MASK;
+  }
+
+  /**
+   * Gets the number of entries the table can hold.
+   *
+   * @return the capacity in entries
+   */
+  public int getCapacity() {
+    return slots.length / ENTRY_LONGS;
+  }
+
+  /**
+   * Gets the number of probes that found their position.
+   *
+   * @return the hit count since creation or the last clear
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of probes that did not find their position.
+   *
+   * @return the miss count since creation or the last clear
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the number of entries stored.
+   *
+   * @return the store count since creation or the last clear
+   */
+  public long getStores() {
+    return stores.sum();
+  }
+}
@@ -5,6 +5,8 @@ import java.util.List;
 
 /**
  * DTO representing the complete state of a game.
+ * States are immutable snapshots; each applied move publishes a new one with the next
+ * version, so clients can tell whether a state is newer than the one they hold.
  */
 public record GameStateDTO(
         String gameId,
@@ -16,7 +18,8 @@ public record GameStateDTO(
         Integer redScore,
         Integer blueScore,
         String winner,  // null if game not over
-        String selectedCard  // ID of currently selected card, null if none
+        String selectedCard,  // ID of currently selected card, null if none
+        long version  // number of moves applied when the snapshot was taken
 ) {
     /**
      * Creates a new GameStateDTO with validation.
@@ -40,6 +43,9 @@ public record GameStateDTO(
         if (redScore == null || blueScore == null) {
             throw new IllegalArgumentException("Scores cannot be null");
         }
+        if (version < 0) {
+            throw new IllegalArgumentException("Version cannot be negative");
+        }
     }
 
     /**
@@ -0,0 +1,138 @@
+package io.reflectoring.TriosSpringBoot.benchmark;
+
+import io.reflectoring.TriosSpringBoot.model.BasicThreeTriosGame;
+import io.reflectoring.TriosSpringBoot.model.BoardType;
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.Coordinate;
+import io.reflectoring.TriosSpringBoot.model.FlipMatrix;
+import io.reflectoring.TriosSpringBoot.model.GameState;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+import io.reflectoring.TriosSpringBoot.strategy.MaxFlipsStrategy;
+import io.reflectoring.TriosSpringBoot.strategy.Move;
+import io.reflectoring.TriosSpringBoot.strategy.Strategy;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Measures the garbage produced by steady-state move evaluation.
+ * For every board type, a game is played halfway with the max flips strategy, then
+ * every card in the current player's hand is evaluated at every free cell of a
+ * simulation of the game, as searches do, over and over while the bytes allocated by
+ * the benchmark thread are sampled. Evaluation is
+ * measured both one card and cell at a time and as a whole-hand flip matrix.
+ *
+ * <p>Usage: {@code AllocationBenchmark [gridFile cardFile [rounds]]}. Paths default
+ * to the 5x5 configuration under {@code src/main/resources/config}.
+ */
+public final class AllocationBenchmark {
+  private static final String DEFAULT_GRID =
+          "src/main/resources/config/5x5BoardConnectedCardCells.txt";
+  private static final String DEFAULT_CARDS =
+          "src/main/resources/config/CompleteCardSet.txt";
+  private static final int DEFAULT_ROUNDS = 20_000;
+  private static final int WARMUP_ROUNDS = 5_000;
+
+  private AllocationBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional grid file, card file and number of measured rounds
+   */
+  public static void main(String[] args) {
+    String gridFile = args.length >= 2 ? args[0] : DEFAULT_GRID;
+    String cardFile = args.length >= 2 ? args[1] : DEFAULT_CARDS;
+    int rounds = args.length >= 3 ? Integer.parseInt(args[2]) : DEFAULT_ROUNDS;
+
+    com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threads.isThreadAllocatedMemorySupported()) {
+      throw new IllegalStateException("JVM does not report per-thread allocation");
+    }
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    System.out.printf("%-9s %-7s %14s %12s %12s %12s %10s%n",
+            "board", "method", "evaluations", "bytes", "bytes/eval", "ns/eval", "checksum");
+    for (BoardType boardType : BoardType.values()) {
+      ReadOnlyThreeTriosModel game = createMidGame(boardType, gridFile, cardFile).simulate();
+      PlayerColor player = game.getCurrentPlayerColor();
+      List<Card> hand = game.getPlayerHand(player);
+      List<Coordinate> emptyCells = game.getBoard().getEmptyCardCells();
+      long evaluations = (long) rounds * hand.size() * emptyCells.size();
+
+      evaluate(game, hand, emptyCells, WARMUP_ROUNDS);
+      long startBytes = threads.getCurrentThreadAllocatedBytes();
+      long startTime = System.nanoTime();
+      long sink = evaluate(game, hand, emptyCells, rounds);
+      report(boardType, "single", evaluations, startBytes, startTime, sink, threads);
+
+      evaluateMatrix(game, hand, WARMUP_ROUNDS);
+      startBytes = threads.getCurrentThreadAllocatedBytes();
+      startTime = System.nanoTime();
+      sink = evaluateMatrix(game, hand, rounds);
+      report(boardType, "matrix", evaluations, startBytes, startTime, sink, threads);
+    }
+  }
+
+  /**
+   * Prints one result line. The flip total is printed as a checksum, which also
+   * keeps the evaluations from being optimised away.
+   */
+  private static void report(BoardType boardType, String method, long evaluations,
+                             long startBytes, long startTime, long sink,
+                             com.sun.management.ThreadMXBean threads) {
+    long elapsed = System.nanoTime() - startTime;
+    long allocated = threads.getCurrentThreadAllocatedBytes() - startBytes;
+    System.out.printf("%-9s %-7s %14d %12d %12.2f %12.1f %10d%n", boardType, method,
+            evaluations, allocated, (double) allocated / evaluations,
+            (double) elapsed / evaluations, sink);
+  }
+
+  /**
+   * Sets up a game and plays half of its moves, so that evaluations see a
+   * realistic mix of empty cells and adjacent cards.
+   */
+  private static BasicThreeTriosGame createMidGame(BoardType boardType,
+                                                   String gridFile, String cardFile) {
+    BasicThreeTriosGame game = new BasicThreeTriosGame();
+    game.setBoardType(boardType);
+    game.initializeGameFromFiles(gridFile, cardFile);
+    game.startGame();
+
+    Strategy strategy = new MaxFlipsStrategy();
+    int moves = game.getBoard().getGrid().getCardCellCount() / 2;
+    for (int i = 0; i < moves && game.getGameState() != GameState.GAME_OVER; i++) {
+      Move move = strategy.chooseMove(game, game.getCurrentPlayerColor());
+      game.playCard(move.getCard(), move.getPosition());
+    }
+    return game;
+  }
+
+  private static long evaluate(ReadOnlyThreeTriosModel game, List<Card> hand,
+                               List<Coordinate> emptyCells, int rounds) {
+    long totalFlips = 0;
+    for (int round = 0; round < rounds; round++) {
+      for (int card = 0; card < hand.size(); card++) {
+        for (int cell = 0; cell < emptyCells.size(); cell++) {
+          totalFlips += game.getPotentialFlips(hand.get(card), emptyCells.get(cell));
+        }
+      }
+    }
+    return totalFlips;
+  }
+
+  private static long evaluateMatrix(ReadOnlyThreeTriosModel game, List<Card> hand, int rounds) {
+    long totalFlips = 0;
+    for (int round = 0; round < rounds; round++) {
+      FlipMatrix matrix = game.getFlipMatrix(hand);
+      for (int card = 0; card < matrix.getCardCount(); card++) {
+        for (int cell = 0; cell < matrix.getCellCount(); cell++) {
+          totalFlips += matrix.getFlips(card, cell);
+        }
+      }
+    }
+    return totalFlips;
+  }
+}
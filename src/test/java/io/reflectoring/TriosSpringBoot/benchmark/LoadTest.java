@@ -0,0 +1,202 @@
+package io.reflectoring.TriosSpringBoot.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reflectoring.TriosSpringBoot.simulation.LatencyHistogram;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a running server with human-versus-AI games and reports throughput and
+ * latency per kind of request, to compare the server's thread modes.
+ *
+ * <p>Each client plays red in one game at a time against an AI player. It polls the
+ * game state, sending back the last version it saw, plays the first card on the first
+ * free cell whenever it is red's turn, and starts a new game when the game is over.
+ * Run it once against a server started normally and once against a server started
+ * with the virtual-threads profile, on the same machine and database.
+ *
+ * <p>Usage: {@code LoadTest [baseUrl [clients [seconds [aiType [gridFile cardFile]]]]]}.
+ * The config paths are resolved by the server and default to the 3x3 configuration.
+ */
+public final class LoadTest {
+  private static final String DEFAULT_BASE_URL = "http://localhost:8080";
+  private static final int DEFAULT_CLIENTS = 64;
+  private static final int DEFAULT_SECONDS = 30;
+  private static final String DEFAULT_AI_TYPE = "maxflips";
+  private static final String DEFAULT_GRID = "src/main/resources/config/3x3BoardNoHoles.txt";
+  private static final String DEFAULT_CARDS = "src/main/resources/config/TenCardSetFor3x3Board.txt";
+  private static final String[] REQUESTS = {"create", "state", "move"};
+  private static final int CREATE = 0;
+  private static final int STATE = 1;
+  private static final int MOVE = 2;
+
+  private final HttpClient http;
+  private final ObjectMapper json = new ObjectMapper();
+  private final String baseUrl;
+  private final String createBody;
+
+  private LoadTest(String baseUrl, String aiType, String gridFile, String cardFile)
+          throws IOException {
+    this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    this.baseUrl = baseUrl;
+    this.createBody = json.writeValueAsString(Map.of(
+            "gridConfig", gridFile,
+            "cardConfig", cardFile,
+            "redPlayerType", "human",
+            "bluePlayerType", aiType));
+  }
+
+  /**
+   * Runs the load test and prints its report.
+   *
+   * @param args optional base URL, clients, seconds, AI player type, grid file and card file
+   * @throws Exception if the clients cannot be started or joined
+   */
+  public static void main(String[] args) throws Exception {
+    String baseUrl = args.length >= 1 ? args[0] : DEFAULT_BASE_URL;
+    int clients = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_CLIENTS;
+    int seconds = args.length >= 3 ? Integer.parseInt(args[2]) : DEFAULT_SECONDS;
+    String aiType = args.length >= 4 ? args[3] : DEFAULT_AI_TYPE;
+    String gridFile = args.length >= 6 ? args[4] : DEFAULT_GRID;
+    String cardFile = args.length >= 6 ? args[5] : DEFAULT_CARDS;
+
+    LoadTest test = new LoadTest(baseUrl, aiType, gridFile, cardFile);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    ExecutorService pool = Executors.newFixedThreadPool(clients);
+    List<Future<Client>> futures = new ArrayList<>();
+    long startTime = System.nanoTime();
+    for (int i = 0; i < clients; i++) {
+      futures.add(pool.submit(() -> test.play(deadline)));
+    }
+
+    Client total = new Client();
+    for (Future<Client> future : futures) {
+      total.merge(future.get());
+    }
+    long elapsed = System.nanoTime() - startTime;
+    pool.shutdown();
+
+    System.out.printf("%s, %d clients, %d s, red human vs %s%n", baseUrl, clients, seconds, aiType);
+    System.out.printf("%d games finished, %d errors, %.1f moves/s%n", total.games, total.errors,
+            total.latencies[MOVE].getCount() * 1e9 / elapsed);
+    System.out.printf("%-8s %10s %10s %9s %9s %9s %9s%n", "request", "count", "req/s",
+            "mean ms", "p50 ms", "p99 ms", "max ms");
+    for (int i = 0; i < REQUESTS.length; i++) {
+      LatencyHistogram latency = total.latencies[i];
+      System.out.printf("%-8s %10d %10.1f %9.3f %9.3f %9.3f %9.3f%n", REQUESTS[i],
+              latency.getCount(), latency.getCount() * 1e9 / elapsed,
+              latency.getMeanNanos() / 1e6, latency.getPercentileNanos(50) / 1e6,
+              latency.getPercentileNanos(99) / 1e6, latency.getMaxNanos() / 1e6);
+    }
+  }
+
+  /**
+   * Results of one client, merged at the end.
+   */
+  private static final class Client {
+    private final LatencyHistogram[] latencies = {
+        new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()};
+    private long games;
+    private long errors;
+
+    private void merge(Client other) {
+      for (int i = 0; i < latencies.length; i++) {
+        latencies[i].merge(other.latencies[i]);
+      }
+      games += other.games;
+      errors += other.errors;
+    }
+  }
+
+  /**
+   * Plays games until the deadline.
+   */
+  private Client play(long deadline) throws InterruptedException {
+    Client client = new Client();
+    String gameId = null;
+    String eTag = null;
+    while (System.nanoTime() - deadline < 0) {
+      try {
+        if (gameId == null) {
+          HttpResponse<String> created = send(client, CREATE, HttpRequest.newBuilder()
+                  .uri(URI.create(baseUrl + "/api/games"))
+                  .header("Content-Type", "application/json")
+                  .POST(HttpRequest.BodyPublishers.ofString(createBody)));
+          gameId = json.readTree(created.body()).get("id").asText();
+          eTag = null;
+        }
+
+        HttpRequest.Builder poll = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/api/games/" + gameId)).GET();
+        if (eTag != null) {
+          poll.header("If-None-Match", eTag);
+        }
+        HttpResponse<String> polled = send(client, STATE, poll);
+        if (polled.statusCode() == 304) {
+          continue;
+        }
+        eTag = polled.headers().firstValue("ETag").orElse(null);
+        JsonNode state = json.readTree(polled.body());
+        if ("GAME_OVER".equals(state.get("gameState").asText())) {
+          client.games++;
+          gameId = null;
+        } else if ("RED".equals(state.get("currentPlayer").asText())) {
+          send(client, MOVE, HttpRequest.newBuilder()
+                  .uri(URI.create(baseUrl + "/api/games/" + gameId + "/move"))
+                  .header("Content-Type", "application/json")
+                  .POST(HttpRequest.BodyPublishers.ofString(firstMove(state))));
+        }
+      } catch (IOException | RuntimeException e) {
+        client.errors++;
+        gameId = null;
+      }
+    }
+    return client;
+  }
+
+  private HttpResponse<String> send(Client client, int request, HttpRequest.Builder builder)
+          throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    HttpResponse<String> response = http.send(builder.timeout(Duration.ofSeconds(30)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    client.latencies[request].record(System.nanoTime() - start);
+    if (response.statusCode() >= 400) {
+      throw new IOException(REQUESTS[request] + " failed with HTTP " + response.statusCode());
+    }
+    return response;
+  }
+
+  /**
+   * Builds the move request for red's first card on the first free cell.
+   */
+  private String firstMove(JsonNode state) throws IOException {
+    String cardId = state.get("redPlayerHand").get(0).get("id").asText();
+    JsonNode validMoves = state.get("board").get("validMoves");
+    for (int row = 0; row < validMoves.size(); row++) {
+      for (int col = 0; col < validMoves.get(row).size(); col++) {
+        if (validMoves.get(row).get(col).asBoolean()) {
+          return json.writeValueAsString(Map.of(
+                  "playerColor", "RED",
+                  "cardId", cardId,
+                  "position", Map.of("row", row, "col", col)));
+        }
+      }
+    }
+    throw new IOException("No free cell in a game that is not over");
+  }
+}
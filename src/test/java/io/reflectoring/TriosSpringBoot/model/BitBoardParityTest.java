@@ -0,0 +1,141 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Plays the same seeded games on the standard board and on the bitboard and checks
+ * after every move that both agree on the cards and owners of every cell, the flips
+ * of every candidate move, the scores and the hashes, also while moves are made and
+ * taken back on simulations.
+ */
+class BitBoardParityTest {
+  private static final String CONFIG = "src/main/resources/config/";
+  private static final int GAMES = 200;
+
+  @Test
+  void gamesOnFullGridMatch() {
+    playGames("3x3BoardNoHoles.txt", "TenCardSetFor3x3Board.txt");
+  }
+
+  @Test
+  void gamesOnGridWithHolesMatch() {
+    playGames("5x5BoardConnectedCardCells.txt", "CompleteCardSet.txt");
+  }
+
+  private static void playGames(String gridFile, String cardFile) {
+    BasicThreeTriosGame template = new BasicThreeTriosGame();
+    template.initializeGameFromFiles(CONFIG + gridFile, CONFIG + cardFile);
+    Grid grid = template.getBoard().getGrid();
+    List<Card> deck = new ArrayList<>(template.getPlayerHand(PlayerColor.RED));
+    deck.addAll(template.getPlayerHand(PlayerColor.BLUE));
+    deck.sort(Comparator.comparing(Card::getIdentifier));
+
+    for (int seed = 0; seed < GAMES; seed++) {
+      BasicThreeTriosGame standard = startGame(BoardType.STANDARD, grid, deck, seed);
+      BasicThreeTriosGame bitboard = startGame(BoardType.BITBOARD, grid, deck, seed);
+      assertInstanceOf(GameBoard.class, standard.getBoard());
+      assertInstanceOf(BitBoard.class, bitboard.getBoard());
+      assertSamePosition(standard, bitboard);
+
+      Random random = new Random(seed);
+      while (standard.getGameState() != GameState.GAME_OVER) {
+        assertSameFlips(standard, bitboard);
+        assertSameSimulations(standard.simulate(), bitboard.simulate());
+
+        List<Card> hand = standard.getPlayerHand(standard.getCurrentPlayerColor());
+        List<Coordinate> cells = standard.getBoard().getEmptyCardCells();
+        Card card = hand.get(random.nextInt(hand.size()));
+        Coordinate position = cells.get(random.nextInt(cells.size()));
+        standard.playCard(card, position);
+        bitboard.playCard(card, position);
+        assertSamePosition(standard, bitboard);
+      }
+      assertEquals(standard.getWinner(), bitboard.getWinner());
+    }
+  }
+
+  private static BasicThreeTriosGame startGame(BoardType boardType, Grid grid,
+                                               List<Card> deck, long seed) {
+    BasicThreeTriosGame game = new BasicThreeTriosGame();
+    game.setBoardType(boardType);
+    game.initializeGame(grid.copy(), deck, seed);
+    game.startGame();
+    return game;
+  }
+
+  private static void assertSamePosition(ReadOnlyThreeTriosModel expected,
+                                         ReadOnlyThreeTriosModel actual) {
+    Board expectedBoard = expected.getBoard();
+    Board actualBoard = actual.getBoard();
+    Grid grid = expectedBoard.getGrid();
+    for (int index = 0; index < grid.getCellCount(); index++) {
+      assertEquals(grid.getCellState(index), actualBoard.getGrid().getCellState(index));
+      if (grid.getCellState(index) == CellState.HOLE) {
+        int hole = index;
+        assertThrows(IllegalStateException.class, () -> expectedBoard.getCardAt(hole));
+        assertThrows(IllegalStateException.class, () -> actualBoard.getCardAt(hole));
+        continue;
+      }
+      assertSame(expectedBoard.getCardAt(index), actualBoard.getCardAt(index));
+      assertEquals(expectedBoard.getOwnerAt(index), actualBoard.getOwnerAt(index));
+    }
+    assertEquals(expectedBoard.getEmptyCardCells(), actualBoard.getEmptyCardCells());
+    assertEquals(expectedBoard.isFull(), actualBoard.isFull());
+    for (PlayerColor player : PlayerColor.values()) {
+      assertEquals(expectedBoard.getCardCount(player), actualBoard.getCardCount(player));
+      assertEquals(expected.getScore(player), actual.getScore(player));
+      assertEquals(expected.getPlayerHand(player), actual.getPlayerHand(player));
+    }
+    assertEquals(expected.getGameState(), actual.getGameState());
+    assertEquals(expected.getCurrentPlayerColor(), actual.getCurrentPlayerColor());
+    assertEquals(expectedBoard.getHash(), actualBoard.getHash());
+    assertEquals(expected.getPositionHash(), actual.getPositionHash());
+  }
+
+  private static void assertSameFlips(ReadOnlyThreeTriosModel expected,
+                                      ReadOnlyThreeTriosModel actual) {
+    List<Card> hand = expected.getPlayerHand(expected.getCurrentPlayerColor());
+    FlipMatrix expectedMatrix = expected.getFlipMatrix(hand);
+    FlipMatrix actualMatrix = actual.getFlipMatrix(hand);
+    assertEquals(expectedMatrix.getCellCount(), actualMatrix.getCellCount());
+    for (int cell = 0; cell < expectedMatrix.getCellCount(); cell++) {
+      assertEquals(expectedMatrix.getCellIndex(cell), actualMatrix.getCellIndex(cell));
+      for (int card = 0; card < hand.size(); card++) {
+        Coordinate position = expectedMatrix.getPosition(cell);
+        int flips = expected.getPotentialFlips(hand.get(card), position);
+        assertEquals(flips, expectedMatrix.getFlips(card, cell));
+        assertEquals(flips, actualMatrix.getFlips(card, cell));
+        assertEquals(flips, actual.getPotentialFlips(hand.get(card), position));
+      }
+    }
+  }
+
+  /**
+   * Plays every candidate move on both simulations, compares the positions and takes
+   * the move back, checking that undoing restores both.
+   */
+  private static void assertSameSimulations(ThreeTriosSimulation expected,
+                                            ThreeTriosSimulation actual) {
+    long hashBefore = expected.getPositionHash();
+    List<Card> hand = new ArrayList<>(expected.getPlayerHand(expected.getCurrentPlayerColor()));
+    for (Coordinate position : expected.getBoard().getEmptyCardCells()) {
+      for (Card card : hand) {
+        assertEquals(expected.playCard(card, position), actual.playCard(card, position));
+        assertSamePosition(expected, actual);
+        expected.undo();
+        actual.undo();
+        assertSamePosition(expected, actual);
+        assertEquals(hashBefore, actual.getPositionHash());
+      }
+    }
+  }
+}
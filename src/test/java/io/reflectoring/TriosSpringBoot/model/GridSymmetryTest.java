@@ -0,0 +1,69 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the symmetries found for square and rectangular grids, with and without holes,
+ * and that every symmetry maps card cells onto card cells and holes onto holes.
+ */
+class GridSymmetryTest {
+  private static final String CONFIG = "src/main/resources/config/";
+
+  @Test
+  void squareGridWithoutHolesHasEightSymmetries() {
+    List<GridSymmetry> symmetries = GridSymmetry.of(new GameGrid(3, 3));
+    assertEquals(8, symmetries.size());
+    assertTrue(symmetries.get(0).isIdentity());
+    for (int i = 1; i < symmetries.size(); i++) {
+      assertFalse(symmetries.get(i).isIdentity());
+    }
+  }
+
+  @Test
+  void rectangularGridHasAtMostFourSymmetries() {
+    Grid grid = new GameGrid(3, 5);
+    assertEquals(4, GridSymmetry.of(grid).size());
+
+    grid.setCellState(grid.getCoordinate(0, 0), CellState.HOLE);
+    List<GridSymmetry> symmetries = GridSymmetry.of(grid);
+    assertEquals(1, symmetries.size());
+    assertTrue(symmetries.get(0).isIdentity());
+  }
+
+  @Test
+  void bundledGridWithHolesKeepsHolesInPlace() {
+    BasicThreeTriosGame game = new BasicThreeTriosGame();
+    game.initializeGameFromFiles(CONFIG + "5x5BoardConnectedCardCells.txt",
+            CONFIG + "CompleteCardSet.txt");
+    Grid grid = game.getBoard().getGrid();
+    List<GridSymmetry> symmetries = GridSymmetry.of(grid);
+    assertTrue(symmetries.size() <= 8);
+    for (GridSymmetry symmetry : symmetries) {
+      for (int cell = 0; cell < grid.getCellCount(); cell++) {
+        assertEquals(grid.getCellState(cell) == CellState.HOLE,
+                grid.getCellState(symmetry.mapCell(cell)) == CellState.HOLE);
+      }
+    }
+  }
+
+  @Test
+  void unmapCellUndoesMapCell() {
+    for (Grid grid : List.of(new GameGrid(3, 3), new GameGrid(5, 5), new GameGrid(3, 5))) {
+      for (GridSymmetry symmetry : GridSymmetry.of(grid)) {
+        boolean[] hit = new boolean[grid.getCellCount()];
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+          int mapped = symmetry.mapCell(cell);
+          assertFalse(hit[mapped], symmetry + " maps two cells onto " + mapped);
+          hit[mapped] = true;
+          assertEquals(cell, symmetry.unmapCell(mapped));
+          assertEquals(cell, symmetry.mapCell(symmetry.unmapCell(cell)));
+        }
+      }
+    }
+  }
+}
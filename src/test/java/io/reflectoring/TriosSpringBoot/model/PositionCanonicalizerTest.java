@@ -0,0 +1,170 @@
+package io.reflectoring.TriosSpringBoot.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.reflectoring.TriosSpringBoot.strategy.DecisionCache;
+import io.reflectoring.TriosSpringBoot.strategy.Move;
+import io.reflectoring.TriosSpringBoot.strategy.Strategy;
+import io.reflectoring.TriosSpringBoot.strategy.StrategyFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Plays seeded games on the 3x3 grid together with their rotations and reflections, in
+ * which every card is turned with the board, and checks that all of them hash alike and
+ * that a move cached in one is replayed on the matching cell in the others.
+ */
+class PositionCanonicalizerTest {
+  private static final String CONFIG = "src/main/resources/config/";
+  private static final int GAMES = 50;
+
+  @Test
+  void transformedPositionsHaveTheSameCanonicalHash() {
+    BasicThreeTriosGame template = loadTemplate();
+    Grid grid = template.getBoard().getGrid();
+    List<Card> deck = deckOf(template);
+    PositionCanonicalizer canonicalizer = PositionCanonicalizer.of(grid, deck);
+    assertEquals(8, canonicalizer.size());
+
+    for (int seed = 0; seed < GAMES; seed++) {
+      BasicThreeTriosGame game = startGame(grid, deck, seed);
+      List<BasicThreeTriosGame> turned = new ArrayList<>();
+      List<PositionCanonicalizer> turnedCanonicalizers = new ArrayList<>();
+      for (int symmetry = 0; symmetry < canonicalizer.size(); symmetry++) {
+        List<Card> turnedDeck = turnDeck(canonicalizer, symmetry, deck);
+        turned.add(startGame(grid, turnedDeck, seed));
+        turnedCanonicalizers.add(PositionCanonicalizer.of(grid, turnedDeck));
+      }
+
+      Random random = new Random(seed);
+      while (true) {
+        long canonicalHash = canonicalizer.canonicalHash(game);
+        for (int symmetry = 0; symmetry < canonicalizer.size(); symmetry++) {
+          BasicThreeTriosGame copy = turned.get(symmetry);
+          PositionCanonicalizer copyCanonicalizer = turnedCanonicalizers.get(symmetry);
+          assertEquals(canonicalizer.hash(game, symmetry), copyCanonicalizer.hash(copy, 0));
+          assertEquals(canonicalHash, copyCanonicalizer.canonicalHash(copy));
+          assertEquals(game.getScore(PlayerColor.RED), copy.getScore(PlayerColor.RED));
+        }
+        if (game.getGameState() == GameState.GAME_OVER) {
+          break;
+        }
+
+        PlayerColor player = game.getCurrentPlayerColor();
+        List<Card> hand = game.getPlayerHand(player);
+        Card card = hand.get(random.nextInt(hand.size()));
+        List<Coordinate> cells = game.getBoard().getEmptyCardCells();
+        int cell = grid.getIndex(cells.get(random.nextInt(cells.size())));
+        for (int symmetry = 0; symmetry < canonicalizer.size(); symmetry++) {
+          playMirrored(turned.get(symmetry), player, card, canonicalizer.mapCell(symmetry, cell));
+        }
+        game.playCard(card, grid.getCoordinate(cell));
+      }
+    }
+  }
+
+  @Test
+  void cachedMoveIsReplayedOnTransformedPosition() {
+    BasicThreeTriosGame template = loadTemplate();
+    Grid grid = template.getBoard().getGrid();
+    List<Card> deck = deckOf(template);
+    PositionCanonicalizer canonicalizer = PositionCanonicalizer.of(grid, deck);
+    DecisionCache cache = new DecisionCache(10_000, 60_000);
+    Strategy strategy = StrategyFactory.builder().decisionCache(cache).build()
+            .createStrategy("maxflips");
+
+    for (int seed = 0; seed < GAMES; seed++) {
+      BasicThreeTriosGame game = startGame(grid, deck, seed);
+      List<BasicThreeTriosGame> turned = new ArrayList<>();
+      List<PositionCanonicalizer> turnedCanonicalizers = new ArrayList<>();
+      for (int symmetry = 0; symmetry < canonicalizer.size(); symmetry++) {
+        List<Card> turnedDeck = turnDeck(canonicalizer, symmetry, deck);
+        turned.add(startGame(grid, turnedDeck, seed));
+        turnedCanonicalizers.add(PositionCanonicalizer.of(grid, turnedDeck));
+      }
+      Random random = new Random(seed);
+      for (int ply = random.nextInt(4); ply > 0; ply--) {
+        PlayerColor player = game.getCurrentPlayerColor();
+        List<Card> hand = game.getPlayerHand(player);
+        Card card = hand.get(random.nextInt(hand.size()));
+        List<Coordinate> cells = game.getBoard().getEmptyCardCells();
+        int cell = grid.getIndex(cells.get(random.nextInt(cells.size())));
+        for (int symmetry = 0; symmetry < canonicalizer.size(); symmetry++) {
+          playMirrored(turned.get(symmetry), player, card, canonicalizer.mapCell(symmetry, cell));
+        }
+        game.playCard(card, grid.getCoordinate(cell));
+      }
+
+      PlayerColor player = game.getCurrentPlayerColor();
+      Move move = strategy.chooseMove(game, player);
+      int cell = grid.getIndex(move.getPosition());
+      for (int symmetry = 1; symmetry < canonicalizer.size(); symmetry++) {
+        long hits = cache.getHits();
+        Move replayed = strategy.chooseMove(turned.get(symmetry), player);
+        assertTrue(cache.getHits() > hits, "move was not taken from the cache");
+        assertEquals(canonicalizer.mapCell(symmetry, cell),
+                grid.getIndex(replayed.getPosition()));
+        assertEquals(canonicalizer.cardValues(symmetry, move.getCard()),
+                turnedCanonicalizers.get(symmetry).cardValues(0, replayed.getCard()));
+      }
+    }
+  }
+
+  private static BasicThreeTriosGame loadTemplate() {
+    BasicThreeTriosGame template = new BasicThreeTriosGame();
+    template.initializeGameFromFiles(CONFIG + "3x3BoardNoHoles.txt",
+            CONFIG + "TenCardSetFor3x3Board.txt");
+    return template;
+  }
+
+  private static List<Card> deckOf(ReadOnlyThreeTriosModel model) {
+    List<Card> deck = new ArrayList<>(model.getPlayerHand(PlayerColor.RED));
+    deck.addAll(model.getPlayerHand(PlayerColor.BLUE));
+    return deck;
+  }
+
+  private static BasicThreeTriosGame startGame(Grid grid, List<Card> deck, long seed) {
+    BasicThreeTriosGame game = new BasicThreeTriosGame();
+    game.initializeGame(grid.copy(), deck, seed);
+    game.startGame();
+    return game;
+  }
+
+  /**
+   * Turns every card of a deck the way a symmetry turns the board, keeping its
+   * identifier and its place in the deck, so the same seed deals the turned cards alike.
+   */
+  private static List<Card> turnDeck(PositionCanonicalizer canonicalizer, int symmetry,
+                                     List<Card> deck) {
+    List<Card> turned = new ArrayList<>();
+    for (Card card : deck) {
+      int values = canonicalizer.cardValues(symmetry, card);
+      turned.add(new GameCard(card.getIdentifier(), side(values, Direction.NORTH),
+              side(values, Direction.EAST), side(values, Direction.SOUTH),
+              side(values, Direction.WEST)));
+    }
+    return turned;
+  }
+
+  private static int side(int values, Direction direction) {
+    return (values >>> (8 * direction.ordinal())) & 0xFF;
+  }
+
+  /**
+   * Plays a move on a transformed game: the card with the same identifier, on the cell
+   * the symmetry moves the original cell to.
+   */
+  private static void playMirrored(BasicThreeTriosGame copy, PlayerColor player, Card card,
+                                   int mappedCell) {
+    for (Card turned : copy.getPlayerHand(player)) {
+      if (turned.getIdentifier().equals(card.getIdentifier())) {
+        copy.playCard(turned, copy.getBoard().getGrid().getCoordinate(mappedCell));
+        return;
+      }
+    }
+    throw new AssertionError("Card not dealt alike: " + card.getIdentifier());
+  }
+}
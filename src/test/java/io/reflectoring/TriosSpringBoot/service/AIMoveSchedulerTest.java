@@ -0,0 +1,180 @@
+package io.reflectoring.TriosSpringBoot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.reflectoring.TriosSpringBoot.model.BasicThreeTriosGame;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+import io.reflectoring.TriosSpringBoot.strategy.Move;
+import io.reflectoring.TriosSpringBoot.strategy.Strategy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the order AI jobs run in, that jobs past their deadline or turned away play the
+ * fallback move, and that every job calls back exactly once, even when the fallback fails.
+ */
+class AIMoveSchedulerTest {
+    private static final String CONFIG = "src/main/resources/config/";
+    private static final long LONG_DEADLINE_MILLIS = 60_000;
+
+    private final ReadOnlyThreeTriosModel model = startGame();
+    private final Move fallbackMove = firstMove(model);
+    private final Strategy fallback = (position, player) -> fallbackMove;
+
+    @Test
+    void interactiveJobsRunBeforeBulkJobs() throws InterruptedException {
+        try (var scheduler = new AIMoveScheduler(1, 10, LONG_DEADLINE_MILLIS, LONG_DEADLINE_MILLIS, fallback)) {
+            var release = new CountDownLatch(1);
+            var done = new CountDownLatch(4);
+            List<String> order = new CopyOnWriteArrayList<>();
+            scheduler.submit(AIMoveScheduler.Priority.BULK, model, PlayerColor.RED, blockUntil(release),
+                    record(order, "blocker", done));
+            scheduler.submit(AIMoveScheduler.Priority.BULK, model, PlayerColor.RED, fallback,
+                    record(order, "bulk1", done));
+            scheduler.submit(AIMoveScheduler.Priority.BULK, model, PlayerColor.RED, fallback,
+                    record(order, "bulk2", done));
+            scheduler.submit(AIMoveScheduler.Priority.INTERACTIVE, model, PlayerColor.RED, fallback,
+                    record(order, "interactive", done));
+            release.countDown();
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("blocker", "interactive", "bulk1", "bulk2"), order);
+        }
+    }
+
+    @Test
+    void jobQueuedPastItsDeadlinePlaysTheFallback() throws InterruptedException {
+        try (var scheduler = new AIMoveScheduler(1, 10, 50, LONG_DEADLINE_MILLIS, fallback)) {
+            var release = new CountDownLatch(1);
+            var searched = new AtomicBoolean();
+            var move = new AtomicReference<Move>();
+            var done = new CountDownLatch(1);
+            scheduler.submit(AIMoveScheduler.Priority.BULK, model, PlayerColor.RED, blockUntil(release),
+                    played -> { });
+            scheduler.submit(AIMoveScheduler.Priority.INTERACTIVE, model, PlayerColor.RED,
+                    (position, player) -> {
+                        searched.set(true);
+                        return null;
+                    },
+                    played -> {
+                        move.set(played);
+                        done.countDown();
+                    });
+            Thread.sleep(150);
+            release.countDown();
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertFalse(searched.get());
+            assertSame(fallbackMove, move.get());
+            assertEquals(1, scheduler.getDeadlineMisses(AIMoveScheduler.Priority.INTERACTIVE));
+        }
+    }
+
+    @Test
+    void fullQueueCompletesOnTheCallingThread() throws InterruptedException {
+        try (var scheduler = new AIMoveScheduler(1, 1, LONG_DEADLINE_MILLIS, LONG_DEADLINE_MILLIS, fallback)) {
+            var started = new CountDownLatch(1);
+            var release = new CountDownLatch(1);
+            scheduler.submit(AIMoveScheduler.Priority.BULK, model, PlayerColor.RED,
+                    (position, player) -> {
+                        started.countDown();
+                        return blockUntil(release).chooseMove(position, player);
+                    },
+                    played -> { });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            scheduler.submit(AIMoveScheduler.Priority.BULK, model, PlayerColor.RED, fallback, played -> { });
+
+            var thread = new AtomicReference<Thread>();
+            var move = new AtomicReference<Move>();
+            scheduler.submit(AIMoveScheduler.Priority.INTERACTIVE, model, PlayerColor.RED, fallback,
+                    played -> {
+                        thread.set(Thread.currentThread());
+                        move.set(played);
+                    });
+            release.countDown();
+
+            assertSame(Thread.currentThread(), thread.get());
+            assertSame(fallbackMove, move.get());
+            assertEquals(1, scheduler.getRejections(AIMoveScheduler.Priority.INTERACTIVE));
+        }
+    }
+
+    @Test
+    void closedSchedulerCompletesOnTheCallingThread() {
+        var scheduler = new AIMoveScheduler(1, 10, LONG_DEADLINE_MILLIS, LONG_DEADLINE_MILLIS, fallback);
+        scheduler.close();
+
+        var thread = new AtomicReference<Thread>();
+        var move = new AtomicReference<Move>();
+        scheduler.submit(AIMoveScheduler.Priority.BULK, model, PlayerColor.RED,
+                (position, player) -> null,
+                played -> {
+                    thread.set(Thread.currentThread());
+                    move.set(played);
+                });
+
+        assertSame(Thread.currentThread(), thread.get());
+        assertSame(fallbackMove, move.get());
+        assertEquals(1, scheduler.getRejections(AIMoveScheduler.Priority.BULK));
+    }
+
+    @Test
+    void throwingFallbackStillCallsBackWithNull() throws InterruptedException {
+        Strategy broken = (position, player) -> {
+            throw new IllegalStateException("fallback failed");
+        };
+        try (var scheduler = new AIMoveScheduler(1, 10, LONG_DEADLINE_MILLIS, LONG_DEADLINE_MILLIS, broken)) {
+            var done = new CountDownLatch(1);
+            var move = new AtomicReference<Move>(fallbackMove);
+            scheduler.submit(AIMoveScheduler.Priority.INTERACTIVE, model, PlayerColor.RED, broken,
+                    played -> {
+                        move.set(played);
+                        done.countDown();
+                    });
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertNull(move.get());
+        }
+    }
+
+    private static ReadOnlyThreeTriosModel startGame() {
+        var game = new BasicThreeTriosGame();
+        game.initializeGameFromFiles(CONFIG + "3x3BoardNoHoles.txt", CONFIG + "TenCardSetFor3x3Board.txt");
+        game.startGame();
+        return game;
+    }
+
+    private static Move firstMove(ReadOnlyThreeTriosModel model) {
+        var card = model.getPlayerHand(PlayerColor.RED).get(0);
+        return new Move(card, model.getBoard().getEmptyCardCells().get(0), 0);
+    }
+
+    private Strategy blockUntil(CountDownLatch release) {
+        return (position, player) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return fallbackMove;
+        };
+    }
+
+    private static Consumer<Move> record(List<String> order, String job, CountDownLatch done) {
+        return played -> {
+            order.add(job);
+            done.countDown();
+        };
+    }
+}
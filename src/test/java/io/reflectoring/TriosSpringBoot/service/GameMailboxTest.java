@@ -0,0 +1,139 @@
+package io.reflectoring.TriosSpringBoot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the actions of one mailbox run one at a time in submission order, even
+ * when submitted from many threads, while mailboxes sharing an executor do not wait for
+ * each other.
+ */
+class GameMailboxTest {
+    private static final int THREADS = 8;
+    private static final int ACTIONS = 1000;
+
+    @Test
+    void actionsRunOneAtATimeInSubmissionOrder() throws Exception {
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var mailbox = new GameMailbox(executor);
+            var running = new AtomicInteger();
+            var overlaps = new AtomicInteger();
+            List<Integer> order = new ArrayList<>();
+            CompletableFuture<Integer> last = null;
+            for (int i = 0; i < ACTIONS; i++) {
+                int action = i;
+                last = mailbox.submit(() -> {
+                    if (running.incrementAndGet() > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    order.add(action);
+                    running.decrementAndGet();
+                    return action;
+                });
+            }
+
+            assertEquals(ACTIONS - 1, last.get(5, TimeUnit.SECONDS));
+            assertEquals(0, overlaps.get());
+            for (int i = 0; i < ACTIONS; i++) {
+                assertEquals(i, order.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void actionsFromManyThreadsNeverOverlap() throws Exception {
+        var executor = Executors.newFixedThreadPool(4);
+        var submitters = Executors.newFixedThreadPool(THREADS);
+        try {
+            var mailbox = new GameMailbox(executor);
+            var running = new AtomicInteger();
+            var overlaps = new AtomicInteger();
+            var counter = new int[1];
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            List<CompletableFuture<?>> submissions = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                submissions.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < ACTIONS; i++) {
+                        var result = mailbox.submit(() -> {
+                            if (running.incrementAndGet() > 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            var value = ++counter[0];
+                            running.decrementAndGet();
+                            return value;
+                        });
+                        synchronized (results) {
+                            results.add(result);
+                        }
+                    }
+                }, submitters));
+            }
+            for (var submission : submissions) {
+                submission.get(5, TimeUnit.SECONDS);
+            }
+            for (var result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+
+            assertEquals(0, overlaps.get());
+            assertEquals(THREADS * ACTIONS, mailbox.submit(() -> counter[0]).get(5, TimeUnit.SECONDS));
+        } finally {
+            submitters.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void busyMailboxDoesNotHoldUpAnotherGame() throws Exception {
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var busy = new GameMailbox(executor);
+            var idle = new GameMailbox(executor);
+            var release = new CountDownLatch(1);
+            var blocked = busy.submit(() -> {
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertEquals("done", idle.submit(() -> "done").get(1, TimeUnit.SECONDS));
+            release.countDown();
+            assertTrue(blocked.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failingActionFailsOnlyItsOwnFuture() throws Exception {
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var mailbox = new GameMailbox(executor);
+            var failed = mailbox.submit(() -> {
+                throw new IllegalStateException("rejected");
+            });
+            var next = mailbox.submit(() -> "next");
+
+            assertThrows(CompletionException.class, failed::join);
+            assertEquals("next", next.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
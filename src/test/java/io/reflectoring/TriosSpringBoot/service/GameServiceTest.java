@@ -0,0 +1,177 @@
+package io.reflectoring.TriosSpringBoot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.reflectoring.TriosSpringBoot.entity.Game;
+import io.reflectoring.TriosSpringBoot.entity.Player;
+import io.reflectoring.TriosSpringBoot.repository.GameRepository;
+import io.reflectoring.TriosSpringBoot.repository.PlayerRepository;
+import io.reflectoring.TriosSpringBoot.strategy.MaxFlipsStrategy;
+import io.reflectoring.TriosSpringBoot.strategy.StrategyFactory;
+import io.reflectoring.TriosSpringBoot.view.dto.CoordinateDTO;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Races eight threads to play one game through the service, each reading the snapshot
+ * and submitting moves that may be stale, and checks that the mailbox accepts exactly
+ * one move per card cell and applies them one at a time.
+ */
+class GameServiceTest {
+    private static final String CONFIG = "src/main/resources/config/";
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS = 20_000;
+
+    private final Map<Long, Game> games = new ConcurrentHashMap<>();
+    private final List<Player> players = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Test
+    void racingMovesAreAppliedOneAtATime() throws Exception {
+        var mailboxExecutor = Executors.newFixedThreadPool(4);
+        var racers = Executors.newFixedThreadPool(THREADS);
+        try (var scheduler = new AIMoveScheduler(1, 10, 1_000, 1_000, new MaxFlipsStrategy())) {
+            var service = createService(mailboxExecutor, scheduler);
+            var gameId = service.createGame(CONFIG + "5x5BoardConnectedCardCells.txt",
+                    CONFIG + "CompleteCardSet.txt", "human", "human").getId();
+
+            var accepted = new AtomicInteger();
+            List<CompletableFuture<?>> races = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                var random = new Random(thread);
+                races.add(CompletableFuture.runAsync(() -> race(service, gameId, random, accepted), racers));
+            }
+            for (var race : races) {
+                race.get(60, TimeUnit.SECONDS);
+            }
+
+            var state = service.getGameState(gameId);
+            assertEquals("GAME_OVER", state.gameState());
+            assertEquals(15, accepted.get());
+            assertEquals(15L, state.version());
+            assertEquals("GAME_OVER", games.get(gameId).getGameState());
+        } finally {
+            racers.shutdownNow();
+            mailboxExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays random cards of the player to move on random cells of the last snapshot until
+     * the game is over, counting the moves the service accepts.
+     */
+    private static void race(GameService service, Long gameId, Random random, AtomicInteger accepted) {
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            var state = service.getGameState(gameId);
+            if (state.gameState().equals("GAME_OVER")) {
+                return;
+            }
+            var player = state.currentPlayer();
+            var hand = state.getPlayerHand(player);
+            if (hand.isEmpty()) {
+                continue;
+            }
+            var card = hand.get(random.nextInt(hand.size()));
+            var cells = state.board().cells();
+            var position = new CoordinateDTO(random.nextInt(cells.size()), random.nextInt(cells.get(0).size()));
+            try {
+                service.playCard(gameId, player.name(), card.id(), position).join();
+                accepted.incrementAndGet();
+            } catch (CompletionException e) {
+                // A stale or illegal move, turned away in the mailbox
+            }
+        }
+    }
+
+    private GameService createService(ExecutorService mailboxExecutor, AIMoveScheduler scheduler) {
+        var transactionManager = new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+        return new GameService(gameRepository(), playerRepository(), new StrategyFactory(), mailboxExecutor,
+                scheduler, new TransactionTemplate(transactionManager), event -> { });
+    }
+
+    /**
+     * An in-memory game repository answering the calls the service makes.
+     */
+    private GameRepository gameRepository() {
+        return repository(GameRepository.class, (method, args) -> switch (method) {
+            case "save" -> {
+                var game = (Game) args[0];
+                if (game.getId() == null) {
+                    game.setId(ids.incrementAndGet());
+                }
+                games.put(game.getId(), game);
+                yield game;
+            }
+            case "findById" -> Optional.ofNullable(games.get((Long) args[0]));
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    /**
+     * An in-memory player repository answering the calls the service makes.
+     */
+    private PlayerRepository playerRepository() {
+        return repository(PlayerRepository.class, (method, args) -> switch (method) {
+            case "save" -> {
+                var player = (Player) args[0];
+                if (players.stream().noneMatch(saved -> saved == player)) {
+                    players.add(player);
+                }
+                yield player;
+            }
+            case "findByGameId" -> players.stream()
+                    .filter(player -> player.getGame().getId().equals(args[0]))
+                    .toList();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private interface Calls {
+        Object answer(String method, Object[] args);
+    }
+
+    private static <T> T repository(Class<T> type, Calls calls) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName();
+                    default -> calls.answer(method.getName(), args);
+                }));
+    }
+}
@@ -0,0 +1,119 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import io.reflectoring.TriosSpringBoot.model.BasicThreeTriosGame;
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.Coordinate;
+import io.reflectoring.TriosSpringBoot.model.GameState;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+import io.reflectoring.TriosSpringBoot.model.ThreeTriosSimulation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the solver's moves with a plain minimax over every line on seeded 3x3
+ * endgames: the solver's move must reach the best final score difference, with a fresh
+ * table, with a deadline far away, and with a table an alpha-beta search has already
+ * filled with depth-limited entries.
+ */
+class EndgameSolverTest {
+  private static final String CONFIG = "src/main/resources/config/";
+  private static final int POSITIONS = 40;
+  private static final long TABLE_BYTES = 1L << 20;
+
+  @Test
+  void solvedMovesReachTheMinimaxScore() {
+    for (ReadOnlyThreeTriosModel position : endgames()) {
+      EndgameSolver solver = new EndgameSolver(new TranspositionTable(TABLE_BYTES));
+      assertOptimal(position, solver.solve(position));
+    }
+  }
+
+  @Test
+  void timedSolveWithTimeToSpareMatchesMinimax() {
+    for (ReadOnlyThreeTriosModel position : endgames()) {
+      EndgameSolver solver = new EndgameSolver(new TranspositionTable(TABLE_BYTES));
+      long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+      assertOptimal(position, solver.solve(position, deadline));
+    }
+  }
+
+  @Test
+  void solveAfterAlphaBetaSharedTheTableMatchesMinimax() {
+    TranspositionTable table = new TranspositionTable(TABLE_BYTES);
+    EndgameSolver solver = new EndgameSolver(table);
+    for (ReadOnlyThreeTriosModel position : endgames()) {
+      for (int depth = 1; depth <= 3; depth++) {
+        new AlphaBetaStrategy(AlphaBetaStrategy.DEFAULT_TIME_BUDGET_MILLIS, depth, table, null)
+                .chooseMove(position, position.getCurrentPlayerColor());
+      }
+      assertOptimal(position, solver.solve(position));
+    }
+  }
+
+  /**
+   * Plays random moves into seeded deals until four to six cells are left.
+   */
+  private static List<ReadOnlyThreeTriosModel> endgames() {
+    BasicThreeTriosGame template = new BasicThreeTriosGame();
+    template.initializeGameFromFiles(CONFIG + "3x3BoardNoHoles.txt",
+            CONFIG + "TenCardSetFor3x3Board.txt");
+    List<Card> deck = new ArrayList<>(template.getPlayerHand(PlayerColor.RED));
+    deck.addAll(template.getPlayerHand(PlayerColor.BLUE));
+
+    List<ReadOnlyThreeTriosModel> positions = new ArrayList<>();
+    for (int seed = 0; seed < POSITIONS; seed++) {
+      BasicThreeTriosGame game = new BasicThreeTriosGame();
+      game.initializeGame(template.getBoard().getGrid().copy(), deck, seed);
+      game.startGame();
+      Random random = new Random(seed);
+      int emptyCells = 4 + random.nextInt(3);
+      while (game.getBoard().getEmptyCellCount() > emptyCells) {
+        List<Card> hand = game.getPlayerHand(game.getCurrentPlayerColor());
+        List<Coordinate> cells = game.getBoard().getEmptyCardCells();
+        game.playCard(hand.get(random.nextInt(hand.size())),
+                cells.get(random.nextInt(cells.size())));
+      }
+      positions.add(game);
+    }
+    return positions;
+  }
+
+  private static void assertOptimal(ReadOnlyThreeTriosModel position, Move move) {
+    assertNotNull(move);
+    PlayerColor player = position.getCurrentPlayerColor();
+    ThreeTriosSimulation simulation = position.simulate();
+    int best = minimax(simulation, player);
+    simulation.playCard(move.getCard(), move.getPosition());
+    assertEquals(best, minimax(simulation, player));
+  }
+
+  /**
+   * Scores a position by searching every line to the end of the game.
+   *
+   * @return the best final score difference the player can force
+   */
+  private static int minimax(ThreeTriosSimulation simulation, PlayerColor player) {
+    if (simulation.getGameState() == GameState.GAME_OVER) {
+      return simulation.getScore(player) - simulation.getScore(player.getOpponentColor());
+    }
+    boolean maximising = simulation.getCurrentPlayerColor() == player;
+    int best = maximising ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+    List<Card> hand = new ArrayList<>(simulation.getPlayerHand(simulation.getCurrentPlayerColor()));
+    for (Coordinate position : simulation.getBoard().getEmptyCardCells()) {
+      for (Card card : hand) {
+        simulation.playCard(card, position);
+        int score = minimax(simulation, player);
+        simulation.undo();
+        best = maximising ? Math.max(best, score) : Math.min(best, score);
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,167 @@
+package io.reflectoring.TriosSpringBoot.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.reflectoring.TriosSpringBoot.model.BasicThreeTriosGame;
+import io.reflectoring.TriosSpringBoot.model.Card;
+import io.reflectoring.TriosSpringBoot.model.Coordinate;
+import io.reflectoring.TriosSpringBoot.model.Direction;
+import io.reflectoring.TriosSpringBoot.model.PlayerColor;
+import io.reflectoring.TriosSpringBoot.model.PositionCanonicalizer;
+import io.reflectoring.TriosSpringBoot.model.ReadOnlyThreeTriosModel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Writes books holding positions of seeded games on the bundled templates, opens them
+ * again and checks that every stored position finds its move, and that games on a grid
+ * and deck the book was not written for find nothing.
+ */
+class OpeningBookTest {
+  private static final String CONFIG = "src/main/resources/config/";
+  private static final String GRID_3X3 = CONFIG + "3x3BoardNoHoles.txt";
+  private static final String CARDS_3X3 = CONFIG + "TenCardSetFor3x3Board.txt";
+  private static final String GRID_5X5 = CONFIG + "5x5BoardConnectedCardCells.txt";
+  private static final String CARDS_5X5 = CONFIG + "CompleteCardSet.txt";
+  private static final int POSITIONS = 40;
+
+  private final Strategy engine = new MaxFlipsStrategy();
+
+  @Test
+  void storedPositionsFindTheirMovesInEveryTemplate() throws IOException {
+    List<ReadOnlyThreeTriosModel> positions = new ArrayList<>();
+    positions.addAll(positions(GRID_3X3, CARDS_3X3));
+    positions.addAll(positions(GRID_5X5, CARDS_5X5));
+
+    OpeningBook book = writeAndOpen(positions);
+    assertEquals(2, book.getTemplateCount());
+    for (ReadOnlyThreeTriosModel position : positions) {
+      Move expected = engine.chooseMove(position, position.getCurrentPlayerColor());
+      Move move = book.lookup(position);
+      assertNotNull(move);
+      assertEquals(cellOf(position, expected), cellOf(position, move));
+      assertEquals(values(expected.getCard()), values(move.getCard()));
+    }
+  }
+
+  @Test
+  void gamesOfAnotherTemplateFindNothing() throws IOException {
+    OpeningBook book = writeAndOpen(positions(GRID_3X3, CARDS_3X3));
+    assertEquals(1, book.getTemplateCount());
+
+    for (ReadOnlyThreeTriosModel position : positions(GRID_5X5, CARDS_5X5)) {
+      assertNull(book.lookup(position));
+    }
+
+    // Same grid and identifiers, but one card plays differently
+    Path cards = Files.createTempFile("cards", ".txt");
+    try {
+      List<String> lines = new ArrayList<>(Files.readAllLines(Path.of(CARDS_3X3)));
+      lines.set(0, lines.get(0).split(" ")[0] + " 1 1 1 1");
+      Files.write(cards, lines);
+      for (ReadOnlyThreeTriosModel position : positions(GRID_3X3, cards.toString())) {
+        assertNull(book.lookup(position));
+      }
+    } finally {
+      Files.delete(cards);
+    }
+  }
+
+  /**
+   * Plays a few random moves into seeded deals of a template.
+   */
+  private static List<ReadOnlyThreeTriosModel> positions(String gridFile, String cardFile) {
+    BasicThreeTriosGame template = new BasicThreeTriosGame();
+    template.initializeGameFromFiles(gridFile, cardFile);
+    List<Card> deck = new ArrayList<>(template.getPlayerHand(PlayerColor.RED));
+    deck.addAll(template.getPlayerHand(PlayerColor.BLUE));
+
+    List<ReadOnlyThreeTriosModel> positions = new ArrayList<>();
+    for (int seed = 0; seed < POSITIONS; seed++) {
+      BasicThreeTriosGame game = new BasicThreeTriosGame();
+      game.initializeGame(template.getBoard().getGrid().copy(), deck, seed);
+      game.startGame();
+      Random random = new Random(seed);
+      for (int ply = random.nextInt(4); ply > 0; ply--) {
+        List<Card> hand = game.getPlayerHand(game.getCurrentPlayerColor());
+        List<Coordinate> cells = game.getBoard().getEmptyCardCells();
+        game.playCard(hand.get(random.nextInt(hand.size())),
+                cells.get(random.nextInt(cells.size())));
+      }
+      positions.add(game);
+    }
+    return positions;
+  }
+
+  /**
+   * Stores the engine's move for every position, in canonical form as the builder does,
+   * and opens the written book.
+   */
+  private OpeningBook writeAndOpen(List<ReadOnlyThreeTriosModel> positions) throws IOException {
+    Map<Long, TreeMap<Long, int[]>> templates = new LinkedHashMap<>();
+    for (ReadOnlyThreeTriosModel position : positions) {
+      PositionCanonicalizer canonicalizer = PositionCanonicalizer.of(position);
+      int symmetry = canonicalizer.canonicalSymmetry(position);
+      Move move = engine.chooseMove(position, position.getCurrentPlayerColor());
+      int cell = position.getBoard().getGrid().getIndex(move.getPosition());
+      templates.computeIfAbsent(canonicalizer.getTemplateKey(), key -> new TreeMap<>())
+              .put(canonicalizer.hash(position, symmetry), new int[] {
+                  canonicalizer.cardValues(symmetry, move.getCard()),
+                  canonicalizer.mapCell(symmetry, cell),
+                  move.getValue()});
+    }
+
+    int size = 0;
+    for (TreeMap<Long, int[]> entries : templates.values()) {
+      size += entries.size();
+    }
+    long[] templateKeys = new long[templates.size()];
+    int[] templateSizes = new int[templates.size()];
+    long[] hashes = new long[size];
+    int[] cardValues = new int[size];
+    int[] cells = new int[size];
+    int[] values = new int[size];
+    int t = 0;
+    int i = 0;
+    for (Map.Entry<Long, TreeMap<Long, int[]>> template : templates.entrySet()) {
+      templateKeys[t] = template.getKey();
+      templateSizes[t++] = template.getValue().size();
+      for (Map.Entry<Long, int[]> entry : template.getValue().entrySet()) {
+        hashes[i] = entry.getKey();
+        cardValues[i] = entry.getValue()[0];
+        cells[i] = entry.getValue()[1];
+        values[i++] = entry.getValue()[2];
+      }
+    }
+
+    // The book stays mapped until it is collected, so the file is removed on exit
+    Path path = Files.createTempFile("book", ".bin");
+    path.toFile().deleteOnExit();
+    OpeningBook.write(path, templateKeys, templateSizes, hashes, cardValues, cells, values);
+    OpeningBook book = OpeningBook.open(path);
+    assertEquals(size, book.size());
+    return book;
+  }
+
+  private static int cellOf(ReadOnlyThreeTriosModel position, Move move) {
+    return position.getBoard().getGrid().getIndex(move.getPosition());
+  }
+
+  private static List<Integer> values(Card card) {
+    List<Integer> values = new ArrayList<>();
+    for (Direction direction : Direction.values()) {
+      values.add(card.getValue(direction));
+    }
+    return values;
+  }
+}